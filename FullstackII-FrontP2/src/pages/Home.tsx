@@ -30,6 +30,12 @@ type BannerBackend = {
   titulo?: string | null;
 };
 
+type HomeBackend = {
+  version: number;
+  banners: BannerBackend[];
+  productos: ProductoBackend[];
+};
+
 type Banner = {
   id: number;
   url: string;             // URL completa
@@ -91,21 +97,21 @@ export default function Home() {
   const nextSlide = () =>
     setIndex((prev) => (prev + 1) % banners.length);
 
-  // cargar productos desde backend
+  // cargar portada (banners + productos) en una sola llamada
   useEffect(() => {
-    const fetchProductos = async () => {
+    const fetchHome = async () => {
       try {
         setLoadingProductos(true);
         setErrorProductos(null);
 
-        const res = await fetch(`${API_BASE_URL}/api/productos`);
+        const res = await fetch(`${API_BASE_URL}/api/home`);
         if (!res.ok) {
           throw new Error(`Error HTTP ${res.status}`);
         }
 
-        const data: ProductoBackend[] = await res.json();
+        const data: HomeBackend = await res.json();
 
-        const mapeados: Producto[] = data.map((p) => ({
+        const mapeados: Producto[] = data.productos.map((p) => ({
           id: p.id,
           nombre: p.nombre,
           descripcion: p.descripcion,
@@ -121,27 +127,7 @@ export default function Home() {
           oferta: p.oferta ?? undefined,
         }));
 
-        setProductos(mapeados);
-      } catch (err) {
-        console.error("Error cargando productos:", err);
-        setErrorProductos("No se pudieron cargar los productos.");
-      } finally {
-        setLoadingProductos(false);
-      }
-    };
-
-    fetchProductos();
-  }, []);
-
-  // cargar banners desde backend
-  useEffect(() => {
-    const fetchBanners = async () => {
-      try {
-        const res = await fetch(`${API_BASE_URL}/api/banners`);
-        if (!res.ok) return;
-
-        const data: BannerBackend[] = await res.json();
-        const normalizados: Banner[] = data.map((b) => ({
+        const normalizados: Banner[] = data.banners.map((b) => ({
           id: b.id,
           titulo: b.titulo,
           url: b.url.startsWith("http")
@@ -149,13 +135,17 @@ export default function Home() {
             : `${API_BASE_URL}${b.url}`,
         }));
 
+        setProductos(mapeados);
         setBanners(normalizados);
       } catch (err) {
-        console.error("Error cargando banners:", err);
+        console.error("Error cargando portada:", err);
+        setErrorProductos("No se pudieron cargar los productos.");
+      } finally {
+        setLoadingProductos(false);
       }
     };
 
-    fetchBanners();
+    fetchHome();
   }, []);
 
   const juegosMesa = productos.filter((p) => p.id <= 4);
@@ -1,10 +1,15 @@
 package com.tcg.tcg_backend.Controller;
 import com.tcg.tcg_backend.Model.Banner;
 import com.tcg.tcg_backend.Service.BannerService;
+import com.tcg.tcg_backend.Service.CatalogVersion;
 import com.tcg.tcg_backend.Service.FileStorageService;
+import com.tcg.tcg_backend.Service.UploadCleanupService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -17,15 +22,36 @@ public class BannerController {
 
     private final BannerService service;
     private final FileStorageService fileStorageService;
-
-    public BannerController(BannerService service, FileStorageService fileStorageService) {
+    private final CatalogVersion catalogVersion;
+    private final UploadCleanupService uploadCleanupService;
+
+    public BannerController(
+            BannerService service,
+            FileStorageService fileStorageService,
+            CatalogVersion catalogVersion,
+            UploadCleanupService uploadCleanupService
+    ) {
         this.service = service;
         this.fileStorageService = fileStorageService;
+        this.catalogVersion = catalogVersion;
+        this.uploadCleanupService = uploadCleanupService;
     }
 
     @GetMapping
-    public List<Banner> getAll() {
-        return service.findAll();
+    public ResponseEntity<List<Banner>> getAll(WebRequest request) {
+        // Si el cliente ya tiene esta versión → 304 sin consultar la BD
+        String etag = catalogVersion.etag("banners");
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(service.findAll());
     }
 
     // Crear banner con imagen
@@ -37,17 +63,24 @@ public class BannerController {
             @RequestParam("imagen") MultipartFile imagen,
             @RequestParam(value = "titulo", required = false) String titulo
     ) {
+        String url;
         try {
-            String url = fileStorageService.saveProductImage(imagen); // devuelve /uploads/...
+            url = fileStorageService.saveProductImage(imagen); // devuelve /uploads/...
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().build();
+        }
 
-            Banner b = new Banner();
-            b.setUrl(url);
-            b.setTitulo(titulo);
+        Banner b = new Banner();
+        b.setUrl(url);
+        b.setTitulo(titulo);
 
+        try {
             Banner saved = service.save(b);
             return ResponseEntity.ok(saved);
-        } catch (IOException e) {
-            return ResponseEntity.internalServerError().build();
+        } catch (RuntimeException e) {
+            // Falló la BD: el archivo recién subido queda sin referencia
+            uploadCleanupService.schedule(url);
+            throw e;
         }
     }
 
@@ -66,24 +99,37 @@ public class BannerController {
             return ResponseEntity.notFound().build();
         }
 
+        String oldUrl = exists.getUrl();
+        String oldCard = exists.getUrlCard();
+        String oldFull = exists.getUrlFull();
+        String newUrl = null;
         try {
             if (titulo != null) {
                 exists.setTitulo(titulo);
             }
 
             if (imagen != null && !imagen.isEmpty()) {
-                // borrar imagen vieja
-                fileStorageService.deleteByUrl(exists.getUrl());
                 // guardar nueva
-                String url = fileStorageService.saveProductImage(imagen);
-                exists.setUrl(url);
+                newUrl = fileStorageService.saveProductImage(imagen);
+                exists.setUrl(newUrl);
+                // Las variantes eran de la imagen anterior
+                exists.setUrlCard(null);
+                exists.setUrlFull(null);
             }
 
             Banner saved = service.save(exists);
+
+            // borrar imagen vieja, ya sin referencias
+            if (newUrl != null) {
+                uploadCleanupService.scheduleAll(oldUrl, oldCard, oldFull);
+            }
             return ResponseEntity.ok(saved);
 
         } catch (IOException e) {
             return ResponseEntity.internalServerError().build();
+        } catch (RuntimeException e) {
+            uploadCleanupService.schedule(newUrl);
+            throw e;
         }
     }
 
@@ -94,9 +140,9 @@ public class BannerController {
             return ResponseEntity.notFound().build();
         }
 
-        // borrar archivo asociado
-        fileStorageService.deleteByUrl(exists.getUrl());
         service.delete(id);
+        // borrar archivo asociado (en segundo plano)
+        uploadCleanupService.scheduleAll(exists.getUrl(), exists.getUrlCard(), exists.getUrlFull());
 
         return ResponseEntity.noContent().build();
     }
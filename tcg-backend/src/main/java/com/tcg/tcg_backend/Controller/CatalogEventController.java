@@ -0,0 +1,36 @@
+package com.tcg.tcg_backend.Controller;
+
+import com.tcg.tcg_backend.Dto.EventStreamStats;
+import com.tcg.tcg_backend.Service.CatalogEventService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/eventos")
+@CrossOrigin(origins = "*")
+public class CatalogEventController {
+
+    private final CatalogEventService service;
+
+    public CatalogEventController(CatalogEventService service) {
+        this.service = service;
+    }
+
+    // Cambios de productos y banners en vivo (EventSource en el front)
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream() {
+        SseEmitter emitter = service.subscribe();
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    @GetMapping("/stats")
+    public EventStreamStats stats() {
+        return service.stats();
+    }
+}
@@ -0,0 +1,53 @@
+package com.tcg.tcg_backend.Controller;
+
+import com.tcg.tcg_backend.Dto.ReplicaStats;
+import com.tcg.tcg_backend.Dto.SecondLevelCacheStats;
+import com.tcg.tcg_backend.Dto.ThreadingStats;
+import com.tcg.tcg_backend.config.ReplicaRoutingDataSource;
+import com.tcg.tcg_backend.config.SecondLevelCacheMonitor;
+import com.tcg.tcg_backend.config.VirtualThreadMonitor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/diagnostico")
+@CrossOrigin(origins = "*")
+public class DiagnosticoController {
+
+    private final VirtualThreadMonitor virtualThreadMonitor;
+    private final ObjectProvider<ReplicaRoutingDataSource> replicaRouting;
+    private final SecondLevelCacheMonitor secondLevelCacheMonitor;
+
+    public DiagnosticoController(
+            VirtualThreadMonitor virtualThreadMonitor,
+            ObjectProvider<ReplicaRoutingDataSource> replicaRouting,
+            SecondLevelCacheMonitor secondLevelCacheMonitor
+    ) {
+        this.virtualThreadMonitor = virtualThreadMonitor;
+        this.replicaRouting = replicaRouting;
+        this.secondLevelCacheMonitor = secondLevelCacheMonitor;
+    }
+
+    // Modo de hilos, pinning de hilos virtuales y uso del pool de conexiones
+    @GetMapping("/hilos")
+    public ThreadingStats getThreadingStats() {
+        return virtualThreadMonitor.stats();
+    }
+
+    // Retraso y lecturas por réplica (404 si no hay réplicas configuradas)
+    @GetMapping("/replicas")
+    public ResponseEntity<ReplicaStats> getReplicaStats() {
+        ReplicaRoutingDataSource routing = replicaRouting.getIfAvailable();
+        if (routing == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(routing.stats());
+    }
+
+    // Aciertos de la caché de segundo nivel de Hibernate por región
+    @GetMapping("/cache-hibernate")
+    public SecondLevelCacheStats getSecondLevelCacheStats() {
+        return secondLevelCacheMonitor.stats();
+    }
+}
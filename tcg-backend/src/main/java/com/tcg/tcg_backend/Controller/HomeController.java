@@ -0,0 +1,40 @@
+package com.tcg.tcg_backend.Controller;
+
+import com.tcg.tcg_backend.Dto.HomeBootstrap;
+import com.tcg.tcg_backend.Service.CatalogVersion;
+import com.tcg.tcg_backend.Service.HomeService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+@RestController
+@RequestMapping("/api/home")
+@CrossOrigin(origins = "*")
+public class HomeController {
+
+    private final HomeService service;
+
+    public HomeController(HomeService service) {
+        this.service = service;
+    }
+
+    // Banners + productos destacados en una sola ida y vuelta (sin tocar la BD)
+    @GetMapping
+    public ResponseEntity<HomeBootstrap> bootstrap(WebRequest request) {
+        HomeBootstrap home = service.bootstrap();
+        String etag = CatalogVersion.etag("home", home.getVersion());
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(home);
+    }
+}
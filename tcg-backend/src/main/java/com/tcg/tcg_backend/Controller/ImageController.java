@@ -0,0 +1,31 @@
+package com.tcg.tcg_backend.Controller;
+
+import com.tcg.tcg_backend.Dto.VariantStats;
+import com.tcg.tcg_backend.Service.ImageVariantService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/imagenes")
+@CrossOrigin(origins = "*")
+public class ImageController {
+
+    private final ImageVariantService variantService;
+
+    public ImageController(ImageVariantService variantService) {
+        this.variantService = variantService;
+    }
+
+    // Genera variantes para todo lo que todavía no las tiene (corre en segundo plano)
+    @PostMapping("/variantes/backfill")
+    public ResponseEntity<Map<String, Integer>> backfill() {
+        return ResponseEntity.accepted().body(Map.of("encolados", variantService.backfill()));
+    }
+
+    @GetMapping("/variantes/stats")
+    public VariantStats stats() {
+        return variantService.stats();
+    }
+}
@@ -0,0 +1,67 @@
+package com.tcg.tcg_backend.Controller;
+
+import com.tcg.tcg_backend.Dto.OrderRequest;
+import com.tcg.tcg_backend.Model.Order;
+import com.tcg.tcg_backend.Service.OrderService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/pedidos")
+@CrossOrigin(origins = "*")
+public class OrderController {
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final OrderService service;
+
+    public OrderController(OrderService service) {
+        this.service = service;
+    }
+
+    // El cliente genera un UUID por checkout y lo repite en cada reintento:
+    // curl -X POST -H "Idempotency-Key: <uuid>" -H "Content-Type: application/json" -d @pedido.json /api/pedidos
+    @PostMapping
+    public ResponseEntity<?> create(
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+            @Valid @RequestBody OrderRequest request
+    ) {
+        if (idempotencyKey == null || idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Falta el header Idempotency-Key"));
+        }
+
+        OrderService.Submission submission;
+        try {
+            submission = service.submit(idempotencyKey, request);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+
+        return switch (submission.status()) {
+            case ACCEPTED, DUPLICATE -> ResponseEntity.accepted()
+                    .location(URI.create("/api/pedidos/" + submission.order().getId()))
+                    .body(submission.order());
+            case CONFLICT -> ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "La Idempotency-Key ya se usó con otro pedido"));
+            case BUSY -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .build();
+        };
+    }
+
+    // 202 mientras está en cola, 200 cuando ya quedó guardado
+    @GetMapping("/{id}")
+    public ResponseEntity<Order> getOne(@PathVariable String id) {
+        return service.find(id)
+                .map(e -> e.getValue()
+                        ? ResponseEntity.ok(e.getKey())
+                        : ResponseEntity.accepted().body(e.getKey()))
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -1,15 +1,39 @@
 package com.tcg.tcg_backend.Controller;
 
+import com.tcg.tcg_backend.Dto.BulkUpdateRequest;
+import com.tcg.tcg_backend.Dto.CacheStats;
+import com.tcg.tcg_backend.Dto.CartRequest;
+import com.tcg.tcg_backend.Dto.CartValidation;
+import com.tcg.tcg_backend.Dto.FacetResult;
+import com.tcg.tcg_backend.Dto.ImportReport;
+import com.tcg.tcg_backend.Dto.ProductChanges;
+import com.tcg.tcg_backend.Dto.ProductPage;
 import com.tcg.tcg_backend.Model.Product;
+import com.tcg.tcg_backend.Service.CatalogSnapshot;
+import com.tcg.tcg_backend.Service.ProductBulkUpdateService;
+import com.tcg.tcg_backend.Service.CatalogVersion;
+import com.tcg.tcg_backend.Service.ProductExportService;
+import com.tcg.tcg_backend.Service.ProductImportService;
 import com.tcg.tcg_backend.Service.ProductService;
 import com.tcg.tcg_backend.Service.FileStorageService;
+import com.tcg.tcg_backend.Service.UploadCleanupService;
+import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/api/productos")
@@ -18,18 +42,136 @@ public class ProductController {
 
     private final ProductService service;
     private final FileStorageService fileStorageService;
+    private final CatalogVersion catalogVersion;
+    private final ProductImportService importService;
+    private final ProductExportService exportService;
+    private final ProductBulkUpdateService bulkUpdateService;
+    private final UploadCleanupService uploadCleanupService;
 
-    public ProductController(ProductService service, FileStorageService fileStorageService) {
+    public ProductController(
+            ProductService service,
+            FileStorageService fileStorageService,
+            CatalogVersion catalogVersion,
+            ProductImportService importService,
+            ProductExportService exportService,
+            ProductBulkUpdateService bulkUpdateService,
+            UploadCleanupService uploadCleanupService
+    ) {
         this.service = service;
         this.fileStorageService = fileStorageService;
+        this.catalogVersion = catalogVersion;
+        this.importService = importService;
+        this.exportService = exportService;
+        this.bulkUpdateService = bulkUpdateService;
+        this.uploadCleanupService = uploadCleanupService;
     }
 
     // ===== CRUD JSON SIMPLE (ya lo tenías) =====
 
     @GetMapping
-    public List<Product> getAll() {
+    public ResponseEntity<byte[]> getAll(WebRequest request) {
         System.out.println("Test deploy backend 17 11 2025 ");
-        return service.findAll();
+
+        // Cada representación (gzip o sin comprimir) lleva su propia etiqueta:
+        // un caché intermedio no puede confundir una con la otra
+        boolean gzip = CatalogSnapshot.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String scope = gzip ? "productos-gz" : "productos";
+
+        // La versión se lee ANTES que los datos: en el peor caso la etiqueta
+        // queda más vieja que el contenido y el cliente vuelve a descargar.
+        String etag = catalogVersion.etag(scope);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        // El JSON ya está serializado (y comprimido): solo copiamos bytes
+        CatalogSnapshot.Snapshot snapshot = service.catalogSnapshot();
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(CatalogVersion.etag(scope, snapshot.version()))
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.gzip());
+        }
+        return response.body(snapshot.json());
+    }
+
+    // ===== Listado paginado por keyset =====
+    // Ej: /api/productos?size=24&sort=precio&dir=desc&cursor=<nextCursor anterior>
+
+    @GetMapping(params = "size")
+    public ResponseEntity<ProductPage> getPage(
+            @RequestParam int size,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "asc") String dir,
+            @RequestParam(required = false) String cursor
+    ) {
+        try {
+            return ResponseEntity.ok(service.findPage(sort, dir, size, cursor));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // ===== Cambios desde la última sincronización =====
+    // Ej: /api/productos/changes?since=1731800000123 (sin since = catálogo completo)
+
+    @GetMapping("/changes")
+    public ProductChanges changes(@RequestParam(required = false) Long since) {
+        return service.changesSince(since);
+    }
+
+    // ===== Búsqueda de texto (nombre + descripción) =====
+    // Ej: /api/productos/search?q=caja booster pokemon&limit=20
+
+    @GetMapping("/search")
+    public List<Product> search(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        return service.search(query, limit);
+    }
+
+    // ===== Filtros por precio / oferta con conteos para el sidebar =====
+    // Ej: /api/productos/facets?min=10000&max=50000&oferta=oferta&limit=24
+
+    @GetMapping("/facets")
+    public ResponseEntity<FacetResult> facets(
+            @RequestParam(required = false) Integer min,
+            @RequestParam(required = false) Integer max,
+            @RequestParam(required = false) String oferta,
+            @RequestParam(defaultValue = "asc") String dir,
+            @RequestParam(defaultValue = "24") int limit
+    ) {
+        try {
+            return ResponseEntity.ok(service.facets(min, max, oferta, dir, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // ===== Lote: carrito completo en una sola llamada =====
+    // Body: { "items": [ { "productoId": 3, "cantidad": 2, "precioUnitario": 15990 }, ... ] }
+
+    @PostMapping("/lote")
+    public ResponseEntity<CartValidation> lote(@Valid @RequestBody CartRequest request) {
+        try {
+            return ResponseEntity.ok(service.validateCart(request.getItems()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Contadores de la caché de productos (para dimensionarla)
+    @GetMapping("/cache/stats")
+    public CacheStats getCacheStats() {
+        return service.cacheStats();
     }
 
     @GetMapping("/{id}")
@@ -60,6 +202,15 @@ public class ProductController {
         exists.setNombre(productBody.getNombre());
         exists.setDescripcion(productBody.getDescripcion());
         exists.setPrecio(productBody.getPrecio());
+        if (!Objects.equals(exists.getImagen(), productBody.getImagen())) {
+            // Variantes de la imagen anterior
+            exists.setImagenThumb(null);
+            exists.setImagenCard(null);
+            exists.setImagenFull(null);
+        }
+        if (!Objects.equals(exists.getHover(), productBody.getHover())) {
+            exists.setHoverCard(null);
+        }
         exists.setImagen(productBody.getImagen());
         exists.setHover(productBody.getHover());
         exists.setOferta(productBody.getOferta());
@@ -75,14 +226,73 @@ public class ProductController {
             return ResponseEntity.notFound().build();
         }
 
-        // Borrar archivos asociados si existen
-        fileStorageService.deleteByUrl(exists.getImagen());
-        fileStorageService.deleteByUrl(exists.getHover());
-
         service.delete(id);
+
+        // Borrar archivos asociados (en segundo plano, y solo si la BD confirmó)
+        uploadCleanupService.scheduleAll(exists.getImagen(), exists.getHover(),
+                exists.getImagenThumb(), exists.getImagenCard(), exists.getImagenFull(), exists.getHoverCard());
         return ResponseEntity.noContent().build();
     }
 
+    // ===== Cambio masivo de precios / ofertas (eventos de venta) =====
+    // Ej: { "todos": true, "descuento": 20, "oferta": "oferta" }
+    //     { "ids": [1, 2, 3], "limpiarOferta": true }
+
+    @PostMapping("/masivo")
+    public ResponseEntity<Map<String, Integer>> bulkUpdate(@Valid @RequestBody BulkUpdateRequest request) {
+        try {
+            return ResponseEntity.ok(Map.of("actualizados", bulkUpdateService.apply(request)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // ===== Importación masiva (lista de precios de distribuidor) =====
+    // curl -X POST -H "Content-Type: text/csv" --data-binary @lista.csv /api/productos/import
+
+    @PostMapping(path = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ImportReport> importar(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body
+    ) {
+        ProductImportService.Format format = contentType.contains("csv")
+                ? ProductImportService.Format.CSV
+                : ProductImportService.Format.NDJSON;
+        try {
+            return ResponseEntity.ok(importService.importar(body, format));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    // ===== Exportación en streaming (feed nocturno a marketplaces) =====
+    // Ej: /api/productos/export?format=csv  |  /api/productos/export?format=ndjson
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @RequestParam(defaultValue = "ndjson") String format
+    ) {
+        ProductImportService.Format f;
+        MediaType type;
+        if (format.equalsIgnoreCase("csv")) {
+            f = ProductImportService.Format.CSV;
+            type = new MediaType("text", "csv", StandardCharsets.UTF_8);
+        } else if (format.equalsIgnoreCase("ndjson")) {
+            f = ProductImportService.Format.NDJSON;
+            type = MediaType.APPLICATION_NDJSON;
+        } else {
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody body = out -> exportService.export(out, f);
+        return ResponseEntity.ok()
+                .contentType(type)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"productos." + format.toLowerCase() + "\"")
+                .body(body);
+    }
+
     // ===== NUEVO: crear producto subiendo imagen al servidor =====
 
     @PostMapping(
@@ -97,13 +307,15 @@ public class ProductController {
             @RequestParam(required = false) String oferta,
             @RequestParam(name = "hover", required = false) MultipartFile hover
     ) {
+        String imageUrl = null;
+        String hoverUrl = null;
         try {
-            // Guardar imagen principal en disco
-            String imageUrl = fileStorageService.saveProductImage(imagen);
-
-            String hoverUrl = null;
-            if (hover != null && !hover.isEmpty()) {
-                hoverUrl = fileStorageService.saveProductImage(hover);
+            // Imagen principal y hover se guardan en paralelo
+            String[] urls = fileStorageService.saveProductImages(imagen, hover);
+            imageUrl = urls[0];
+            hoverUrl = urls[1];
+            if (imageUrl == null) {
+                return ResponseEntity.badRequest().build();
             }
 
             Product p = new Product();
@@ -118,7 +330,12 @@ public class ProductController {
             return ResponseEntity.ok(saved);
 
         } catch (IOException e) {
+            uploadCleanupService.scheduleAll(imageUrl, hoverUrl);
             return ResponseEntity.internalServerError().build();
+        } catch (RuntimeException e) {
+            // Falló la BD: los archivos recién subidos no los referencia nadie
+            uploadCleanupService.scheduleAll(imageUrl, hoverUrl);
+            throw e;
         }
     }
 
@@ -142,6 +359,12 @@ public class ProductController {
             return ResponseEntity.notFound().build();
         }
 
+        String oldImage = exists.getImagen();
+        String oldHover = exists.getHover();
+        String[] oldImageVariants = {exists.getImagenThumb(), exists.getImagenCard(), exists.getImagenFull()};
+        String oldHoverCard = exists.getHoverCard();
+        String newImageUrl = null;
+        String newHoverUrl = null;
         try {
             // Actualizar datos básicos
             exists.setNombre(nombre);
@@ -149,27 +372,44 @@ public class ProductController {
             exists.setPrecio(precio);
             exists.setOferta(oferta);
 
+            // Nuevas imágenes (las que vengan), guardadas en paralelo
+            String[] urls = fileStorageService.saveProductImages(imagen, hover);
+            newImageUrl = urls[0];
+            newHoverUrl = urls[1];
+
             // Si viene nueva imagen principal
-            if (imagen != null && !imagen.isEmpty()) {
-                // Borramos la anterior si había
-                fileStorageService.deleteByUrl(exists.getImagen());
-                // Guardamos la nueva
-                String newImageUrl = fileStorageService.saveProductImage(imagen);
+            if (newImageUrl != null) {
                 exists.setImagen(newImageUrl);
+                // Las variantes eran de la imagen anterior; se regeneran en segundo plano
+                exists.setImagenThumb(null);
+                exists.setImagenCard(null);
+                exists.setImagenFull(null);
             }
 
             // Si viene nueva imagen hover
-            if (hover != null && !hover.isEmpty()) {
-                fileStorageService.deleteByUrl(exists.getHover());
-                String newHoverUrl = fileStorageService.saveProductImage(hover);
+            if (newHoverUrl != null) {
                 exists.setHover(newHoverUrl);
+                exists.setHoverCard(null);
             }
 
             Product updated = service.save(exists);
+
+            // Las anteriores se borran recién cuando la BD ya apunta a las nuevas
+            if (newImageUrl != null) {
+                uploadCleanupService.schedule(oldImage);
+                uploadCleanupService.scheduleAll(oldImageVariants);
+            }
+            if (newHoverUrl != null) {
+                uploadCleanupService.scheduleAll(oldHover, oldHoverCard);
+            }
             return ResponseEntity.ok(updated);
 
         } catch (IOException e) {
+            uploadCleanupService.scheduleAll(newImageUrl, newHoverUrl);
             return ResponseEntity.internalServerError().build();
+        } catch (RuntimeException e) {
+            uploadCleanupService.scheduleAll(newImageUrl, newHoverUrl);
+            throw e;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,89 @@
+package com.tcg.tcg_backend.Controller;
+
+import com.tcg.tcg_backend.Dto.ReservationRequest;
+import com.tcg.tcg_backend.Dto.ReservationResponse;
+import com.tcg.tcg_backend.Dto.StockLevel;
+import com.tcg.tcg_backend.Service.StockReservationService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/stock")
+@CrossOrigin(origins = "*")
+public class StockController {
+
+    private final StockReservationService service;
+
+    public StockController(StockReservationService service) {
+        this.service = service;
+    }
+
+    @GetMapping("/{productoId}")
+    public ResponseEntity<StockLevel> getLevel(@PathVariable Long productoId) {
+        try {
+            return ResponseEntity.ok(service.level(productoId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // Ajuste manual desde el panel de admin. Body: { "stock": 120 }
+    @PutMapping("/{productoId}")
+    public ResponseEntity<StockLevel> setStock(
+            @PathVariable Long productoId,
+            @RequestBody Map<String, Integer> body
+    ) {
+        Integer stock = body.get("stock");
+        if (stock == null || stock < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        StockLevel level;
+        try {
+            level = service.setStock(productoId, stock);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+        if (level == null) {
+            // Menos que lo ya reservado en carritos: se devuelve el nivel actual
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(service.level(productoId));
+        }
+        return ResponseEntity.ok(level);
+    }
+
+    // ===== Reservas (carrito) =====
+
+    @PostMapping("/reservas")
+    public ResponseEntity<ReservationResponse> reserve(@Valid @RequestBody ReservationRequest request) {
+        ReservationResponse reservation;
+        try {
+            reservation = service.reserve(request.getProductoId(), request.getCantidad());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+        if (reservation == null) {
+            // Sin stock suficiente
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(reservation);
+    }
+
+    @PostMapping("/reservas/{reservaId}/confirmar")
+    public ResponseEntity<Void> commit(@PathVariable String reservaId) {
+        if (!service.commit(reservaId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/reservas/{reservaId}")
+    public ResponseEntity<Void> release(@PathVariable String reservaId) {
+        if (!service.release(reservaId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,60 @@
+package com.tcg.tcg_backend.Controller;
+
+import com.tcg.tcg_backend.Dto.CleanupStats;
+import com.tcg.tcg_backend.Dto.DedupReport;
+import com.tcg.tcg_backend.Dto.HotCacheStats;
+import com.tcg.tcg_backend.Service.HotImageCache;
+import com.tcg.tcg_backend.Dto.ReconcileReport;
+import com.tcg.tcg_backend.Service.UploadCleanupService;
+import com.tcg.tcg_backend.Service.UploadDedupService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/uploads")
+@CrossOrigin(origins = "*")
+public class UploadController {
+
+    private final UploadCleanupService cleanupService;
+    private final UploadDedupService dedupService;
+    private final HotImageCache hotImageCache;
+
+    public UploadController(
+            UploadCleanupService cleanupService,
+            UploadDedupService dedupService,
+            HotImageCache hotImageCache
+    ) {
+        this.cleanupService = cleanupService;
+        this.dedupService = dedupService;
+        this.hotImageCache = hotImageCache;
+    }
+
+    // Hit ratio y bytes en memoria de la caché de imágenes calientes
+    @GetMapping("/cache/stats")
+    public HotCacheStats getHotCacheStats() {
+        return hotImageCache.stats();
+    }
+
+    // Borrados en cola, fallidos y bytes liberados
+    @GetMapping("/limpieza")
+    public CleanupStats getCleanupStats() {
+        return cleanupService.stats();
+    }
+
+    // Corre la reconciliación ahora (normalmente es nocturna)
+    @PostMapping("/reconciliar")
+    public ReconcileReport reconcile() {
+        return cleanupService.reconcile();
+    }
+
+    // Pasa los uploads antiguos (uuid-nombre.ext) a nombres por contenido y junta duplicados
+    @PostMapping("/deduplicar")
+    public ResponseEntity<DedupReport> deduplicate() {
+        try {
+            return ResponseEntity.ok(dedupService.migrate());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+}
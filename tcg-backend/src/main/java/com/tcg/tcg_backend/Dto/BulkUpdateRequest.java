@@ -0,0 +1,39 @@
+package com.tcg.tcg_backend.Dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Cambio masivo para eventos de venta. Se elige a qué productos aplica con
+ * ids, con el filtro (precioMin / precioMax / ofertaActual) o con todos = true.
+ */
+@Data
+public class BulkUpdateRequest {
+
+    // ===== A quién =====
+
+    private List<Long> ids;
+
+    private Integer precioMin;
+    private Integer precioMax;
+    private String ofertaActual;
+
+    // Obligatorio para tocar el catálogo entero sin filtro
+    private boolean todos;
+
+    // ===== Qué =====
+
+    // Porcentaje de descuento sobre el precio actual (0 = no cambia)
+    @Min(0)
+    @Max(99)
+    private int descuento;
+
+    // Nueva etiqueta; null la deja como está
+    private String oferta;
+
+    // Quita la etiqueta (oferta = null)
+    private boolean limpiarOferta;
+}
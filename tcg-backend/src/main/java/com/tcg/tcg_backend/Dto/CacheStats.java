@@ -0,0 +1,26 @@
+package com.tcg.tcg_backend.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStats {
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    // Cargas reales contra la BD (los misses coalescidos cuentan una sola vez)
+    private long loads;
+
+    private int size;
+    private int maxEntries;
+
+    public double getHitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
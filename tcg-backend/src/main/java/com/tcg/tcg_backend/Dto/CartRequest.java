@@ -0,0 +1,34 @@
+package com.tcg.tcg_backend.Dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+public class CartRequest {
+
+    @Valid
+    @NotEmpty
+    private List<Item> items;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+
+        @NotNull
+        private Long productoId;
+
+        @Min(1)
+        private int cantidad;
+
+        // Opcional: precio guardado en el carrito, para avisar si cambió
+        private Integer precioUnitario;
+    }
+}
@@ -0,0 +1,35 @@
+package com.tcg.tcg_backend.Dto;
+
+import com.tcg.tcg_backend.Model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartValidation {
+
+    private List<Line> items;
+
+    // Productos del carrito que ya no están en el catálogo
+    private List<Long> noEncontrados;
+
+    // Calculado con los precios actuales
+    private long total;
+
+    // false si falta algún producto o algún precio cambió
+    private boolean valido;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        private Product producto;
+        private int cantidad;
+        private long subtotal;
+        private boolean precioCambiado;
+    }
+}
@@ -0,0 +1,30 @@
+package com.tcg.tcg_backend.Dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cambio publicado por /api/eventos.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CatalogEvent {
+
+    // Correlativo: si el cliente ve un salto, perdió eventos y conviene recargar
+    private long seq;
+
+    // "producto" | "banner" | "catalogo"
+    private String tipo;
+
+    // "creado" | "actualizado" | "eliminado" | "recargado"
+    private String accion;
+
+    private Long id;
+
+    // Campos del producto / banner (null en eliminado y recargado)
+    private Object datos;
+}
@@ -0,0 +1,26 @@
+package com.tcg.tcg_backend.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CleanupStats {
+
+    // Borrados en cola, todavía sin procesar
+    private int pendientes;
+
+    private long borrados;
+    private long fallidos;
+
+    // Pedidos de borrado ignorados porque el archivo sigue en uso
+    private long enUso;
+
+    // Total liberado desde que arrancó el servicio (cola + reconciliaciones)
+    private long bytesLiberados;
+
+    // Última reconciliación (null si todavía no corrió)
+    private ReconcileReport ultimaReconciliacion;
+}
@@ -0,0 +1,26 @@
+package com.tcg.tcg_backend.Dto;
+
+import lombok.Data;
+
+@Data
+public class DedupReport {
+
+    // Archivos con nombre antiguo (uuid-nombre.ext) referenciados en la BD
+    private int revisados;
+
+    // Pasados a <sha256>.<ext>
+    private int migrados;
+
+    // Su contenido ya existía con otro nombre
+    private int duplicados;
+
+    private int faltantes;
+
+    // Filas de productos / banners que ahora apuntan al nombre nuevo
+    private int referenciasActualizadas;
+
+    // Lo que ocupaban los duplicados (se libera cuando la cola los borra)
+    private long bytesDuplicados;
+
+    private long duracionMs;
+}
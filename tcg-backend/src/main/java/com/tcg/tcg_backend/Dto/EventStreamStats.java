@@ -0,0 +1,19 @@
+package com.tcg.tcg_backend.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventStreamStats {
+
+    private int suscriptores;
+    private long publicados;
+
+    // Eventos descartados por clientes lentos (buffer lleno, se pierde el más viejo)
+    private long descartados;
+
+    private long desconectados;
+}
@@ -0,0 +1,28 @@
+package com.tcg.tcg_backend.Dto;
+
+import com.tcg.tcg_backend.Model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetResult {
+
+    // Productos que cumplen todos los filtros
+    private int total;
+
+    // Conteo por etiqueta de oferta dentro del rango de precio (sin aplicar el filtro de oferta)
+    private Map<String, Integer> ofertas;
+
+    // Precio mínimo y máximo entre los resultados (null si no hay)
+    private Integer precioMin;
+    private Integer precioMax;
+
+    // Primera tanda de resultados, ordenados por precio
+    private List<Product> productos;
+}
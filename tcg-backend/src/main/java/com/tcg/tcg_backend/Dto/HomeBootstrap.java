@@ -0,0 +1,26 @@
+package com.tcg.tcg_backend.Dto;
+
+import com.tcg.tcg_backend.Model.Banner;
+import com.tcg.tcg_backend.Model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Todo lo que necesita la portada en una sola respuesta.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HomeBootstrap {
+
+    // Sube con cada cambio del snapshot; va en el ETag
+    private long version;
+
+    private List<Banner> banners;
+
+    // Primero los que tienen etiqueta (oferta, nuevo...), después el resto por id
+    private List<Product> productos;
+}
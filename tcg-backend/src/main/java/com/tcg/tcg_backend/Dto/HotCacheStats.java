@@ -0,0 +1,29 @@
+package com.tcg.tcg_backend.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotCacheStats {
+
+    private long hits;
+    private long misses;
+
+    // Candidatos que no entraron por ser menos frecuentes que lo que ya estaba
+    private long rechazados;
+
+    private long evictions;
+    private int entries;
+
+    // Bytes de imágenes cargados en memoria (fuera del heap)
+    private long residentBytes;
+    private long maxBytes;
+
+    public double getHitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,21 @@
+package com.tcg.tcg_backend.Dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ImportReport {
+
+    private long leidas;
+    private long insertadas;
+    private long actualizadas;
+    private long sinCambios;
+    private long errores;
+    private long duracionMs;
+
+    // Una entrada por fila insertada, actualizada o con error
+    // (las que no cambiaron solo se cuentan)
+    private List<ImportRowResult> resultados = new ArrayList<>();
+}
@@ -0,0 +1,21 @@
+package com.tcg.tcg_backend.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRowResult {
+
+    // Línea del archivo donde empieza la fila
+    private long linea;
+
+    // "insertado", "actualizado" o "error"
+    private String accion;
+
+    private Long id;
+
+    private String error;
+}
@@ -0,0 +1,35 @@
+package com.tcg.tcg_backend.Dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+public class OrderRequest {
+
+    @Valid
+    @NotEmpty
+    private List<Item> items;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+
+        @NotNull
+        private Long productoId;
+
+        @Min(1)
+        private int cantidad;
+
+        // Precio que vio el cliente en el carrito; debe coincidir con el catálogo
+        @Min(0)
+        private int precioUnitario;
+    }
+}
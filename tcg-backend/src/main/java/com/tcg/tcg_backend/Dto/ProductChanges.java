@@ -0,0 +1,26 @@
+package com.tcg.tcg_backend.Dto;
+
+import com.tcg.tcg_backend.Model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChanges {
+
+    // Secuencia hasta la que llega esta respuesta: el próximo ?since=
+    private long hasta;
+
+    // true = catálogo completo (el cliente reemplaza su copia en vez de aplicar cambios)
+    private boolean completo;
+
+    // Productos creados o modificados, con sus datos actuales
+    private List<Product> upserts;
+
+    // Ids de productos eliminados
+    private List<Long> eliminados;
+}
@@ -0,0 +1,21 @@
+package com.tcg.tcg_backend.Dto;
+
+import com.tcg.tcg_backend.Model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductPage {
+
+    private List<Product> items;
+
+    // Token opaco para pedir la página siguiente (null si no hay más)
+    private String nextCursor;
+
+    private boolean hasNext;
+}
@@ -0,0 +1,27 @@
+package com.tcg.tcg_backend.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconcileReport {
+
+    private Instant fecha;
+
+    // Archivos encontrados en uploads/
+    private int revisados;
+
+    private int referenciados;
+
+    // Sin referencia, pero más nuevos que el período de gracia: se dejan
+    private int recientes;
+
+    private int huerfanosBorrados;
+    private long bytesLiberados;
+    private long duracionMs;
+}
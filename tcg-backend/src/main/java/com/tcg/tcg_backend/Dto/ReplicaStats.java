@@ -0,0 +1,38 @@
+package com.tcg.tcg_backend.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplicaStats {
+
+    // Transacciones de escritura confirmadas
+    private long escrituras;
+
+    // Lecturas (readOnly) que fueron al primario porque ninguna réplica servía
+    private long lecturasPrimario;
+
+    private long maxLagMs;
+    private List<Replica> replicas;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Replica {
+        private String nombre;
+        private boolean sana;
+
+        // Último retraso medido (-1 si no está replicando o no respondió)
+        private long lagMs;
+
+        // Todo lo confirmado en el primario antes de esta hora (epoch ms) ya está en la réplica
+        private long aplicadoHasta;
+
+        private long lecturas;
+    }
+}
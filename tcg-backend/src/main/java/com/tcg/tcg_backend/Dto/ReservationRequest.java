@@ -0,0 +1,15 @@
+package com.tcg.tcg_backend.Dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class ReservationRequest {
+
+    @NotNull
+    private Long productoId;
+
+    @Min(1)
+    private int cantidad;
+}
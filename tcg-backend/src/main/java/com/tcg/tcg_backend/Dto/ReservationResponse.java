@@ -0,0 +1,20 @@
+package com.tcg.tcg_backend.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationResponse {
+
+    private String reservaId;
+    private Long productoId;
+    private int cantidad;
+
+    // Si no se confirma antes, la reserva se libera sola
+    private Instant expiraEn;
+}
@@ -0,0 +1,40 @@
+package com.tcg.tcg_backend.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SecondLevelCacheStats {
+
+    // false: hibernate.generate_statistics apagado, los contadores quedan en 0
+    private boolean estadisticas;
+
+    // Entidades leídas de la BD (las que salieron de la caché no cuentan)
+    private long entidadesCargadas;
+
+    // Sentencias SQL preparadas
+    private long sentencias;
+
+    // Regiones de entidades y de consultas (default-query-results-region)
+    private List<Region> regiones;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Region {
+        private String nombre;
+        private long aciertos;
+        private long fallos;
+        private long guardados;
+
+        public double getTasaAciertos() {
+            long total = aciertos + fallos;
+            return total == 0 ? 0.0 : (double) aciertos / total;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.tcg.tcg_backend.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLevel {
+
+    private Long productoId;
+
+    // Unidades físicas
+    private int stock;
+
+    // Unidades apartadas en carritos, todavía sin confirmar
+    private int reservado;
+
+    private int disponible;
+}
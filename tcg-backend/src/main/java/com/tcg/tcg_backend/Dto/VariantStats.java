@@ -0,0 +1,27 @@
+package com.tcg.tcg_backend.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VariantStats {
+
+    // Imágenes esperando en la cola del pool
+    private int enCola;
+
+    private long procesadas;
+    private long fallidas;
+
+    // Originales que no se pueden decodificar: no se reintentan
+    private long indecodificables;
+
+    // Cola llena: quedan para el próximo backfill
+    private long rechazadas;
+
+    // Peso de las originales procesadas vs. el de las variantes CARD generadas
+    private long bytesOriginales;
+    private long bytesCard;
+}
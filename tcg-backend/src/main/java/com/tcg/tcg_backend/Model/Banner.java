@@ -2,12 +2,16 @@ package com.tcg.tcg_backend.Model;
 
 
 
+import com.tcg.tcg_backend.config.SecondLevelCacheConfig;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Data
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.BANNERS)
 @Table(name = "banners")
 public class Banner {
 
@@ -20,4 +24,8 @@ public class Banner {
 
     // Título opcional para mostrar debajo del banner
     private String titulo;
+
+    // Versiones reducidas de url (móvil / escritorio), generadas en segundo plano
+    private String urlCard;
+    private String urlFull;
 }
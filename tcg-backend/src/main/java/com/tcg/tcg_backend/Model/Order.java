@@ -0,0 +1,60 @@
+package com.tcg.tcg_backend.Model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.Data;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Entity
+@Table(
+        name = "pedidos",
+        uniqueConstraints = @UniqueConstraint(name = "uk_pedidos_idempotency_key", columnNames = "idempotency_key")
+)
+public class Order implements Persistable<String> {
+
+    // UUID asignado al recibir el pedido: el cliente lo tiene antes de que se guarde
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    // Clave que manda el cliente en el header Idempotency-Key
+    @JsonIgnore
+    @Column(name = "idempotency_key", nullable = false, length = 100)
+    private String idempotencyKey;
+
+    // SHA-256 del contenido, para detectar la misma clave con otro pedido
+    @JsonIgnore
+    @Column(name = "payload_hash", nullable = false, length = 64)
+    private String payloadHash;
+
+    @Column(nullable = false)
+    private long total;
+
+    @Column(name = "creado_en", nullable = false)
+    private Instant creadoEn;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "pedido_items", joinColumns = @JoinColumn(name = "pedido_id"))
+    private List<OrderItem> items = new ArrayList<>();
+
+    // Con id asignado, save() haría merge (un SELECT por pedido) si no le decimos que es nuevo
+    @Transient
+    @JsonIgnore
+    private boolean persisted;
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    void markPersisted() {
+        this.persisted = true;
+    }
+}
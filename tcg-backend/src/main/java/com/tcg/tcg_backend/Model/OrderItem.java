@@ -0,0 +1,27 @@
+package com.tcg.tcg_backend.Model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Línea de un pedido. Nombre y precio se copian del catálogo al momento de comprar.
+@Data
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderItem {
+
+    @Column(name = "producto_id", nullable = false)
+    private Long productoId;
+
+    @Column(nullable = false)
+    private String nombre;
+
+    @Column(name = "precio_unitario", nullable = false)
+    private int precioUnitario;
+
+    @Column(nullable = false)
+    private int cantidad;
+}
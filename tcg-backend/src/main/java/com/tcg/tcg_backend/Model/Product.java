@@ -1,12 +1,25 @@
 package com.tcg.tcg_backend.Model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.tcg.tcg_backend.config.SecondLevelCacheConfig;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 @Data
 @Entity
-@Table(name = "productos")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.PRODUCTS)
+@Table(
+        name = "productos",
+        indexes = {
+                // Índices compuestos para la paginación por keyset (orden + desempate por id)
+                @Index(name = "idx_productos_precio_id", columnList = "precio, id"),
+                @Index(name = "idx_productos_nombre_id", columnList = "nombre, id")
+        }
+)
 public class Product {
 
     @Id
@@ -31,4 +44,20 @@ public class Product {
 
     // Ej: "oferta", "nuevo", etc. (puede ser null)
     private String oferta;
+
+    // Versiones reducidas de imagen / hover (las genera ImageVariantService).
+    // Mientras no existan son null y el front usa la original.
+    private String imagenThumb;
+    private String imagenCard;
+    private String imagenFull;
+    private String hoverCard;
+
+    // Stock físico. Lo maneja StockReservationService (write-behind por JDBC),
+    // por eso JPA nunca lo actualiza y no viaja en el JSON del catálogo:
+    // la disponibilidad en vivo se consulta en /api/stock. En la caché de
+    // segundo nivel puede estar atrasado: se lee con findStockById.
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    private int stock;
 }
@@ -1,7 +1,42 @@
 package com.tcg.tcg_backend.Repository;
 
 import com.tcg.tcg_backend.Model.Banner;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
+@Transactional(readOnly = true)
 public interface BannerRepository extends JpaRepository<Banner, Long> {
-}
\ No newline at end of file
+
+    // La lista de banners se pide en cada carga del front: ids desde la caché
+    // de consultas y cada banner desde su región (se invalida al escribir la tabla)
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Banner> findAll();
+
+    // Imagen y variantes: [url, urlCard, urlFull]. Del primario, como en ProductRepository
+    @Query("select b.url, b.urlCard, b.urlFull from Banner b")
+    List<Object[]> findImageUrls();
+
+    @Query("select count(b) from Banner b where b.url = :url or b.urlCard = :url or b.urlFull = :url")
+    long countImageReferences(String url);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Banner b set b.url = :nuevo, b.urlCard = null, b.urlFull = null where b.url = :viejo")
+    int replaceUrl(String viejo, String nuevo);
+
+    @Query("select b.id from Banner b where b.url like '/uploads/%' and b.urlCard is null")
+    List<Long> findIdsMissingVariants();
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Banner b set b.urlCard = :card, b.urlFull = :full where b.id = :id and b.url = :url")
+    int updateImageVariants(Long id, String url, String card, String full);
+}
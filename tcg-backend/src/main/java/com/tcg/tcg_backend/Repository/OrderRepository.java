@@ -0,0 +1,11 @@
+package com.tcg.tcg_backend.Repository;
+
+import com.tcg.tcg_backend.Model.Order;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface OrderRepository extends JpaRepository<Order, String> {
+
+    Optional<Order> findByIdempotencyKey(String idempotencyKey);
+}
@@ -1,7 +1,125 @@
 package com.tcg.tcg_backend.Repository;
 
 import com.tcg.tcg_backend.Model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// Consultas propias en transacción readOnly (van a una réplica si hay);
+// las que modifican declaran la suya
+@Transactional(readOnly = true)
 public interface ProductRepository extends JpaRepository<Product, Long> {
-}
\ No newline at end of file
+
+    // Precio y oferta en un mismo UPDATE: el WHERE se evalúa una sola vez
+    // sobre los valores previos. descuento = 0 deja el precio igual; el
+    // redondeo es al peso más cercano.
+    String BULK_SET = """
+            update Product p set
+              p.precio = (p.precio * (100 - :descuento) + 50) / 100,
+              p.oferta = case when :limpiarOferta = true then cast(null as String)
+                              else coalesce(:oferta, p.oferta) end
+            """;
+
+    // Paginación por keyset: Spring Data arma el WHERE (clave > última vista)
+    // a partir de la posición, así que el costo no depende de la profundidad.
+    Window<Product> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    List<Product> findByNombreIn(Collection<String> nombres);
+
+    // Recorrido completo con cursor (useCursorFetch en MySQL): trae de a 1000
+    // filas en vez de cargar la tabla entera. Consumir dentro de una transacción.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p from Product p order by p.id")
+    Stream<Product> streamAllOrderById();
+
+    // Siembra el contador de stock: leer con ReplicaRoutingDataSource.fromPrimary,
+    // nunca de una réplica atrasada
+    @Query("select p.stock from Product p where p.id = :id")
+    Optional<Integer> findStockById(Long id);
+
+    // ===== Actualización masiva (sin cargar entidades) =====
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(BULK_SET + " where p.id in :ids")
+    int bulkUpdateByIds(Collection<Long> ids, int descuento, String oferta, boolean limpiarOferta);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(BULK_SET + """
+            where (:precioMin is null or p.precio >= :precioMin)
+              and (:precioMax is null or p.precio <= :precioMax)
+              and (:ofertaActual is null or p.oferta = :ofertaActual)
+            """)
+    int bulkUpdateByFilter(Integer precioMin, Integer precioMax, String ofertaActual,
+                           int descuento, String oferta, boolean limpiarOferta);
+
+    // Todas las imágenes referenciadas (originales y variantes), para la reconciliación de uploads.
+    // Del primario (ReplicaRoutingDataSource.fromPrimary): con una réplica
+    // atrasada se borraría un archivo recién asignado
+    @Query("select p.imagen, p.hover, p.imagenThumb, p.imagenCard, p.imagenFull, p.hoverCard from Product p")
+    List<Object[]> findImageUrls();
+
+    // Cuántos productos usan un archivo (los uploads se comparten por contenido). Del primario
+    @Query("""
+            select count(p) from Product p
+            where p.imagen = :url or p.hover = :url or p.imagenThumb = :url
+               or p.imagenCard = :url or p.imagenFull = :url or p.hoverCard = :url
+            """)
+    long countImageReferences(String url);
+
+    // Cambio de archivo (deduplicación): las variantes se regeneran con el nombre nuevo
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Product p set p.imagen = :nuevo, p.imagenThumb = null, p.imagenCard = null, p.imagenFull = null
+            where p.imagen = :viejo
+            """)
+    int replaceImagen(String viejo, String nuevo);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Product p set p.hover = :nuevo, p.hoverCard = null where p.hover = :viejo")
+    int replaceHover(String viejo, String nuevo);
+
+    // ===== Variantes de imagen =====
+
+    // Columnas de variantes vacías (las que no se pudieron decodificar apuntan a la original)
+    @Query("""
+            select p.id from Product p
+            where (p.imagen like '/uploads/%' and p.imagenCard is null)
+               or (p.hover like '/uploads/%' and p.hoverCard is null)
+            """)
+    List<Long> findIdsMissingVariants();
+
+    // Solo si la imagen / hover siguen siendo las mismas de las que se generaron
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Product p set p.imagenThumb = :thumb, p.imagenCard = :card,
+                                 p.imagenFull = :full, p.hoverCard = :hoverCard
+            where p.id = :id and p.imagen = :imagen and coalesce(p.hover, '') = coalesce(:hover, '')
+            """)
+    int updateImageVariants(Long id, String imagen, String hover,
+                            String thumb, String card, String full, String hoverCard);
+
+    // Solo las columnas que necesita el índice de facetas: [id, precio, oferta]
+    @Query("select p.id, p.precio, p.oferta from Product p order by p.id")
+    List<Object[]> findFacetRows();
+}
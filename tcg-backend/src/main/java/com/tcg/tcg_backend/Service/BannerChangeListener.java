@@ -0,0 +1,22 @@
+package com.tcg.tcg_backend.Service;
+
+import com.tcg.tcg_backend.Model.Banner;
+
+/**
+ * Igual que ProductChangeListener, para los banners: BannerService avisa
+ * después de cada escritura ya confirmada.
+ */
+public interface BannerChangeListener {
+
+    void bannerSaved(Banner banner);
+
+    // Alta nueva; por defecto es un guardado más
+    default void bannerCreated(Banner banner) {
+        bannerSaved(banner);
+    }
+
+    void bannerDeleted(Long id);
+
+    // Cambio fuera de save/delete que puede tocar varios banners (ej: deduplicación de uploads)
+    void bannersReloaded();
+}
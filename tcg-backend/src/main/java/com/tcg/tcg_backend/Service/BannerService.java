@@ -2,17 +2,32 @@ package com.tcg.tcg_backend.Service;
 
 import com.tcg.tcg_backend.Model.Banner;
 import com.tcg.tcg_backend.Repository.BannerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
+@Slf4j
 @Service
 public class BannerService {
 
     private final BannerRepository repository;
+    private final CatalogVersion catalogVersion;
+    private final ImageVariantService imageVariantService;
+    private final ObjectProvider<BannerChangeListener> listeners;
 
-    public BannerService(BannerRepository repository) {
+    public BannerService(
+            BannerRepository repository,
+            CatalogVersion catalogVersion,
+            ImageVariantService imageVariantService,
+            ObjectProvider<BannerChangeListener> listeners
+    ) {
         this.repository = repository;
+        this.catalogVersion = catalogVersion;
+        this.imageVariantService = imageVariantService;
+        this.listeners = listeners;
     }
 
     public List<Banner> findAll() {
@@ -24,10 +39,53 @@ public class BannerService {
     }
 
     public Banner save(Banner banner) {
-        return repository.save(banner);
+        boolean created = banner.getId() == null;
+        Banner saved = repository.save(banner);
+        catalogVersion.increment();
+        if (created) {
+            notifyListeners(l -> l.bannerCreated(saved));
+        } else {
+            notifyListeners(l -> l.bannerSaved(saved));
+        }
+        if (saved.getUrlCard() == null) {
+            // Imagen nueva: las versiones reducidas se generan en segundo plano
+            imageVariantService.submitBanner(saved.getId());
+        }
+        return saved;
     }
 
     public void delete(Long id) {
         repository.deleteById(id);
+        catalogVersion.increment();
+        notifyListeners(l -> l.bannerDeleted(id));
+    }
+
+    /**
+     * Un proceso de fondo cambió columnas del banner sin pasar por save()
+     * (ej: variantes de imagen): se relee y se avisa como un guardado normal.
+     */
+    public void refresh(Long id) {
+        catalogVersion.increment();
+        repository.findById(id).ifPresent(b -> notifyListeners(l -> l.bannerSaved(b)));
+    }
+
+    /**
+     * Para escrituras que no pasan por save/delete y pueden tocar varios banners.
+     */
+    public void bannersReloaded() {
+        catalogVersion.increment();
+        notifyListeners(BannerChangeListener::bannersReloaded);
+    }
+
+    private void notifyListeners(Consumer<BannerChangeListener> event) {
+        // La escritura ya está confirmada: un listener que falla no debe tumbar el request
+        listeners.orderedStream().forEach(listener -> {
+            try {
+                event.accept(listener);
+            } catch (RuntimeException e) {
+                log.warn("Falló la actualización de {} tras un cambio de banner",
+                        listener.getClass().getSimpleName(), e);
+            }
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,291 @@
+package com.tcg.tcg_backend.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.tcg.tcg_backend.Dto.CatalogEvent;
+import com.tcg.tcg_backend.Dto.EventStreamStats;
+import com.tcg.tcg_backend.Model.Banner;
+import com.tcg.tcg_backend.Model.Product;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cambios de productos y banners en vivo por Server-Sent Events.
+ *
+ * Cada evento se serializa una sola vez al publicarlo. Cada suscriptor tiene
+ * su propio buffer acotado y un hilo virtual que le va escribiendo; publicar
+ * nunca espera a la red. Si un cliente lento llena su buffer se descarta el
+ * evento más viejo (y se le avisa con un evento "perdidos"): la memoria por
+ * cliente queda acotada y los demás no se enteran.
+ *
+ * El correlativo se asigna y se reparte a los suscriptores bajo un mismo lock:
+ * todos reciben los eventos en orden de seq, sin huecos que no sean "perdidos".
+ * Los datos se serializan antes, fuera del lock.
+ */
+@Slf4j
+@Service
+public class CatalogEventService implements ProductChangeListener, BannerChangeListener {
+
+    private record Pending(long seq, String name, String json) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long heartbeatMillis;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Protege seq y el alta de suscriptores: lo que se publica bajo él llega a todos en orden
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private long seq;
+    private final AtomicLong subscriberIds = new AtomicLong();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder disconnected = new LongAdder();
+
+    public CatalogEventService(
+            ObjectMapper objectMapper,
+            @Value("${catalog.events.buffer-size:256}") int bufferSize,
+            @Value("${catalog.events.max-subscribers:1000}") int maxSubscribers,
+            @Value("${catalog.events.heartbeat-seconds:25}") long heartbeatSeconds
+    ) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.heartbeatMillis = TimeUnit.SECONDS.toMillis(heartbeatSeconds);
+    }
+
+    /**
+     * Nuevo suscriptor, o null si ya hay demasiados.
+     */
+    public SseEmitter subscribe() {
+        // Sin timeout: los heartbeats detectan a los clientes que se fueron
+        return subscribe(new SseEmitter(0L));
+    }
+
+    SseEmitter subscribe(SseEmitter emitter) {
+        if (subscribers.size() >= maxSubscribers) {
+            return null;
+        }
+        Subscriber subscriber = new Subscriber(emitter);
+        long connectedAt;
+        publishLock.lock();
+        try {
+            // Recibe todo lo publicado después de connectedAt
+            subscribers.add(subscriber);
+            connectedAt = seq;
+        } finally {
+            publishLock.unlock();
+        }
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        Thread.ofVirtual().name("catalog-events-" + subscriberIds.incrementAndGet())
+                .start(() -> subscriber.drainLoop(connectedAt));
+        return emitter;
+    }
+
+    public EventStreamStats stats() {
+        return new EventStreamStats(subscribers.size(), published.sum(), dropped.sum(), disconnected.sum());
+    }
+
+    @PreDestroy
+    void closeAll() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+            subscriber.close();
+        }
+    }
+
+    // ===== ProductChangeListener / BannerChangeListener =====
+
+    @Override
+    public void productCreated(Product product) {
+        publish("producto", "creado", product.getId(), product);
+    }
+
+    @Override
+    public void productSaved(Product product) {
+        publish("producto", "actualizado", product.getId(), product);
+    }
+
+    @Override
+    public void productDeleted(Long id) {
+        publish("producto", "eliminado", id, null);
+    }
+
+    @Override
+    public void catalogReloaded() {
+        // Importación o cambio masivo: el cliente debe volver a pedir el catálogo
+        publish("catalogo", "recargado", null, null);
+    }
+
+    @Override
+    public void bannerCreated(Banner banner) {
+        publish("banner", "creado", banner.getId(), banner);
+    }
+
+    @Override
+    public void bannerSaved(Banner banner) {
+        publish("banner", "actualizado", banner.getId(), banner);
+    }
+
+    @Override
+    public void bannerDeleted(Long id) {
+        publish("banner", "eliminado", id, null);
+    }
+
+    @Override
+    public void bannersReloaded() {
+        publish("banner", "recargado", null, null);
+    }
+
+    private void publish(String tipo, String accion, Long id, Object datos) {
+        // Lo caro (la entidad) se serializa fuera del lock
+        RawValue raw;
+        try {
+            raw = datos == null ? null : new RawValue(objectMapper.writeValueAsString(datos));
+        } catch (JsonProcessingException e) {
+            log.warn("No se pudo serializar el evento {} {} {}", tipo, accion, id, e);
+            return;
+        }
+        publishLock.lock();
+        try {
+            long n = ++seq;
+            String json = objectMapper.writeValueAsString(new CatalogEvent(n, tipo, accion, id, raw));
+            published.increment();
+            Pending event = new Pending(n, tipo, json);
+            for (Subscriber subscriber : subscribers) {
+                // offer no bloquea: a lo sumo descarta el más viejo del buffer
+                subscriber.offer(event);
+            }
+        } catch (JsonProcessingException e) {
+            // Solo el sobre con datos ya serializados: no debería pasar
+            seq--;
+            log.warn("No se pudo serializar el evento {} {} {}", tipo, accion, id, e);
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    // ===== suscriptor =====
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition ready = lock.newCondition();
+        private final ArrayDeque<Pending> buffer = new ArrayDeque<>();
+        private long lost;
+        private boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Pending event) {
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                if (buffer.size() >= bufferSize) {
+                    // Cliente lento: se pierde el más viejo, no la memoria del servidor
+                    buffer.pollFirst();
+                    lost++;
+                    dropped.increment();
+                }
+                buffer.addLast(event);
+                ready.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void close() {
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                buffer.clear();
+                ready.signal();
+            } finally {
+                lock.unlock();
+            }
+            if (subscribers.remove(this)) {
+                disconnected.increment();
+            }
+        }
+
+        void drainLoop(long connectedAt) {
+            List<Pending> batch = new ArrayList<>();
+            try {
+                send(SseEmitter.event().name("conectado").data(connectedAt));
+                while (true) {
+                    long lostNow;
+                    lock.lock();
+                    try {
+                        if (buffer.isEmpty() && !closed) {
+                            ready.await(heartbeatMillis, TimeUnit.MILLISECONDS);
+                        }
+                        if (closed) {
+                            return;
+                        }
+                        batch.addAll(buffer);
+                        buffer.clear();
+                        lostNow = lost;
+                        lost = 0;
+                    } finally {
+                        lock.unlock();
+                    }
+
+                    if (lostNow > 0) {
+                        send(SseEmitter.event().name("perdidos").data(lostNow));
+                    }
+                    if (batch.isEmpty()) {
+                        // Comentario SSE: mantiene viva la conexión y detecta clientes caídos
+                        send(SseEmitter.event().comment("ping"));
+                    }
+                    for (Pending event : batch) {
+                        send(SseEmitter.event()
+                                .id(Long.toString(event.seq()))
+                                .name(event.name())
+                                .data(event.json(), MediaType.APPLICATION_JSON));
+                    }
+                    batch.clear();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // El cliente se desconectó (o el emitter ya estaba completo)
+                emitter.completeWithError(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                close();
+            }
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) throws IOException {
+            emitter.send(event);
+        }
+    }
+}
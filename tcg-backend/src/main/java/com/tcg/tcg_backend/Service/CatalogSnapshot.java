@@ -0,0 +1,119 @@
+package com.tcg.tcg_backend.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * JSON del catálogo completo ya serializado (y una copia gzip), etiquetado con
+ * la versión del catálogo con la que se armó. Se reconstruye una sola vez por
+ * versión: el primer lector después de una mutación lo arma y los demás
+ * reciben los mismos bytes sin pasar por Jackson.
+ */
+public class CatalogSnapshot {
+
+    public record Snapshot(long version, byte[] json, byte[] gzip) {
+    }
+
+    private final ObjectMapper mapper;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile Snapshot current;
+
+    public CatalogSnapshot(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    /**
+     * Devuelve el snapshot de la versión pedida. La versión debe leerse antes
+     * que los datos para que nunca se etiquete contenido viejo como nuevo.
+     */
+    public Snapshot get(long version, Supplier<List<?>> source) {
+        Snapshot snapshot = current;
+        if (snapshot != null && snapshot.version() == version) {
+            return snapshot;
+        }
+
+        rebuildLock.lock();
+        try {
+            // Otro hilo pudo haberlo armado mientras esperábamos el lock
+            snapshot = current;
+            if (snapshot != null && snapshot.version() >= version) {
+                return snapshot;
+            }
+
+            byte[] json = mapper.writeValueAsBytes(source.get());
+            snapshot = new Snapshot(version, json, gzip(json));
+            current = snapshot;
+            return snapshot;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el catálogo", e);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Si el cliente acepta gzip según Accept-Encoding (RFC 9110): "gzip" o
+     * "x-gzip" con q distinto de 0, o "*" con q distinto de 0 si gzip no
+     * aparece. "gzip;q=0" lo rechaza aunque haya un "*".
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            String coding = params[0].trim().toLowerCase();
+            double q = quality(params);
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = gzip == null ? q : Math.max(gzip, q);
+            } else if (coding.equals("*")) {
+                any = q;
+            }
+        }
+        if (gzip != null) {
+            return gzip > 0;
+        }
+        return any != null && any > 0;
+    }
+
+    private static double quality(String[] params) {
+        for (int i = 1; i < params.length; i++) {
+            String param = params[i].trim();
+            if (param.length() > 2 && (param.charAt(0) == 'q' || param.charAt(0) == 'Q') && param.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(param.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    // q mal formado: se ignora la codificación
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gz = new GZIPOutputStream(out) {
+            {
+                // Se comprime una vez por versión, así que conviene el nivel máximo
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gz.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,51 @@
+package com.tcg.tcg_backend.Service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versión del catálogo (productos + banners). Sube en cada mutación y se usa
+ * como ETag fuerte de los listados: si el cliente ya tiene la versión actual
+ * le respondemos 304 sin tocar la BD ni Jackson.
+ */
+@Component
+public class CatalogVersion {
+
+    // Arranca en la hora de inicio para que siga creciendo entre reinicios
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    // Hora del último cambio confirmado (para no leer de una réplica atrasada)
+    private volatile long changedAt;
+
+    public long current() {
+        return version.get();
+    }
+
+    // Llamar DESPUÉS de persistir e invalidar cachés
+    public long increment() {
+        changed();
+        return version.incrementAndGet();
+    }
+
+    /**
+     * Llamar apenas se confirma el cambio, ANTES de invalidar cachés: desde
+     * acá las lecturas que las rearman tienen que ver el cambio (una réplica
+     * que todavía no lo aplicó no sirve).
+     */
+    public void changed() {
+        changedAt = System.currentTimeMillis();
+    }
+
+    public long changedAt() {
+        return changedAt;
+    }
+
+    public String etag(String scope) {
+        return etag(scope, current());
+    }
+
+    public static String etag(String scope, long version) {
+        return "\"" + scope + "-" + version + "\"";
+    }
+}
@@ -1,75 +1,242 @@
 package com.tcg.tcg_backend.Service;
 
 
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
 import java.nio.file.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
 
+@Slf4j
 @Service
 public class FileStorageService {
 
+    public static final String URL_PREFIX = "/uploads/";
+
+    private static final long MAP_CHUNK = 64L * 1024 * 1024;
+
+    // <sha256>.<ext>, y sus variantes <sha256>-card.jpg, etc.
+    private static final Pattern CONTENT_ADDRESSED = Pattern.compile("[0-9a-f]{64}(-[a-z]+)?\\.[a-z0-9]+");
+
+    private final StorageBackend storage;
+
     @Value("${file.upload-dir}")
     private String uploadDir;
 
+    public FileStorageService(StorageBackend storage) {
+        this.storage = storage;
+    }
+
+    /**
+     * Guarda la imagen con su hash como nombre (/uploads/<sha256>.<ext>).
+     * La extensión sale de los primeros bytes y no del nombre que manda el
+     * cliente: el mismo contenido siempre queda en un solo archivo, aunque se
+     * suba como .JPEG, .jpg o sin extensión.
+     *
+     * El multipart ya viene en disco (spring.servlet.multipart en la misma
+     * carpeta, ver MultipartConfig), así que transferTo lo mueve con un rename
+     * en vez de copiar los bytes. El hash se calcula leyendo el archivo mapeado
+     * en memoria y después se entrega al StorageBackend (otro rename en el
+     * local, un PUT en S3). Si ese contenido ya estaba, se reutiliza.
+     */
     public String saveProductImage(MultipartFile file) throws IOException {
         if (file.isEmpty()) {
             throw new IOException("Archivo vacío");
         }
 
-        // Limpiamos el nombre original
-        String originalFilename = StringUtils.cleanPath(file.getOriginalFilename());
-
-        // Generamos nombre único
-        String filename = UUID.randomUUID() + "-" + originalFilename;
-
         // Carpeta base absoluta
-        Path uploadPath = Paths.get(uploadDir).toAbsolutePath();
+        Path uploadPath = uploadRoot();
 
         // Creamos la carpeta si no existe
         if (!Files.exists(uploadPath)) {
             Files.createDirectories(uploadPath);
         }
 
-        // Ruta final del archivo
-        Path filePath = uploadPath.resolve(filename);
+        // Nombre temporal (oculto) hasta conocer el hash
+        Path tmp = uploadPath.resolve("." + UUID.randomUUID() + ".upload");
+        try {
+            // transferTo(File) → Part.write → rename del archivo de Tomcat
+            file.transferTo(tmp.toFile());
+
+            String filename = hash(tmp) + "." + extension(header(tmp));
+            // Si ya existía solo se actualiza su fecha, para que la limpieza no
+            // lo borre justo antes de que se guarde la nueva referencia
+            storage.store(tmp, filename);
+
+            // Devolvemos la ruta pública (lo que verá el front)
+            // Ej: /uploads/9f86d08...0f00a08.png
+            return URL_PREFIX + filename;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Guarda varias imágenes a la vez (ej: imagen + hover de un producto), cada
+     * una en su hilo virtual. Las posiciones null o vacías devuelven null.
+     * Si alguna falla se lanza el error; las que sí se guardaron quedan sin
+     * referencia y las recoge la reconciliación de uploads.
+     */
+    public String[] saveProductImages(MultipartFile... files) throws IOException {
+        String[] urls = new String[files.length];
+        List<Future<String>> pending = new ArrayList<>(files.length);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (MultipartFile file : files) {
+                pending.add(file == null || file.isEmpty() ? null : executor.submit(() -> saveProductImage(file)));
+            }
+            for (int i = 0; i < files.length; i++) {
+                if (pending.get(i) != null) {
+                    urls[i] = pending.get(i).get();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrumpido guardando imágenes", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException(e.getCause());
+        }
+        return urls;
+    }
 
-        // Guardamos el archivo
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+    // SHA-256 leyendo el archivo mapeado: sin copiarlo a buffers de la JVM
+    static String hash(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += MAP_CHUNK) {
+                long length = Math.min(MAP_CHUNK, size - position);
+                digest.update(channel.map(FileChannel.MapMode.READ_ONLY, position, length));
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
 
-        // Devolvemos la ruta pública (lo que verá el front)
-        // Ej: /uploads/uuid-nombre.png
-        return "/uploads/" + filename;
+    // SHA-256 de un archivo que puede no estar en disco (ej: S3)
+    static String hash(InputStream in) throws IOException {
+        MessageDigest digest = sha256();
+        try (DigestInputStream digesting = new DigestInputStream(in, digest)) {
+            digesting.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * true si la URL apunta a un archivo guardado por contenido (puede tener
+     * varias referencias en la BD).
+     */
+    public static boolean isContentAddressed(String url) {
+        return url != null && url.startsWith(URL_PREFIX)
+                && CONTENT_ADDRESSED.matcher(url.substring(URL_PREFIX.length())).matches();
     }
 
     /**
-     * Borra un archivo dado su URL pública (ej: /uploads/uuid-nombre.png)
+     * ETag fuerte de un upload: el hash del nombre si se guardó por contenido;
+     * si no, nombre + fecha + tamaño.
      */
-    public void deleteByUrl(String url) {
-        if (url == null || url.isBlank()) {
-            return;
+    public static String etag(String filename, long lastModified, long length) {
+        if (isContentAddressed(URL_PREFIX + filename)) {
+            return filename.substring(0, filename.lastIndexOf('.'));
         }
+        return filename + "-" + Long.toHexString(lastModified) + "-" + Long.toHexString(length);
+    }
 
-        // Esperamos algo como "/uploads/archivo.ext"
-        String prefix = "/uploads/";
-        if (!url.startsWith(prefix)) {
-            // Si el formato es raro, no nos arriesgamos
-            return;
+    // Lo que necesita extension() para reconocer el formato
+    static final int HEADER_BYTES = 12;
+
+    static byte[] header(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return in.readNBytes(HEADER_BYTES);
         }
+    }
 
-        String filename = url.substring(prefix.length());
+    /**
+     * Extensión según el formato de la imagen (firma de los primeros bytes);
+     * "bin" si no es uno conocido.
+     */
+    static String extension(byte[] header) {
+        if (startsWith(header, 0, 0xFF, 0xD8, 0xFF)) {
+            return "jpg";
+        }
+        if (startsWith(header, 0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return "png";
+        }
+        if (startsWith(header, 0, 'G', 'I', 'F', '8')) {
+            return "gif";
+        }
+        if (startsWith(header, 0, 'R', 'I', 'F', 'F') && startsWith(header, 8, 'W', 'E', 'B', 'P')) {
+            return "webp";
+        }
+        if (startsWith(header, 4, 'f', 't', 'y', 'p', 'a', 'v', 'i', 'f')) {
+            return "avif";
+        }
+        if (startsWith(header, 0, 'B', 'M')) {
+            return "bmp";
+        }
+        return "bin";
+    }
 
-        Path uploadPath = Paths.get(uploadDir).toAbsolutePath();
-        Path filePath = uploadPath.resolve(filename);
+    private static boolean startsWith(byte[] header, int offset, int... signature) {
+        if (header.length < offset + signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if ((header[offset + i] & 0xFF) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
 
+    static MessageDigest sha256() {
         try {
-            Files.deleteIfExists(filePath);
-        } catch (IOException e) {
-            // En un caso real: log.warn("No se pudo borrar el archivo: {}", filePath, e);
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Carpeta local de los uploads: con el backend local es donde quedan los
+     * archivos; con S3, solo donde se reciben antes de subirlos.
+     */
+    public Path uploadRoot() {
+        return Paths.get(uploadDir).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Nombre del archivo de una URL pública (ej: /uploads/abc...123.png →
+     * abc...123.png), o null si la URL no es de uploads o tiene subcarpetas,
+     * archivos ocultos o "../".
+     */
+    public static String keyOf(String url) {
+        if (url == null || url.isBlank() || !url.startsWith(URL_PREFIX)) {
+            return null;
+        }
+        String key = url.substring(URL_PREFIX.length());
+        if (key.isEmpty() || key.startsWith(".") || key.contains("/") || key.contains("\\")) {
+            return null;
         }
+        return key;
     }
-}
\ No newline at end of file
+
+}
@@ -0,0 +1,196 @@
+package com.tcg.tcg_backend.Service;
+
+import com.tcg.tcg_backend.Dto.HomeBootstrap;
+import com.tcg.tcg_backend.Model.Banner;
+import com.tcg.tcg_backend.Model.Product;
+import com.tcg.tcg_backend.Repository.BannerRepository;
+import com.tcg.tcg_backend.Repository.ProductRepository;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Portada (banners + productos destacados) servida desde un snapshot inmutable.
+ *
+ * Copy-on-write: cada save/delete de ProductService o BannerService arma un
+ * snapshot nuevo a partir del anterior (copiando solo los mapas, sin ir a la
+ * BD) y lo publica con una escritura volatile. Los lectores leen la
+ * referencia y listo: ni locks ni consultas. Los escritores se serializan
+ * entre ellos con un lock.
+ */
+@Service
+public class HomeService implements ProductChangeListener, BannerChangeListener {
+
+    private static final Comparator<Product> FEATURED_FIRST =
+            Comparator.comparing((Product p) -> !isFeatured(p)).thenComparing(Product::getId);
+
+    // Todo lo publicado es inmutable: mapas y listas no modificables, entidades copiadas
+    private record State(NavigableMap<Long, Product> products, NavigableMap<Long, Banner> banners,
+                         HomeBootstrap view) {
+    }
+
+    private final ProductRepository productRepository;
+    private final BannerRepository bannerRepository;
+    private final int maxProducts;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile State state;
+    // Propia (no CatalogVersion): cada snapshot publicado tiene un número distinto
+    private long version = System.currentTimeMillis();
+
+    public HomeService(
+            ProductRepository productRepository,
+            BannerRepository bannerRepository,
+            @Value("${home.max-products:48}") int maxProducts
+    ) {
+        this.productRepository = productRepository;
+        this.bannerRepository = bannerRepository;
+        this.maxProducts = maxProducts;
+    }
+
+    public HomeBootstrap bootstrap() {
+        State current = state;
+        if (current == null) {
+            // Solo la primera vez después de arrancar
+            current = load();
+        }
+        return current.view();
+    }
+
+    // ===== ProductChangeListener =====
+
+    @Override
+    public void productSaved(Product product) {
+        Product copy = copy(product);
+        update(products -> products.put(copy.getId(), copy), null);
+    }
+
+    @Override
+    public void productDeleted(Long id) {
+        update(products -> products.remove(id), null);
+    }
+
+    @Override
+    public void catalogReloaded() {
+        reload();
+    }
+
+    // ===== BannerChangeListener =====
+
+    @Override
+    public void bannerSaved(Banner banner) {
+        Banner copy = copy(banner);
+        update(null, banners -> banners.put(copy.getId(), copy));
+    }
+
+    @Override
+    public void bannerDeleted(Long id) {
+        update(null, banners -> banners.remove(id));
+    }
+
+    @Override
+    public void bannersReloaded() {
+        reload();
+    }
+
+    // ===== snapshot =====
+
+    private State load() {
+        writeLock.lock();
+        try {
+            if (state == null) {
+                reloadLocked();
+            }
+            return state;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void reload() {
+        writeLock.lock();
+        try {
+            reloadLocked();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void reloadLocked() {
+        TreeMap<Long, Product> products = new TreeMap<>();
+        for (Product p : productRepository.findAll()) {
+            products.put(p.getId(), copy(p));
+        }
+        TreeMap<Long, Banner> banners = new TreeMap<>();
+        for (Banner b : bannerRepository.findAll()) {
+            banners.put(b.getId(), copy(b));
+        }
+        publish(products, banners);
+    }
+
+    private void update(Consumer<TreeMap<Long, Product>> productChange, Consumer<TreeMap<Long, Banner>> bannerChange) {
+        writeLock.lock();
+        try {
+            State current = state;
+            if (current == null) {
+                // Todavía nadie pidió la portada: se arma completa en la primera lectura
+                return;
+            }
+            // Solo se copia el mapa que cambia; el otro se comparte tal cual
+            NavigableMap<Long, Product> products = current.products();
+            if (productChange != null) {
+                TreeMap<Long, Product> copy = new TreeMap<>(products);
+                productChange.accept(copy);
+                products = copy;
+            }
+            NavigableMap<Long, Banner> banners = current.banners();
+            if (bannerChange != null) {
+                TreeMap<Long, Banner> copy = new TreeMap<>(banners);
+                bannerChange.accept(copy);
+                banners = copy;
+            }
+            publish(products, banners);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Con writeLock tomado
+    private void publish(NavigableMap<Long, Product> products, NavigableMap<Long, Banner> banners) {
+        List<Product> featured = new ArrayList<>(products.values());
+        featured.sort(FEATURED_FIRST);
+        if (featured.size() > maxProducts) {
+            featured = featured.subList(0, maxProducts);
+        }
+        HomeBootstrap view = new HomeBootstrap(++version,
+                List.copyOf(banners.values()),
+                List.copyOf(featured));
+        state = new State(Collections.unmodifiableNavigableMap(products),
+                Collections.unmodifiableNavigableMap(banners), view);
+    }
+
+    private static boolean isFeatured(Product p) {
+        return p.getOferta() != null && !p.getOferta().isBlank();
+    }
+
+    private static Product copy(Product product) {
+        Product copy = new Product();
+        BeanUtils.copyProperties(product, copy);
+        return copy;
+    }
+
+    private static Banner copy(Banner banner) {
+        Banner copy = new Banner();
+        BeanUtils.copyProperties(banner, copy);
+        return copy;
+    }
+}
@@ -0,0 +1,196 @@
+package com.tcg.tcg_backend.Service;
+
+import com.tcg.tcg_backend.Dto.HotCacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Las imágenes de /uploads más pedidas, en memoria directa (fuera del heap).
+ *
+ * Presupuesto en bytes, no en entradas. La admisión es por frecuencia
+ * (TinyLFU): un archivo pedido una sola vez no entra, y uno nuevo solo
+ * desplaza a los menos usados si se pide más que ellos. Así un crawler que
+ * recorre todo el catálogo no vacía la caché de las tarjetas del home.
+ */
+@Slf4j
+@Component
+public class HotImageCache {
+
+    // Un archivo tiene que haberse pedido al menos esto antes de cargarse
+    private static final int MIN_FREQUENCY = 2;
+
+    public record Entry(ByteBuffer data, String etag, long lastModified, MediaType contentType) {
+
+        public int size() {
+            return data.capacity();
+        }
+    }
+
+    private final StorageBackend storage;
+    private final long maxBytes;
+    private final long maxEntryBytes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // accessOrder = true → el primero es el menos usado recientemente
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final FrequencySketch sketch;
+    private final Set<String> loading = ConcurrentHashMap.newKeySet();
+    private long residentBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public HotImageCache(
+            StorageBackend storage,
+            @Value("${uploads.hot-cache.max-bytes:67108864}") long maxBytes,
+            @Value("${uploads.hot-cache.max-entry-bytes:1048576}") long maxEntryBytes
+    ) {
+        this.storage = storage;
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxEntryBytes;
+        // Del orden de los archivos distintos que caben, con holgura
+        this.sketch = new FrequencySketch((int) Math.min(1 << 20, Math.max(1024, maxBytes / 4096)));
+    }
+
+    /**
+     * El archivo si está en caché (o si ya se pidió lo suficiente como para
+     * cargarlo ahora); null si conviene servirlo desde disco.
+     */
+    public Entry get(String filename) {
+        int frequency;
+        lock.lock();
+        try {
+            sketch.increment(filename);
+            Entry entry = entries.get(filename);
+            if (entry != null) {
+                hits.increment();
+                return entry;
+            }
+            frequency = sketch.frequency(filename);
+        } finally {
+            lock.unlock();
+        }
+        misses.increment();
+
+        if (frequency < MIN_FREQUENCY || maxBytes <= 0 || !loading.add(filename)) {
+            return null;
+        }
+        try {
+            Entry loaded = load(filename);
+            if (loaded == null) {
+                return null;
+            }
+            return admit(filename, loaded, frequency) ? loaded : null;
+        } finally {
+            loading.remove(filename);
+        }
+    }
+
+    /**
+     * El archivo se borró: no seguir sirviéndolo desde memoria.
+     */
+    public void invalidate(String filename) {
+        lock.lock();
+        try {
+            Entry removed = entries.remove(filename);
+            if (removed != null) {
+                residentBytes -= removed.size();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public HotCacheStats stats() {
+        lock.lock();
+        try {
+            return new HotCacheStats(hits.sum(), misses.sum(), rejected.sum(), evictions.sum(),
+                    entries.size(), residentBytes, maxBytes);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean admit(String filename, Entry candidate, int frequency) {
+        lock.lock();
+        try {
+            if (entries.containsKey(filename)) {
+                return true;
+            }
+            // Víctimas desde el menos usado recientemente; si alguna es más
+            // frecuente que el candidato, el candidato no entra
+            long needed = residentBytes + candidate.size() - maxBytes;
+            long freed = 0;
+            Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+            int victims = 0;
+            while (freed < needed && it.hasNext()) {
+                Map.Entry<String, Entry> victim = it.next();
+                if (sketch.frequency(victim.getKey()) >= frequency) {
+                    rejected.increment();
+                    return false;
+                }
+                freed += victim.getValue().size();
+                victims++;
+            }
+            if (freed < needed) {
+                rejected.increment();
+                return false;
+            }
+
+            it = entries.entrySet().iterator();
+            for (int i = 0; i < victims; i++) {
+                residentBytes -= it.next().getValue().size();
+                it.remove();
+                evictions.increment();
+            }
+            entries.put(filename, candidate);
+            residentBytes += candidate.size();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Entry load(String filename) {
+        try {
+            StorageBackend.StoredFile file = storage.stat(filename).orElse(null);
+            if (file == null || file.size() == 0 || file.size() > maxEntryBytes || file.size() > maxBytes) {
+                return null;
+            }
+            ByteBuffer data = ByteBuffer.allocateDirect((int) file.size());
+            try (ReadableByteChannel channel = Channels.newChannel(storage.open(filename))) {
+                while (data.hasRemaining() && channel.read(data) >= 0) {
+                    // leer hasta llenar
+                }
+            }
+            if (data.hasRemaining()) {
+                // Cambió mientras lo leíamos
+                return null;
+            }
+            data.flip();
+            MediaType type = MediaTypeFactory.getMediaType(filename).orElse(MediaType.APPLICATION_OCTET_STREAM);
+            return new Entry(data.asReadOnlyBuffer(),
+                    FileStorageService.etag(filename, file.lastModified(), file.size()), file.lastModified(), type);
+        } catch (IOException e) {
+            // No existe o no se puede leer: que responda el handler normal
+            return null;
+        }
+    }
+}
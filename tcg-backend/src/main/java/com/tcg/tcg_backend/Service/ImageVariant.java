@@ -0,0 +1,30 @@
+package com.tcg.tcg_backend.Service;
+
+/**
+ * Tamaños que se generan de cada imagen subida (lado mayor, en px).
+ */
+public enum ImageVariant {
+
+    // Miniaturas: carrito, buscador
+    THUMB("thumb", 200),
+    // Tarjetas de la grilla del home / catálogo
+    CARD("card", 480),
+    // Vista de producto y banners
+    FULL("full", 1200);
+
+    private final String suffix;
+    private final int maxSize;
+
+    ImageVariant(String suffix, int maxSize) {
+        this.suffix = suffix;
+        this.maxSize = maxSize;
+    }
+
+    public String suffix() {
+        return suffix;
+    }
+
+    public int maxSize() {
+        return maxSize;
+    }
+}
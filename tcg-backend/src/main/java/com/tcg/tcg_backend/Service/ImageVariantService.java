@@ -0,0 +1,438 @@
+package com.tcg.tcg_backend.Service;
+
+import com.tcg.tcg_backend.Dto.VariantStats;
+import com.tcg.tcg_backend.Model.Banner;
+import com.tcg.tcg_backend.Model.Product;
+import com.tcg.tcg_backend.Repository.BannerRepository;
+import com.tcg.tcg_backend.Repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Genera versiones reducidas (thumb / card / full) de las imágenes subidas.
+ *
+ * Corre en un pool acotado, fuera del request: decodificar fotos de varios MB
+ * es caro en CPU y memoria. Las variantes se escriben junto a la original
+ * (/uploads/<nombre>-card.jpg) y sus URLs se guardan en el producto o banner
+ * con un UPDATE condicionado a que la imagen no haya cambiado mientras tanto.
+ *
+ * Si la original no se puede decodificar (formato no soportado, archivo
+ * corrupto) las columnas de variantes quedan apuntando a la original: el front
+ * la muestra igual que sin variantes y ningún backfill la vuelve a intentar.
+ */
+@Slf4j
+@Service
+public class ImageVariantService implements ProductChangeListener {
+
+    private static final ImageVariant[] PRODUCT_VARIANTS = {ImageVariant.FULL, ImageVariant.CARD, ImageVariant.THUMB};
+    private static final ImageVariant[] BANNER_VARIANTS = {ImageVariant.FULL, ImageVariant.CARD};
+    private static final ImageVariant[] HOVER_VARIANTS = {ImageVariant.CARD};
+
+    private final ProductRepository productRepository;
+    private final BannerRepository bannerRepository;
+    private final StorageBackend storage;
+    private final UploadCleanupService uploadCleanupService;
+    private final ObjectProvider<ProductService> productService;
+    private final ObjectProvider<BannerService> bannerService;
+
+    private final ThreadPoolExecutor pool;
+    // El backfill deja lugar en la cola para los uploads nuevos
+    private final Semaphore backfillPermits;
+
+    private final Set<Long> queuedProducts = ConcurrentHashMap.newKeySet();
+    private final Set<Long> queuedBanners = ConcurrentHashMap.newKeySet();
+    // Productos que estamos refrescando nosotros: su productSaved no re-encola
+    private final Set<Long> refreshing = ConcurrentHashMap.newKeySet();
+
+    // Un solo recorrido de backfill a la vez; un pedido durante el recorrido
+    // lo hace repetir al terminar (cada importación puede traer filas nuevas)
+    private final AtomicBoolean scanning = new AtomicBoolean();
+    private final AtomicBoolean rescan = new AtomicBoolean();
+
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder undecodable = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder bytesOriginal = new LongAdder();
+    private final LongAdder bytesCard = new LongAdder();
+
+    public ImageVariantService(
+            ProductRepository productRepository,
+            BannerRepository bannerRepository,
+            StorageBackend storage,
+            UploadCleanupService uploadCleanupService,
+            ObjectProvider<ProductService> productService,
+            ObjectProvider<BannerService> bannerService,
+            @Value("${images.variants.threads:0}") int threads,
+            @Value("${images.variants.queue-capacity:200}") int queueCapacity
+    ) {
+        this.productRepository = productRepository;
+        this.bannerRepository = bannerRepository;
+        this.storage = storage;
+        this.uploadCleanupService = uploadCleanupService;
+        this.productService = productService;
+        this.bannerService = bannerService;
+
+        // 0 = la mitad de los núcleos: el resto queda para atender requests
+        int size = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> Thread.ofPlatform().name("image-variants-" + counter.incrementAndGet()).daemon().unstarted(r));
+        this.backfillPermits = new Semaphore(Math.max(1, queueCapacity / 2));
+    }
+
+    // ===== encolar =====
+
+    public void submitProduct(Long id) {
+        if (queuedProducts.add(id)) {
+            execute(() -> {
+                queuedProducts.remove(id);
+                processProduct(id);
+            }, () -> queuedProducts.remove(id));
+        }
+    }
+
+    public void submitBanner(Long id) {
+        if (queuedBanners.add(id)) {
+            execute(() -> {
+                queuedBanners.remove(id);
+                processBanner(id);
+            }, () -> queuedBanners.remove(id));
+        }
+    }
+
+    private record Scan(List<Long> products, List<Long> banners) {
+        int size() {
+            return products.size() + banners.size();
+        }
+    }
+
+    /**
+     * Encola todo lo que todavía no tiene variantes (imágenes anteriores a
+     * este proceso o importadas). Las consultas corren acá y el encolado en
+     * segundo plano; devuelve cuántas filas encontró. Si ya hay un recorrido en
+     * curso no arranca otro: ese vuelve a consultar al terminar y devuelve 0.
+     */
+    public int backfill() {
+        rescan.set(true);
+        if (!scanning.compareAndSet(false, true)) {
+            return 0;
+        }
+        Scan scan;
+        try {
+            rescan.set(false);
+            scan = scan();
+        } catch (RuntimeException e) {
+            finishScanning();
+            throw e;
+        }
+        if (scan.size() == 0) {
+            finishScanning();
+            return 0;
+        }
+        Thread.ofPlatform().name("image-variants-backfill").daemon().start(() -> enqueueAll(scan));
+        return scan.size();
+    }
+
+    private Scan scan() {
+        return new Scan(productRepository.findIdsMissingVariants(), bannerRepository.findIdsMissingVariants());
+    }
+
+    private void enqueueAll(Scan first) {
+        try {
+            Scan scan = first;
+            while (true) {
+                for (Long id : scan.banners()) {
+                    backfillOne(queuedBanners, id, () -> processBanner(id));
+                }
+                for (Long id : scan.products()) {
+                    backfillOne(queuedProducts, id, () -> processProduct(id));
+                }
+                log.info("Backfill de variantes: {} productos y {} banners encolados",
+                        scan.products().size(), scan.banners().size());
+                if (!rescan.getAndSet(false)) {
+                    break;
+                }
+                scan = scan();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Falló el backfill de variantes", e);
+        } finally {
+            finishScanning();
+        }
+    }
+
+    private void finishScanning() {
+        scanning.set(false);
+        // Un pedido que llegó después de la última consulta pero antes de soltar la marca
+        if (rescan.get()) {
+            backfill();
+        }
+    }
+
+    public VariantStats stats() {
+        return new VariantStats(pool.getQueue().size(), processed.sum(), failed.sum(), undecodable.sum(),
+                rejected.sum(), bytesOriginal.sum(), bytesCard.sum());
+    }
+
+    // ===== ProductChangeListener =====
+
+    @Override
+    public void productSaved(Product product) {
+        if (refreshing.contains(product.getId())) {
+            return;
+        }
+        if (needsVariants(product.getImagen(), product.getImagenCard())
+                || needsVariants(product.getHover(), product.getHoverCard())) {
+            submitProduct(product.getId());
+        }
+    }
+
+    @Override
+    public void productDeleted(Long id) {
+        // Los archivos los borra el controller junto con la original
+    }
+
+    @Override
+    public void catalogReloaded() {
+        // Una importación puede traer imágenes nuevas sin variantes
+        backfill();
+    }
+
+    // ===== procesamiento =====
+
+    private void processProduct(Long id) {
+        Product p = productRepository.findById(id).orElse(null);
+        if (p == null) {
+            return;
+        }
+        // Otro proceso (o un backfill anterior) pudo haberlas generado mientras tanto
+        boolean mainMissing = needsVariants(p.getImagen(), p.getImagenCard());
+        boolean hoverMissing = needsVariants(p.getHover(), p.getHoverCard());
+        if (!mainMissing && !hoverMissing) {
+            return;
+        }
+
+        Map<ImageVariant, String> main = new EnumMap<>(ImageVariant.class);
+        Set<String> generated = new HashSet<>();
+        if (mainMissing) {
+            main.putAll(generate(p.getImagen(), PRODUCT_VARIANTS));
+            if (main.isEmpty()) {
+                // Error pasajero (lectura del archivo): queda para el próximo backfill
+                return;
+            }
+            generated.addAll(main.values());
+        } else {
+            main.put(ImageVariant.THUMB, p.getImagenThumb());
+            main.put(ImageVariant.CARD, p.getImagenCard());
+            main.put(ImageVariant.FULL, p.getImagenFull());
+        }
+        String hoverCard = p.getHoverCard();
+        if (hoverMissing) {
+            hoverCard = generate(p.getHover(), HOVER_VARIANTS).get(ImageVariant.CARD);
+            generated.add(hoverCard);
+        }
+        generated.remove(null);
+        generated.remove(p.getImagen());
+        generated.remove(p.getHover());
+
+        int updated = productRepository.updateImageVariants(id, p.getImagen(), p.getHover(),
+                main.get(ImageVariant.THUMB), main.get(ImageVariant.CARD), main.get(ImageVariant.FULL), hoverCard);
+        if (updated == 0) {
+            // La imagen cambió mientras procesábamos: estas variantes ya no sirven
+            uploadCleanupService.scheduleAll(generated.toArray(String[]::new));
+            return;
+        }
+        refreshing.add(id);
+        try {
+            productService.getObject().refresh(id);
+        } finally {
+            refreshing.remove(id);
+        }
+    }
+
+    private void processBanner(Long id) {
+        Banner b = bannerRepository.findById(id).orElse(null);
+        if (b == null || !needsVariants(b.getUrl(), b.getUrlCard())) {
+            return;
+        }
+        Map<ImageVariant, String> variants = generate(b.getUrl(), BANNER_VARIANTS);
+        if (variants.isEmpty()) {
+            return;
+        }
+        int updated = bannerRepository.updateImageVariants(id, b.getUrl(),
+                variants.get(ImageVariant.CARD), variants.get(ImageVariant.FULL));
+        if (updated == 0) {
+            uploadCleanupService.scheduleAll(variants.values().stream()
+                    .filter(url -> !url.equals(b.getUrl()))
+                    .toArray(String[]::new));
+            return;
+        }
+        bannerService.getObject().refresh(id);
+    }
+
+    /**
+     * Genera las variantes pedidas (de mayor a menor, cada una a partir de la
+     * anterior) y devuelve sus URLs. Si la original no se puede decodificar,
+     * todas apuntan a la original; mapa vacío si no se pudo leer (se reintenta).
+     */
+    private Map<ImageVariant, String> generate(String sourceUrl, ImageVariant[] variants) {
+        String source = FileStorageService.keyOf(sourceUrl);
+        Map<ImageVariant, String> urls = new EnumMap<>(ImageVariant.class);
+        try {
+            long sourceSize = storage.stat(source).orElseThrow(() -> new NoSuchFileException(source)).size();
+            if (FileStorageService.isContentAddressed(sourceUrl)) {
+                // Mismo contenido → mismas variantes: si otro producto ya las generó, se reutilizan
+                Map<ImageVariant, String> existing = existingVariants(source, variants);
+                if (existing != null) {
+                    return existing;
+                }
+            }
+            byte[] original;
+            try (InputStream in = storage.open(source)) {
+                original = in.readAllBytes();
+            }
+            BufferedImage image;
+            try {
+                image = ImageResizer.read(new ByteArrayInputStream(original), source, variants[0].maxSize());
+            } catch (IOException | RuntimeException e) {
+                // Los bytes ya están en memoria: el problema es el archivo y reintentar no sirve
+                undecodable.increment();
+                log.warn("{} no se puede decodificar: se usará la original", sourceUrl, e);
+                for (ImageVariant variant : variants) {
+                    urls.put(variant, sourceUrl);
+                }
+                return urls;
+            }
+            String format = ImageResizer.formatFor(image);
+            String stem = stem(source);
+
+            for (ImageVariant variant : variants) {
+                image = ImageResizer.scale(image, variant.maxSize());
+                byte[] bytes = ImageResizer.encode(image, format);
+                String filename = stem + "-" + variant.suffix() + "." + format;
+                // Quien sirve /uploads nunca ve un archivo a medio escribir
+                storage.write(filename, bytes);
+                urls.put(variant, FileStorageService.URL_PREFIX + filename);
+                if (variant == ImageVariant.CARD) {
+                    bytesOriginal.add(sourceSize);
+                    bytesCard.add(bytes.length);
+                }
+            }
+            processed.increment();
+            return urls;
+        } catch (IOException | RuntimeException e) {
+            failed.increment();
+            log.warn("No se pudieron generar variantes de {}", sourceUrl, e);
+            uploadCleanupService.scheduleAll(urls.values().toArray(String[]::new));
+            return Map.of();
+        }
+    }
+
+    private Map<ImageVariant, String> existingVariants(String source, ImageVariant[] variants) throws IOException {
+        String stem = stem(source);
+        Map<ImageVariant, String> urls = new EnumMap<>(ImageVariant.class);
+        for (ImageVariant variant : variants) {
+            String found = null;
+            for (String format : new String[]{"jpg", "png"}) {
+                String candidate = stem + "-" + variant.suffix() + "." + format;
+                // Igual que la original: que la limpieza no la borre mientras se guarda la referencia
+                if (storage.touch(candidate)) {
+                    found = candidate;
+                    break;
+                }
+            }
+            if (found == null) {
+                return null;
+            }
+            urls.put(variant, FileStorageService.URL_PREFIX + found);
+        }
+        return urls;
+    }
+
+    // Las variantes de "x.png" son "x-card.jpg", etc.: si la columna no empieza
+    // con el nombre de la original, es de una imagen anterior
+    private boolean needsVariants(String sourceUrl, String variantUrl) {
+        if (FileStorageService.keyOf(sourceUrl) == null) {
+            return false;
+        }
+        if (variantUrl == null) {
+            return true;
+        }
+        if (variantUrl.equals(sourceUrl)) {
+            // No se pudo decodificar: ya se intentó
+            return false;
+        }
+        String sourceName = sourceUrl.substring(sourceUrl.lastIndexOf('/') + 1);
+        return !variantUrl.startsWith(FileStorageService.URL_PREFIX + stem(sourceName) + "-");
+    }
+
+    private static String stem(String filename) {
+        int dot = filename.lastIndexOf('.');
+        return dot > 0 ? filename.substring(0, dot) : filename;
+    }
+
+    private void execute(Runnable task, Runnable onReject) {
+        try {
+            pool.execute(task);
+        } catch (RejectedExecutionException e) {
+            onReject.run();
+            rejected.increment();
+            log.warn("Cola de variantes llena; la imagen queda para el backfill");
+        }
+    }
+
+    private void backfillOne(Set<Long> queued, Long id, Runnable task) throws InterruptedException {
+        // Ya en la cola (upload reciente o recorrido anterior todavía en curso)
+        if (!queued.add(id)) {
+            return;
+        }
+        backfillPermits.acquire();
+        try {
+            pool.execute(() -> {
+                try {
+                    queued.remove(id);
+                    task.run();
+                } finally {
+                    backfillPermits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queued.remove(id);
+            backfillPermits.release();
+            rejected.increment();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,323 @@
+package com.tcg.tcg_backend.Service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Uploads en una carpeta local, repartidos en dos niveles de subcarpetas
+ * según el hash: <sha256>.jpg queda en ab/cd/<sha256>.jpg (y sus variantes
+ * <sha256>-card.jpg al lado). Los nombres antiguos (uuid-nombre.png) usan el
+ * hash del nombre. Así ninguna carpeta pasa de unos pocos cientos de archivos.
+ *
+ * Compatibilidad con el esquema plano anterior (todo en la raíz): si un
+ * archivo no está en su subcarpeta se busca en la raíz, y al arrancar un
+ * hilo los va moviendo (rename, sin copiar) a su subcarpeta. Durante la
+ * migración los dos lugares sirven, así que no hace falta parar el servicio.
+ */
+@Slf4j
+public class LocalStorageBackend implements StorageBackend {
+
+    private final Path root;
+    private final boolean migrateFlat;
+
+    public LocalStorageBackend(Path root, boolean migrateFlat) {
+        this.root = root.toAbsolutePath().normalize();
+        this.migrateFlat = migrateFlat;
+    }
+
+    @PostConstruct
+    void startMigration() {
+        if (migrateFlat) {
+            Thread.ofPlatform().name("upload-shard-migration").daemon().start(() -> {
+                try {
+                    int moved = migrateFlatLayout();
+                    if (moved > 0) {
+                        log.info("Uploads movidos a subcarpetas: {}", moved);
+                    }
+                } catch (IOException e) {
+                    log.warn("No se pudo migrar la carpeta de uploads a subcarpetas", e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Subcarpeta de un archivo (ej: "ab/cd").
+     */
+    static String shard(String key) {
+        String hex = FileStorageService.isContentAddressed(FileStorageService.URL_PREFIX + key)
+                ? key
+                : HexFormat.of().formatHex(FileStorageService.sha256().digest(key.getBytes(StandardCharsets.UTF_8)));
+        return hex.substring(0, 2) + "/" + hex.substring(2, 4);
+    }
+
+    Path shardedPath(String key) {
+        return root.resolve(shard(checkKey(key))).resolve(key);
+    }
+
+    /**
+     * Dónde está el archivo ahora (subcarpeta o raíz), o null si no existe.
+     */
+    Path locate(String key) {
+        Path sharded = shardedPath(key);
+        if (Files.exists(sharded)) {
+            return sharded;
+        }
+        Path flat = root.resolve(key);
+        if (Files.exists(flat)) {
+            return flat;
+        }
+        // Lo pudo haber movido la migración entre las dos consultas
+        return Files.exists(sharded) ? sharded : null;
+    }
+
+    @Override
+    public void store(Path source, String key) throws IOException {
+        Path existing = locate(key);
+        if (existing != null) {
+            try {
+                Files.setLastModifiedTime(existing, FileTime.from(Instant.now()));
+                Files.deleteIfExists(source);
+                return;
+            } catch (NoSuchFileException e) {
+                // La limpieza lo apartó justo ahora: se guarda de nuevo
+            }
+        }
+        Path target = shardedPath(key);
+        Files.createDirectories(target.getParent());
+        Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public void write(String key, byte[] bytes) throws IOException {
+        Path target = shardedPath(key);
+        Files.createDirectories(target.getParent());
+        // createTempFile dejaría permisos 600; así quedan como las demás
+        Path tmp = target.resolveSibling("." + UUID.randomUUID() + ".tmp");
+        try {
+            Files.write(tmp, bytes);
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    @Override
+    public Optional<StoredFile> stat(String key) throws IOException {
+        Path path = locate(key);
+        if (path == null) {
+            return Optional.empty();
+        }
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+            return Optional.of(new StoredFile(key, attrs.size(), attrs.lastModifiedTime().toMillis()));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public boolean touch(String key) throws IOException {
+        Path path = locate(key);
+        if (path == null) {
+            return false;
+        }
+        try {
+            Files.setLastModifiedTime(path, FileTime.from(Instant.now()));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        Path path = locate(key);
+        if (path == null) {
+            throw new NoSuchFileException(key);
+        }
+        return Files.newInputStream(path);
+    }
+
+    @Override
+    public void copy(String sourceKey, String targetKey) throws IOException {
+        Path source = locate(sourceKey);
+        if (source == null) {
+            throw new NoSuchFileException(sourceKey);
+        }
+        Path target = shardedPath(targetKey);
+        Files.createDirectories(target.getParent());
+        Path tmp = target.resolveSibling("." + UUID.randomUUID() + ".upload");
+        try {
+            // Hard link si el sistema de archivos lo permite; si no, copia
+            try {
+                Files.createLink(tmp, source);
+            } catch (IOException | UnsupportedOperationException e) {
+                Files.copy(source, tmp);
+            }
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    @Override
+    public long delete(String key) {
+        Path path = locate(key);
+        if (path == null) {
+            return 0;
+        }
+        try {
+            long size = Files.size(path);
+            Files.delete(path);
+            return size;
+        } catch (NoSuchFileException e) {
+            return 0;
+        } catch (IOException e) {
+            log.warn("No se pudo borrar el archivo: {}", path, e);
+            return -1;
+        }
+    }
+
+    /**
+     * Primero lo aparta con un rename a un nombre oculto y recién ahí evalúa
+     * la condición: un store() anterior al rename ya dejó su fecha, y uno
+     * posterior no lo encuentra y guarda el archivo de nuevo. Si hay que
+     * conservarlo, vuelve a su lugar.
+     */
+    @Override
+    public long deleteIf(String key, Predicate<StoredFile> condition) {
+        Path path = locate(key);
+        if (path == null) {
+            return 0;
+        }
+        Path aside = path.resolveSibling("." + UUID.randomUUID() + ".deleting");
+        try {
+            Files.move(path, aside, StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException e) {
+            return 0;
+        } catch (IOException e) {
+            log.warn("No se pudo borrar el archivo: {}", path, e);
+            return -1;
+        }
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(aside, BasicFileAttributes.class);
+            if (!condition.test(new StoredFile(key, attrs.size(), attrs.lastModifiedTime().toMillis()))) {
+                restore(aside, path);
+                return KEPT;
+            }
+            Files.delete(aside);
+            return attrs.size();
+        } catch (IOException | RuntimeException e) {
+            log.warn("No se pudo borrar el archivo: {}", path, e);
+            try {
+                restore(aside, path);
+            } catch (IOException restoreError) {
+                log.warn("No se pudo devolver el archivo: {}", path, restoreError);
+            }
+            return -1;
+        }
+    }
+
+    private static void restore(Path aside, Path path) throws IOException {
+        if (Files.exists(path)) {
+            // Mientras estaba apartado se subió el mismo contenido: queda ese
+            Files.deleteIfExists(aside);
+        } else {
+            Files.move(aside, path, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    @Override
+    public Stream<StoredFile> list() throws IOException {
+        if (!Files.isDirectory(root)) {
+            return Stream.empty();
+        }
+        // Raíz (esquema plano) + ab/cd/; nada oculto (.multipart, temporales)
+        return Files.walk(root, 3)
+                .filter(path -> !root.relativize(path).toString().startsWith(".")
+                        && !path.getFileName().toString().startsWith("."))
+                .map(this::toStoredFile)
+                .flatMap(Optional::stream);
+    }
+
+    private Optional<StoredFile> toStoredFile(Path path) {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+            if (!attrs.isRegularFile()) {
+                return Optional.empty();
+            }
+            return Optional.of(new StoredFile(path.getFileName().toString(), attrs.size(),
+                    attrs.lastModifiedTime().toMillis()));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Resource resource(String key) {
+        Path path = locate(key);
+        return path == null ? null : new FileSystemResource(path);
+    }
+
+    /**
+     * Mueve a su subcarpeta los archivos que siguen en la raíz. Devuelve
+     * cuántos movió.
+     */
+    public int migrateFlatLayout() throws IOException {
+        if (!Files.isDirectory(root)) {
+            return 0;
+        }
+        int moved = 0;
+        try (Stream<Path> files = Files.list(root)) {
+            for (Path flat : (Iterable<Path>) files::iterator) {
+                String key = flat.getFileName().toString();
+                if (key.startsWith(".") || !Files.isRegularFile(flat)) {
+                    continue;
+                }
+                Path target = shardedPath(key);
+                if (Files.exists(target)) {
+                    // Si ya hay uno en la subcarpeta, gana ese
+                    if (FileStorageService.isContentAddressed(FileStorageService.URL_PREFIX + key)) {
+                        // Mismo nombre = mismo contenido: el de la raíz sobra
+                        Files.deleteIfExists(flat);
+                    }
+                    continue;
+                }
+                try {
+                    Files.createDirectories(target.getParent());
+                    Files.move(flat, target, StandardCopyOption.ATOMIC_MOVE);
+                    moved++;
+                } catch (NoSuchFileException e) {
+                    // Lo borró la limpieza mientras tanto
+                }
+            }
+        }
+        return moved;
+    }
+
+    private static String checkKey(String key) {
+        if (key == null || key.isEmpty() || key.startsWith(".") || key.contains("/") || key.contains("\\")) {
+            throw new IllegalArgumentException("Nombre de archivo inválido: " + key);
+        }
+        return key;
+    }
+}
@@ -0,0 +1,370 @@
+package com.tcg.tcg_backend.Service;
+
+import com.tcg.tcg_backend.Dto.OrderRequest;
+import com.tcg.tcg_backend.Model.Order;
+import com.tcg.tcg_backend.Model.OrderItem;
+import com.tcg.tcg_backend.Model.Product;
+import com.tcg.tcg_backend.Repository.OrderRepository;
+import com.tcg.tcg_backend.config.ReplicaRoutingDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recepción de pedidos.
+ *
+ * La request solo valida precios (contra la caché de productos), reclama la
+ * Idempotency-Key y deja el pedido en una cola acotada; un único hilo escritor
+ * la vacía y guarda tandas de hasta batchSize pedidos por transacción. Así un
+ * pico de cientos de pedidos por segundo no abre cientos de transacciones.
+ *
+ * Un pedido aceptado queda en memoria hasta que está en la BD: si la
+ * escritura falla se reintenta con espera creciente.
+ *
+ * Un reintento del cliente con la misma clave devuelve el pedido original,
+ * esté todavía en cola o ya guardado. Si la clave llega con otro contenido
+ * se responde CONFLICT. La unique de idempotency_key cubre el caso de varias
+ * instancias. Las búsquedas por clave y por id van al primario: una réplica
+ * atrasada no tiene el pedido que otra instancia (o el escritor) acaba de
+ * guardar.
+ */
+@Slf4j
+@Service
+public class OrderService {
+
+    public enum Status { ACCEPTED, DUPLICATE, CONFLICT, BUSY }
+
+    public record Submission(Status status, Order order) {
+    }
+
+    private final OrderRepository repo;
+    private final ProductService productService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    private final BlockingQueue<Order> queue;
+    // Pedidos aceptados que el escritor todavía no guardó, por Idempotency-Key
+    private final ConcurrentHashMap<String, Order> pending = new ConcurrentHashMap<>();
+
+    // Pedidos que no se pudieron guardar: siguen en pending y se reintentan con
+    // espera creciente. Solo los toca el hilo escritor.
+    private record Retry(Order order, long dueAt) {
+    }
+
+    static final long RETRY_INITIAL_MS = 100;
+    static final long RETRY_MAX_MS = 30_000;
+
+    // Pedidos aceptados acá cuya clave ya había guardado otra instancia: el
+    // cliente recibió el id local, que nunca llega a la BD. id local -> id guardado
+    static final int MAX_ALIASES = 10_000;
+
+    private final Map<String, String> aliases = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > MAX_ALIASES;
+        }
+    };
+
+    private final PriorityQueue<Retry> retries = new PriorityQueue<>(Comparator.comparingLong(Retry::dueAt));
+    private final Map<Order, Integer> attempts = new IdentityHashMap<>();
+
+    private volatile boolean running = true;
+    private Thread writer;
+
+    public OrderService(
+            OrderRepository repo,
+            ProductService productService,
+            PlatformTransactionManager transactionManager,
+            @Value("${orders.queue-capacity:10000}") int queueCapacity,
+            @Value("${orders.batch-size:500}") int batchSize
+    ) {
+        this.repo = repo;
+        this.productService = productService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Valida y encola un pedido. Lanza IllegalArgumentException si algún
+     * producto no existe o el precio no coincide con el catálogo.
+     */
+    public Submission submit(String idempotencyKey, OrderRequest request) {
+        Order order = buildOrder(idempotencyKey, request);
+
+        Order claimed = pending.putIfAbsent(idempotencyKey, order);
+        if (claimed != null) {
+            return replay(claimed, order);
+        }
+        // Ganamos la clave en memoria, pero puede que ya esté guardada de antes.
+        // Si la consulta falla la clave se libera: el pedido no llegó a la cola
+        Optional<Order> stored;
+        try {
+            stored = findStored(idempotencyKey);
+        } catch (RuntimeException e) {
+            pending.remove(idempotencyKey, order);
+            throw e;
+        }
+        if (stored.isPresent()) {
+            pending.remove(idempotencyKey, order);
+            return replay(stored.get(), order);
+        }
+
+        if (!queue.offer(order)) {
+            pending.remove(idempotencyKey, order);
+            return new Submission(Status.BUSY, null);
+        }
+        return new Submission(Status.ACCEPTED, order);
+    }
+
+    /**
+     * Busca un pedido por id. El booleano indica si ya está guardado. Un id
+     * aceptado acá cuya clave guardó otra instancia devuelve el pedido guardado.
+     */
+    public Optional<Map.Entry<Order, Boolean>> find(String id) {
+        for (Order o : pending.values()) {
+            if (o.getId().equals(id)) {
+                return Optional.of(Map.entry(o, false));
+            }
+        }
+        String storedId;
+        synchronized (aliases) {
+            storedId = aliases.getOrDefault(id, id);
+        }
+        return ReplicaRoutingDataSource.fromPrimary(() -> repo.findById(storedId))
+                .map(o -> Map.entry(o, true));
+    }
+
+    public int queued() {
+        return queue.size();
+    }
+
+    private Optional<Order> findStored(String idempotencyKey) {
+        return ReplicaRoutingDataSource.fromPrimary(() -> repo.findByIdempotencyKey(idempotencyKey));
+    }
+
+    private Submission replay(Order existing, Order incoming) {
+        if (!existing.getPayloadHash().equals(incoming.getPayloadHash())) {
+            return new Submission(Status.CONFLICT, null);
+        }
+        return new Submission(Status.DUPLICATE, existing);
+    }
+
+    private Order buildOrder(String idempotencyKey, OrderRequest request) {
+        // Mismo producto en dos líneas = una línea; orden estable para el hash
+        Map<Long, int[]> lines = new TreeMap<>();
+        for (OrderRequest.Item item : request.getItems()) {
+            int[] line = lines.computeIfAbsent(item.getProductoId(), k -> new int[]{0, item.getPrecioUnitario()});
+            if (line[1] != item.getPrecioUnitario()) {
+                throw new IllegalArgumentException("Precios distintos para el producto " + item.getProductoId());
+            }
+            line[0] += item.getCantidad();
+        }
+        if (lines.size() > ProductService.MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("máximo " + ProductService.MAX_PAGE_SIZE + " productos por pedido");
+        }
+
+        // Todos los productos del pedido en una sola consulta
+        Map<Long, Product> products = productService.findMany(lines.keySet());
+
+        List<OrderItem> items = new ArrayList<>(lines.size());
+        StringBuilder canonical = new StringBuilder();
+        long total = 0;
+        for (Map.Entry<Long, int[]> e : lines.entrySet()) {
+            Long productId = e.getKey();
+            int cantidad = e.getValue()[0];
+            int precio = e.getValue()[1];
+
+            Product product = products.get(productId);
+            if (product == null) {
+                throw new IllegalArgumentException("No existe el producto " + productId);
+            }
+            if (product.getPrecio() != precio) {
+                throw new IllegalArgumentException("El precio de " + product.getNombre()
+                        + " cambió a " + product.getPrecio());
+            }
+            items.add(new OrderItem(productId, product.getNombre(), precio, cantidad));
+            canonical.append(productId).append(':').append(cantidad).append(':').append(precio).append(';');
+            total += (long) precio * cantidad;
+        }
+
+        Order order = new Order();
+        order.setId(UUID.randomUUID().toString());
+        order.setIdempotencyKey(idempotencyKey);
+        order.setPayloadHash(sha256(canonical.toString()));
+        order.setTotal(total);
+        order.setCreadoEn(Instant.now());
+        order.setItems(items);
+        return order;
+    }
+
+    // ===== escritor en segundo plano =====
+
+    @PostConstruct
+    void startWriter() {
+        writer = Thread.ofPlatform().name("order-writer").daemon().start(this::drainLoop);
+    }
+
+    @PreDestroy
+    void stopWriter() throws InterruptedException {
+        // Lo que quede en la cola se guarda antes de apagar
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    private void drainLoop() {
+        List<Order> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                long now = System.currentTimeMillis();
+                takeDueRetries(batch, now);
+                if (batch.isEmpty()) {
+                    Order first = queue.poll(pollTimeout(now), TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                }
+                queue.drainTo(batch, batchSize - batch.size());
+                persist(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // persist no deja escapar errores de la BD: esto es un bug, pero
+                // los pedidos de la tanda no se pierden
+                log.error("Error inesperado en el escritor de pedidos", e);
+                batch.forEach(order -> retryLater(order, e));
+            } finally {
+                batch.clear();
+            }
+        }
+        lastAttempt();
+    }
+
+    private void takeDueRetries(List<Order> batch, long now) {
+        while (batch.size() < batchSize && !retries.isEmpty() && retries.peek().dueAt() <= now) {
+            batch.add(retries.poll().order());
+        }
+    }
+
+    private long pollTimeout(long now) {
+        Retry next = retries.peek();
+        return next == null ? 500 : Math.max(1, Math.min(500, next.dueAt() - now));
+    }
+
+    /**
+     * Guarda una tanda. Cada pedido termina guardado, descartado porque su
+     * clave ya está en la BD (otra instancia), o de vuelta en retries: nunca
+     * sale de pending sin estar en la BD.
+     */
+    private void persist(List<Order> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> repo.saveAll(batch));
+            batch.forEach(this::done);
+            return;
+        } catch (DataIntegrityViolationException e) {
+            // Un solo pedido malo (p.ej. clave duplicada desde otra instancia)
+            // tumba la tanda entera: reintentamos de a uno
+            log.warn("Falló una tanda de {} pedidos, reintentando uno a uno", batch.size(), e);
+        } catch (RuntimeException e) {
+            // BD caída, sin conexión, timeout: de a uno fallaría igual
+            log.warn("No se pudo guardar una tanda de {} pedidos, se reintenta más tarde", batch.size(), e);
+            batch.forEach(order -> retryLater(order, e));
+            return;
+        }
+
+        for (Order order : batch) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> repo.save(order));
+                done(order);
+            } catch (DataIntegrityViolationException e) {
+                Optional<Order> stored = storedElsewhere(order);
+                if (stored.isPresent()) {
+                    log.info("Pedido con clave {} ya registrado como {}", order.getIdempotencyKey(),
+                            stored.get().getId());
+                    // Antes de sacarlo de pending: find nunca deja de encontrarlo
+                    synchronized (aliases) {
+                        aliases.put(order.getId(), stored.get().getId());
+                    }
+                    done(order);
+                } else {
+                    retryLater(order, e);
+                }
+            } catch (RuntimeException e) {
+                retryLater(order, e);
+            }
+        }
+    }
+
+    private Optional<Order> storedElsewhere(Order order) {
+        try {
+            return findStored(order.getIdempotencyKey());
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    private void done(Order order) {
+        attempts.remove(order);
+        pending.remove(order.getIdempotencyKey(), order);
+    }
+
+    private void retryLater(Order order, Exception cause) {
+        int attempt = attempts.merge(order, 1, Integer::sum);
+        long delay = Math.min(RETRY_MAX_MS, RETRY_INITIAL_MS << Math.min(attempt - 1, 20));
+        log.warn("Pedido {} sin guardar (intento {}), reintento en {} ms: {}",
+                order.getId(), attempt, delay, cause.toString());
+        retries.add(new Retry(order, System.currentTimeMillis() + delay));
+    }
+
+    // Apagando: un último intento para lo que esperaba reintento
+    private void lastAttempt() {
+        if (retries.isEmpty()) {
+            return;
+        }
+        List<Order> left = new ArrayList<>();
+        while (!retries.isEmpty()) {
+            left.add(retries.poll().order());
+        }
+        persist(left);
+        for (Retry retry : retries) {
+            log.error("Pedido aceptado {} (clave {}) no se pudo guardar antes de apagar",
+                    retry.order().getId(), retry.order().getIdempotencyKey());
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
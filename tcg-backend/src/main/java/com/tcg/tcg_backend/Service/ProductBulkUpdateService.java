@@ -0,0 +1,85 @@
+package com.tcg.tcg_backend.Service;
+
+import com.tcg.tcg_backend.Dto.BulkUpdateRequest;
+import com.tcg.tcg_backend.Repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Cambios de precio / oferta sobre muchos productos con UPDATEs por conjunto
+ * (sin leer ni reescribir entidades), todos en una transacción. Los ids se
+ * mandan en tandas para no armar un IN gigante. La caché y los índices se
+ * invalidan una sola vez, después del commit.
+ */
+@Slf4j
+@Service
+public class ProductBulkUpdateService {
+
+    static final int IDS_PER_STATEMENT = 1000;
+
+    private final ProductRepository repo;
+    private final ProductService productService;
+    private final TransactionTemplate transactionTemplate;
+
+    public ProductBulkUpdateService(
+            ProductRepository repo,
+            ProductService productService,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.repo = repo;
+        this.productService = productService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Aplica el cambio y devuelve cuántos productos se actualizaron.
+     * Lanza IllegalArgumentException si la request no dice qué cambiar o a quién.
+     */
+    public int apply(BulkUpdateRequest request) {
+        String oferta = request.getOferta();
+        boolean limpiar = request.isLimpiarOferta();
+        if (request.getDescuento() == 0 && oferta == null && !limpiar) {
+            throw new IllegalArgumentException("No hay cambios que aplicar");
+        }
+        if (oferta != null && limpiar) {
+            throw new IllegalArgumentException("oferta y limpiarOferta son excluyentes");
+        }
+
+        List<Long> ids = request.getIds();
+        boolean byIds = ids != null && !ids.isEmpty();
+        boolean byFilter = request.getPrecioMin() != null
+                || request.getPrecioMax() != null
+                || request.getOfertaActual() != null;
+        if (byIds && (byFilter || request.isTodos())) {
+            throw new IllegalArgumentException("Usar ids o filtro, no ambos");
+        }
+        if (!byIds && !byFilter && !request.isTodos()) {
+            throw new IllegalArgumentException("Falta indicar ids, filtro o todos = true");
+        }
+
+        Integer updated = transactionTemplate.execute(status -> {
+            if (!byIds) {
+                return repo.bulkUpdateByFilter(request.getPrecioMin(), request.getPrecioMax(),
+                        request.getOfertaActual(), request.getDescuento(), oferta, limpiar);
+            }
+            int total = 0;
+            List<Long> distinct = ids.stream().distinct().toList();
+            for (int from = 0; from < distinct.size(); from += IDS_PER_STATEMENT) {
+                List<Long> chunk = distinct.subList(from, Math.min(from + IDS_PER_STATEMENT, distinct.size()));
+                total += repo.bulkUpdateByIds(chunk, request.getDescuento(), oferta, limpiar);
+            }
+            return total;
+        });
+
+        int count = updated == null ? 0 : updated;
+        if (count > 0) {
+            productService.catalogReloaded();
+        }
+        log.info("Actualización masiva: {} productos (descuento {}%)", count, request.getDescuento());
+        return count;
+    }
+}
@@ -0,0 +1,296 @@
+package com.tcg.tcg_backend.Service;
+
+import com.tcg.tcg_backend.Dto.CacheStats;
+import com.tcg.tcg_backend.Model.Product;
+import org.springframework.beans.BeanUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Caché de lectura para productos: LRU acotado por cantidad de entradas,
+ * con los misses concurrentes sobre el mismo id resueltos por una sola carga.
+ *
+ * Cada invalidación sube una generación; una carga que empezó antes de la
+ * escritura no deja su resultado (posiblemente viejo) en la caché. La
+ * generación se compara y el resultado se guarda bajo el mismo lock con el
+ * que se invalida: no hay ventana entre la comparación y la escritura.
+ *
+ * La lista completa (getAll) se guarda aparte de las entradas por id y solo
+ * si el catálogo entra en maxEntries; si no, cada getAll va al loader. Así
+ * la caché nunca retiene más de 2 * maxEntries productos.
+ *
+ * Las entidades son mutables: la caché guarda sus propias copias y a cada
+ * llamada le entrega otras, así quien modifique lo que recibe (ej: el update
+ * del controller) no ensucia la caché ni lo que ven los demás hilos.
+ */
+public class ProductCache {
+
+    private final int maxEntries;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Long, Product> entries;
+
+    private final ConcurrentHashMap<Long, CompletableFuture<Product>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicReference<CompletableFuture<List<Product>>> allInFlight = new AtomicReference<>();
+    // Se lee sin lock; se escribe solo con el lock tomado
+    private volatile List<Product> all;
+
+    // Se sube solo con el lock tomado
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+
+    public ProductCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries debe ser positivo");
+        }
+        this.maxEntries = maxEntries;
+        // accessOrder = true → el más antiguo es el menos usado recientemente
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Product> eldest) {
+                if (size() > ProductCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public Product get(Long id, Function<Long, Product> loader) {
+        Product cached;
+        lock.lock();
+        try {
+            cached = entries.get(id);
+        } finally {
+            lock.unlock();
+        }
+        if (cached != null) {
+            hits.increment();
+            return copy(cached);
+        }
+        misses.increment();
+
+        CompletableFuture<Product> mine = new CompletableFuture<>();
+        CompletableFuture<Product> running = inFlight.putIfAbsent(id, mine);
+        if (running != null) {
+            // Otro hilo ya está cargando este id: esperamos su resultado
+            return copy(join(running));
+        }
+
+        long gen = generation.get();
+        try {
+            Product loaded = loader.apply(id);
+            loads.increment();
+            Product kept = copy(loaded);
+            if (kept != null) {
+                lock.lock();
+                try {
+                    if (generation.get() == gen) {
+                        entries.put(id, kept);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+            // Los que esperaban copian de la que queda en la caché
+            mine.complete(kept);
+            return loaded;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, mine);
+        }
+    }
+
+    /**
+     * Varios ids de una vez: los aciertos salen de la caché y todos los misses
+     * se resuelven con UNA llamada al loader (un solo IN en la BD). Los ids que
+     * no existen simplemente no aparecen en el resultado.
+     */
+    public Map<Long, Product> getMany(Collection<Long> ids, Function<List<Long>, List<Product>> loader) {
+        Map<Long, Product> found = new HashMap<>(ids.size() * 2);
+        Set<Long> missing = new LinkedHashSet<>();
+        lock.lock();
+        try {
+            for (Long id : ids) {
+                Product cached = entries.get(id);
+                if (cached != null) {
+                    found.put(id, copy(cached));
+                } else {
+                    missing.add(id);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        hits.add(found.size());
+        if (missing.isEmpty()) {
+            return found;
+        }
+        misses.add(missing.size());
+
+        long gen = generation.get();
+        List<Product> loaded = loader.apply(new ArrayList<>(missing));
+        loads.increment();
+        lock.lock();
+        try {
+            boolean fresh = generation.get() == gen;
+            for (Product p : loaded) {
+                found.put(p.getId(), p);
+                if (fresh) {
+                    entries.put(p.getId(), copy(p));
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return found;
+    }
+
+    /**
+     * Lista completa del catálogo, inmodificable y con copias de cada
+     * producto. Solo queda en caché si tiene hasta maxEntries productos.
+     */
+    public List<Product> getAll(Supplier<List<Product>> loader) {
+        List<Product> cached = all;
+        if (cached != null) {
+            hits.increment();
+            return copyAll(cached);
+        }
+        misses.increment();
+
+        CompletableFuture<List<Product>> mine = new CompletableFuture<>();
+        if (!allInFlight.compareAndSet(null, mine)) {
+            CompletableFuture<List<Product>> running = allInFlight.get();
+            if (running != null) {
+                return copyAll(join(running));
+            }
+            // La carga en curso terminó justo ahora; reintentamos por el camino normal
+            return getAll(loader);
+        }
+
+        long gen = generation.get();
+        try {
+            List<Product> loaded = loader.get();
+            loads.increment();
+            List<Product> kept = copyAll(loaded);
+            if (kept.size() <= maxEntries) {
+                lock.lock();
+                try {
+                    if (generation.get() == gen) {
+                        all = kept;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+            mine.complete(kept);
+            return Collections.unmodifiableList(loaded);
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            allInFlight.compareAndSet(mine, null);
+        }
+    }
+
+    public void invalidate(Long id) {
+        allInFlight.set(null);
+        if (id != null) {
+            inFlight.remove(id);
+        }
+        lock.lock();
+        try {
+            generation.incrementAndGet();
+            all = null;
+            if (id != null) {
+                entries.remove(id);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        allInFlight.set(null);
+        inFlight.clear();
+        lock.lock();
+        try {
+            generation.incrementAndGet();
+            all = null;
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CacheStats stats() {
+        int size;
+        lock.lock();
+        try {
+            size = entries.size();
+        } finally {
+            lock.unlock();
+        }
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), loads.sum(), size, maxEntries);
+    }
+
+    /**
+     * Hilos esperando la carga en curso de un id.
+     */
+    int waiting(Long id) {
+        CompletableFuture<Product> running = inFlight.get(id);
+        return running == null ? 0 : running.getNumberOfDependents();
+    }
+
+    private static Product copy(Product product) {
+        if (product == null) {
+            return null;
+        }
+        Product copy = new Product();
+        BeanUtils.copyProperties(product, copy);
+        return copy;
+    }
+
+    private static List<Product> copyAll(List<Product> products) {
+        List<Product> copies = new ArrayList<>(products.size());
+        for (Product p : products) {
+            copies.add(copy(p));
+        }
+        return Collections.unmodifiableList(copies);
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw e;
+        }
+    }
+}
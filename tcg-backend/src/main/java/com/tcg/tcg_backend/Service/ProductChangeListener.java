@@ -0,0 +1,22 @@
+package com.tcg.tcg_backend.Service;
+
+import com.tcg.tcg_backend.Model.Product;
+
+/**
+ * Estructuras en memoria derivadas del catálogo (índices, snapshots...) que
+ * ProductService mantiene al día después de cada escritura ya confirmada.
+ */
+public interface ProductChangeListener {
+
+    void productSaved(Product product);
+
+    // Alta nueva (el id lo acaba de generar la BD); por defecto es un guardado más
+    default void productCreated(Product product) {
+        productSaved(product);
+    }
+
+    void productDeleted(Long id);
+
+    // Cambio masivo (importación, actualización en lote): volver a leer todo desde la BD
+    void catalogReloaded();
+}
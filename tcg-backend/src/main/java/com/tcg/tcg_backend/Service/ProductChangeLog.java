@@ -0,0 +1,114 @@
+package com.tcg.tcg_backend.Service;
+
+import com.tcg.tcg_backend.Model.Product;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Registro de cambios de productos con número de secuencia, para que los
+ * clientes con el catálogo en caché pidan solo lo que cambió.
+ *
+ * Solo se agrega al final. Se guardan las últimas max-entries entradas; las
+ * anteriores se compactan y quien pida desde antes de ese punto (o desde
+ * antes de un reinicio o de una recarga masiva) recibe el catálogo completo.
+ */
+@Component
+public class ProductChangeLog implements ProductChangeListener {
+
+    private record Entry(long seq, long productId, boolean deleted) {
+    }
+
+    /**
+     * Cambios después de un número de secuencia. full = el registro no llega
+     * tan atrás y hay que mandar todo. changes: id → true si se eliminó.
+     */
+    public record Delta(boolean full, long latest, Map<Long, Boolean> changes) {
+    }
+
+    private final int maxEntries;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<Entry> entries = new ArrayDeque<>();
+
+    // Arranca en la hora de inicio (como CatalogVersion): las secuencias de
+    // antes de un reinicio siempre quedan por debajo del piso
+    private long seq = System.currentTimeMillis();
+    // Desde aquí hacia atrás no hay registro
+    private long floor = seq;
+
+    public ProductChangeLog(@Value("${catalog.changes.max-entries:10000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public long latest() {
+        lock.lock();
+        try {
+            return seq;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Delta since(long since) {
+        lock.lock();
+        try {
+            if (since < floor || since > seq) {
+                return new Delta(true, seq, Map.of());
+            }
+            // De atrás hacia adelante: la última entrada de cada producto es la que vale
+            Map<Long, Boolean> changes = new LinkedHashMap<>();
+            Iterator<Entry> it = entries.descendingIterator();
+            while (it.hasNext()) {
+                Entry entry = it.next();
+                if (entry.seq() <= since) {
+                    break;
+                }
+                changes.putIfAbsent(entry.productId(), entry.deleted());
+            }
+            return new Delta(false, seq, changes);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ===== ProductChangeListener =====
+
+    @Override
+    public void productSaved(Product product) {
+        append(product.getId(), false);
+    }
+
+    @Override
+    public void productDeleted(Long id) {
+        append(id, true);
+    }
+
+    @Override
+    public void catalogReloaded() {
+        lock.lock();
+        try {
+            // No sabemos qué cambió: todos los clientes vuelven a bajar el catálogo
+            entries.clear();
+            floor = ++seq;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void append(long productId, boolean deleted) {
+        lock.lock();
+        try {
+            entries.addLast(new Entry(++seq, productId, deleted));
+            while (entries.size() > maxEntries) {
+                floor = entries.pollFirst().seq();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.tcg.tcg_backend.Service;
+
+import com.tcg.tcg_backend.Model.Product;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * CSV de productos (RFC 4180: comillas dobles, comas y saltos de línea dentro
+ * de campos entre comillas). Se lee registro a registro desde un Reader, así
+ * que nunca tiene el archivo completo en memoria.
+ *
+ * Columnas: id,nombre,descripcion,precio,imagen,hover,oferta (id/hover/oferta opcionales).
+ */
+public final class ProductCsv {
+
+    public static final String HEADER = "id,nombre,descripcion,precio,imagen,hover,oferta";
+
+    private ProductCsv() {
+    }
+
+    /**
+     * Lector de registros: la primera fila es el encabezado y define el orden de columnas.
+     */
+    public static final class RecordReader {
+
+        private final Reader in;
+        private final Map<String, Integer> columns = new HashMap<>();
+        private int pushback = -2;
+        private long line = 1;
+
+        public RecordReader(Reader in) throws IOException {
+            this.in = in;
+            List<String> header = next();
+            if (header == null) {
+                throw new IllegalArgumentException("CSV vacío");
+            }
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            for (String required : List.of("nombre", "descripcion", "precio", "imagen")) {
+                if (!columns.containsKey(required)) {
+                    throw new IllegalArgumentException("Falta la columna '" + required + "' en el encabezado");
+                }
+            }
+        }
+
+        // Línea (1-based) donde empieza el próximo registro
+        public long line() {
+            return line;
+        }
+
+        /**
+         * Siguiente registro convertido a Product, o null al final del archivo.
+         * Lanza IllegalArgumentException si el registro no es válido.
+         */
+        public Product nextProduct() throws IOException {
+            List<String> fields = next();
+            if (fields == null) {
+                return null;
+            }
+            Product p = new Product();
+            String id = field(fields, "id");
+            try {
+                p.setId(id == null ? null : Long.valueOf(id));
+                String precio = field(fields, "precio");
+                p.setPrecio(precio == null ? -1 : Integer.parseInt(precio));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Número inválido: " + e.getMessage());
+            }
+            p.setNombre(field(fields, "nombre"));
+            p.setDescripcion(field(fields, "descripcion"));
+            p.setImagen(field(fields, "imagen"));
+            p.setHover(field(fields, "hover"));
+            p.setOferta(field(fields, "oferta"));
+            return p;
+        }
+
+        private String field(List<String> fields, String name) {
+            Integer index = columns.get(name);
+            if (index == null || index >= fields.size()) {
+                return null;
+            }
+            String value = fields.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        // Registro crudo; salta líneas vacías
+        private List<String> next() throws IOException {
+            while (true) {
+                int c = read();
+                if (c == -1) {
+                    return null;
+                }
+                if (c == '\n') {
+                    line++;
+                    continue;
+                }
+                if (c == '\r') {
+                    continue;
+                }
+                unread(c);
+                return parseRecord();
+            }
+        }
+
+        private List<String> parseRecord() throws IOException {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+
+            while (true) {
+                int c = read();
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IllegalArgumentException("Comillas sin cerrar");
+                    }
+                    if (c == '"') {
+                        int n = read();
+                        if (n == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            unread(n);
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                    continue;
+                }
+
+                if (c == -1 || c == '\n') {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                }
+                if (c == '\r') {
+                    continue;
+                }
+                if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else {
+                    field.append((char) c);
+                }
+            }
+        }
+
+        private int read() throws IOException {
+            if (pushback != -2) {
+                int c = pushback;
+                pushback = -2;
+                return c;
+            }
+            return in.read();
+        }
+
+        private void unread(int c) {
+            pushback = c;
+        }
+    }
+
+    public static String format(Product p) {
+        return String.join(",",
+                p.getId() == null ? "" : p.getId().toString(),
+                escape(p.getNombre()),
+                escape(p.getDescripcion()),
+                Integer.toString(p.getPrecio()),
+                escape(p.getImagen()),
+                escape(p.getHover()),
+                escape(p.getOferta()));
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        boolean needsQuotes = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!needsQuotes) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
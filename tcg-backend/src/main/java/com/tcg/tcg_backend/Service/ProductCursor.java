@@ -0,0 +1,93 @@
+package com.tcg.tcg_backend.Service;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Token de continuación para la paginación por keyset de productos.
+ * Guarda el orden pedido y los valores de la última fila entregada
+ * (campo de orden + id como desempate), codificados en Base64 URL-safe.
+ */
+public final class ProductCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final String sort;
+    private final Sort.Direction direction;
+
+    private ProductCursor(String sort, Sort.Direction direction) {
+        this.sort = sort;
+        this.direction = direction;
+    }
+
+    public static ProductCursor of(String sort, String dir) {
+        String field = sort == null ? "id" : sort.trim().toLowerCase();
+        if (!field.equals("id") && !field.equals("precio") && !field.equals("nombre")) {
+            throw new IllegalArgumentException("Orden no soportado: " + sort);
+        }
+        Sort.Direction direction = Sort.Direction.fromOptionalString(dir)
+                .orElseThrow(() -> new IllegalArgumentException("Dirección no soportada: " + dir));
+        return new ProductCursor(field, direction);
+    }
+
+    public Sort toSort() {
+        // El id siempre desempata para que el orden sea total y estable
+        if (sort.equals("id")) {
+            return Sort.by(direction, "id");
+        }
+        return Sort.by(direction, sort).and(Sort.by(direction, "id"));
+    }
+
+    public ScrollPosition decode(String token) {
+        if (token == null || token.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+
+        // formato: sort|dir|id|valor (el valor va al final porque el nombre puede traer '|')
+        String[] parts = raw.split("\\" + SEPARATOR, 4);
+        if (parts.length < 3 || !parts[0].equals(sort) || !parts[1].equals(direction.name())) {
+            throw new IllegalArgumentException("El cursor no corresponde al orden pedido");
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            if (!sort.equals("id")) {
+                if (parts.length < 4) {
+                    throw new IllegalArgumentException("Cursor inválido");
+                }
+                keys.put(sort, sort.equals("precio") ? (Object) Integer.valueOf(parts[3]) : parts[3]);
+            }
+            keys.put("id", Long.valueOf(parts[2]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    public String encode(ScrollPosition position) {
+        Map<String, ?> keys = ((KeysetScrollPosition) position).getKeys();
+
+        StringBuilder raw = new StringBuilder()
+                .append(sort).append(SEPARATOR)
+                .append(direction.name()).append(SEPARATOR)
+                .append(keys.get("id"));
+        if (!sort.equals("id")) {
+            raw.append(SEPARATOR).append(keys.get(sort));
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
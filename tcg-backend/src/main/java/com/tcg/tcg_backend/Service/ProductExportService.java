@@ -0,0 +1,87 @@
+package com.tcg.tcg_backend.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tcg.tcg_backend.Model.Product;
+import com.tcg.tcg_backend.Repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exportación del catálogo completo en CSV o NDJSON, fila a fila desde un
+ * cursor de la BD. Cada producto se suelta del contexto de persistencia
+ * apenas se escribe, así que el heap no crece con el tamaño del catálogo.
+ */
+@Service
+public class ProductExportService {
+
+    private static final int FLUSH_EVERY = 1000;
+
+    private final ProductRepository repo;
+    private final TransactionTemplate readOnlyTx;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ProductExportService(
+            ProductRepository repo,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper
+    ) {
+        this.repo = repo;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    public void export(OutputStream out, ProductImportService.Format format) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+
+        if (format == ProductImportService.Format.CSV) {
+            writer.write(ProductCsv.HEADER);
+            writer.write('\n');
+        }
+        // Primer byte al cliente antes de abrir el cursor
+        writer.flush();
+
+        try {
+            readOnlyTx.executeWithoutResult(status -> {
+                try (Stream<Product> products = repo.streamAllOrderById()) {
+                    Iterator<Product> it = products.iterator();
+                    int written = 0;
+                    while (it.hasNext()) {
+                        Product p = it.next();
+                        writer.write(format == ProductImportService.Format.CSV
+                                ? ProductCsv.format(p)
+                                : objectMapper.writeValueAsString(p));
+                        writer.write('\n');
+                        entityManager.detach(p);
+
+                        if (++written % FLUSH_EVERY == 0) {
+                            writer.flush();
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Normalmente el cliente cortó la descarga
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+}
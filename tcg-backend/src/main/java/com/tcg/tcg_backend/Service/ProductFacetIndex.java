@@ -0,0 +1,370 @@
+package com.tcg.tcg_backend.Service;
+
+import com.tcg.tcg_backend.Model.Product;
+import com.tcg.tcg_backend.Repository.ProductRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Índice en memoria por precio y etiqueta de oferta, solo con arreglos
+ * primitivos: precios ordenados (int[]) con sus ids y la etiqueta como
+ * ordinal en arreglos paralelos.
+ *
+ * Los lectores no toman locks: leen un snapshot inmutable. Cada escritura
+ * arma un snapshot nuevo con System.arraycopy y lo publica de una vez.
+ */
+@Component
+public class ProductFacetIndex implements ProductChangeListener {
+
+    private static final short NO_TAG = -1;
+
+    public record Result(int total, long[] ids, Map<String, Integer> tagCounts, Integer minPrice, Integer maxPrice) {
+    }
+
+    private record Snapshot(
+            // ordenados por (precio, id)
+            int[] precios,
+            long[] ids,
+            short[] tags,
+            // ordenados por id, para encontrar el precio actual al borrar
+            long[] byId,
+            int[] precioById,
+            // ordinal → etiqueta
+            String[] tagNames
+    ) {
+        static final Snapshot EMPTY = new Snapshot(new int[0], new long[0], new short[0], new long[0], new int[0], new String[0]);
+    }
+
+    private final ProductRepository repo;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+
+    public ProductFacetIndex(ProductRepository repo) {
+        this.repo = repo;
+    }
+
+    /**
+     * Filtra por rango de precio [min, max] (ambos opcionales) y etiqueta de
+     * oferta (opcional). Los conteos por etiqueta se calculan sobre el rango
+     * de precio sin el filtro de etiqueta, como espera un sidebar de facetas.
+     */
+    public Result query(Integer min, Integer max, String oferta, boolean descending, int limit) {
+        Snapshot s = ensureLoaded();
+
+        int from = min == null ? 0 : lowerBound(s.precios, min);
+        int to = max == null ? s.precios.length : upperBound(s.precios, max);
+        if (from >= to) {
+            return new Result(0, new long[0], Map.of(), null, null);
+        }
+
+        short wanted = NO_TAG;
+        if (oferta != null && !oferta.isBlank()) {
+            wanted = ordinalOf(s.tagNames, normalize(oferta));
+            if (wanted == NO_TAG) {
+                // Etiqueta que no existe: igual devolvemos los conteos del rango
+                return new Result(0, new long[0], countTags(s, from, to), null, null);
+            }
+        }
+
+        int[] counts = new int[s.tagNames.length];
+        long[] page = new long[Math.max(0, Math.min(limit, to - from))];
+        int total = 0;
+        int first = -1;
+        int last = -1;
+
+        for (int k = 0; k < to - from; k++) {
+            int i = descending ? to - 1 - k : from + k;
+            short tag = s.tags[i];
+            if (tag != NO_TAG) {
+                counts[tag]++;
+            }
+            if (wanted != NO_TAG && tag != wanted) {
+                continue;
+            }
+            if (total < page.length) {
+                page[total] = s.ids[i];
+            }
+            if (first < 0) {
+                first = i;
+            }
+            last = i;
+            total++;
+        }
+
+        Integer minPrice = first < 0 ? null : Math.min(s.precios[first], s.precios[last]);
+        Integer maxPrice = first < 0 ? null : Math.max(s.precios[first], s.precios[last]);
+        return new Result(total, Arrays.copyOf(page, Math.min(total, page.length)),
+                toMap(s.tagNames, counts), minPrice, maxPrice);
+    }
+
+    @Override
+    public void productSaved(Product product) {
+        writeLock.lock();
+        try {
+            Snapshot s = snapshot;
+            if (s == null) {
+                // Todavía no se cargó: la carga completa ya va a ver este cambio
+                return;
+            }
+            s = without(s, product.getId());
+            snapshot = with(s, product.getId(), product.getPrecio(), normalize(product.getOferta()));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void productDeleted(Long id) {
+        writeLock.lock();
+        try {
+            Snapshot s = snapshot;
+            if (s != null) {
+                snapshot = without(s, id);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void catalogReloaded() {
+        writeLock.lock();
+        try {
+            // Se vuelve a cargar en la próxima consulta
+            snapshot = null;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private Snapshot ensureLoaded() {
+        Snapshot s = snapshot;
+        if (s != null) {
+            return s;
+        }
+        writeLock.lock();
+        try {
+            if (snapshot == null) {
+                snapshot = build(repo.findFacetRows());
+            }
+            return snapshot;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // ===== construcción (con el writeLock tomado) =====
+
+    private static Snapshot build(List<Object[]> rows) {
+        int n = rows.size();
+        long[] byId = new long[n];
+        int[] precioById = new int[n];
+        short[] tagById = new short[n];
+        String[] tagNames = new String[0];
+
+        // Las filas vienen ordenadas por id
+        for (int i = 0; i < n; i++) {
+            Object[] row = rows.get(i);
+            byId[i] = ((Number) row[0]).longValue();
+            precioById[i] = ((Number) row[1]).intValue();
+            String tag = normalize((String) row[2]);
+            short ord = NO_TAG;
+            if (tag != null) {
+                ord = ordinalOf(tagNames, tag);
+                if (ord == NO_TAG) {
+                    tagNames = Arrays.copyOf(tagNames, tagNames.length + 1);
+                    tagNames[tagNames.length - 1] = tag;
+                    ord = (short) (tagNames.length - 1);
+                }
+            }
+            tagById[i] = ord;
+        }
+
+        // Orden por (precio, id) sin boxing: precio en los 32 bits altos y
+        // posición por id en los bajos (el orden por id ya desempata).
+        long[] order = new long[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = ((long) precioById[i] << 32) | i;
+        }
+        Arrays.sort(order);
+
+        int[] precios = new int[n];
+        long[] ids = new long[n];
+        short[] tags = new short[n];
+        for (int k = 0; k < n; k++) {
+            int i = (int) order[k];
+            precios[k] = precioById[i];
+            ids[k] = byId[i];
+            tags[k] = tagById[i];
+        }
+        return new Snapshot(precios, ids, tags, byId, precioById, tagNames);
+    }
+
+    private static Snapshot with(Snapshot s, long id, int precio, String tag) {
+        String[] tagNames = s.tagNames;
+        short ord = NO_TAG;
+        if (tag != null) {
+            ord = ordinalOf(tagNames, tag);
+            if (ord == NO_TAG) {
+                tagNames = Arrays.copyOf(tagNames, tagNames.length + 1);
+                tagNames[tagNames.length - 1] = tag;
+                ord = (short) (tagNames.length - 1);
+            }
+        }
+
+        int pos = insertionPoint(s.precios, s.ids, precio, id);
+        int[] precios = insert(s.precios, pos, precio);
+        long[] ids = insert(s.ids, pos, id);
+        short[] tags = insert(s.tags, pos, ord);
+
+        int idPos = -(Arrays.binarySearch(s.byId, id) + 1);
+        long[] byId = insert(s.byId, idPos, id);
+        int[] precioById = insert(s.precioById, idPos, precio);
+
+        return new Snapshot(precios, ids, tags, byId, precioById, tagNames);
+    }
+
+    private static Snapshot without(Snapshot s, Long id) {
+        if (id == null) {
+            return s;
+        }
+        int idPos = Arrays.binarySearch(s.byId, id);
+        if (idPos < 0) {
+            return s;
+        }
+        int precio = s.precioById[idPos];
+        int pos = insertionPoint(s.precios, s.ids, precio, id);
+
+        return new Snapshot(
+                remove(s.precios, pos),
+                remove(s.ids, pos),
+                remove(s.tags, pos),
+                remove(s.byId, idPos),
+                remove(s.precioById, idPos),
+                s.tagNames
+        );
+    }
+
+    // ===== búsquedas binarias =====
+
+    // primer índice con precio >= value
+    private static int lowerBound(int[] a, int value) {
+        int lo = 0, hi = a.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] < value) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    // primer índice con precio > value
+    private static int upperBound(int[] a, int value) {
+        int lo = 0, hi = a.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] <= value) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    // primer índice con (precio, id) >= (precio, id) buscado
+    private static int insertionPoint(int[] precios, long[] ids, int precio, long id) {
+        int lo = 0, hi = precios.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (precios[mid] < precio || (precios[mid] == precio && ids[mid] < id)) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    // ===== utilidades de arreglos =====
+
+    private static int[] insert(int[] a, int pos, int value) {
+        int[] r = new int[a.length + 1];
+        System.arraycopy(a, 0, r, 0, pos);
+        r[pos] = value;
+        System.arraycopy(a, pos, r, pos + 1, a.length - pos);
+        return r;
+    }
+
+    private static long[] insert(long[] a, int pos, long value) {
+        long[] r = new long[a.length + 1];
+        System.arraycopy(a, 0, r, 0, pos);
+        r[pos] = value;
+        System.arraycopy(a, pos, r, pos + 1, a.length - pos);
+        return r;
+    }
+
+    private static short[] insert(short[] a, int pos, short value) {
+        short[] r = new short[a.length + 1];
+        System.arraycopy(a, 0, r, 0, pos);
+        r[pos] = value;
+        System.arraycopy(a, pos, r, pos + 1, a.length - pos);
+        return r;
+    }
+
+    private static int[] remove(int[] a, int pos) {
+        int[] r = new int[a.length - 1];
+        System.arraycopy(a, 0, r, 0, pos);
+        System.arraycopy(a, pos + 1, r, pos, a.length - pos - 1);
+        return r;
+    }
+
+    private static long[] remove(long[] a, int pos) {
+        long[] r = new long[a.length - 1];
+        System.arraycopy(a, 0, r, 0, pos);
+        System.arraycopy(a, pos + 1, r, pos, a.length - pos - 1);
+        return r;
+    }
+
+    private static short[] remove(short[] a, int pos) {
+        short[] r = new short[a.length - 1];
+        System.arraycopy(a, 0, r, 0, pos);
+        System.arraycopy(a, pos + 1, r, pos, a.length - pos - 1);
+        return r;
+    }
+
+    // ===== etiquetas =====
+
+    private static String normalize(String oferta) {
+        if (oferta == null || oferta.isBlank()) {
+            return null;
+        }
+        return oferta.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static short ordinalOf(String[] tagNames, String tag) {
+        for (short i = 0; i < tagNames.length; i++) {
+            if (tagNames[i].equals(tag)) {
+                return i;
+            }
+        }
+        return NO_TAG;
+    }
+
+    private static Map<String, Integer> countTags(Snapshot s, int from, int to) {
+        int[] counts = new int[s.tagNames.length];
+        for (int i = from; i < to; i++) {
+            if (s.tags[i] != NO_TAG) {
+                counts[s.tags[i]]++;
+            }
+        }
+        return toMap(s.tagNames, counts);
+    }
+
+    private static Map<String, Integer> toMap(String[] tagNames, int[] counts) {
+        Map<String, Integer> map = new LinkedHashMap<>();
+        for (int i = 0; i < tagNames.length; i++) {
+            if (counts[i] > 0) {
+                map.put(tagNames[i], counts[i]);
+            }
+        }
+        return map;
+    }
+}
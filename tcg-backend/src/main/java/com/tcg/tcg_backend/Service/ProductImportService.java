@@ -0,0 +1,342 @@
+package com.tcg.tcg_backend.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tcg.tcg_backend.Dto.ImportReport;
+import com.tcg.tcg_backend.Dto.ImportRowResult;
+import com.tcg.tcg_backend.Model.Product;
+import com.tcg.tcg_backend.Repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Importación masiva de productos desde CSV o NDJSON.
+ *
+ * El archivo se lee en streaming y se procesa en tandas de CHUNK_SIZE filas:
+ * por tanda se buscan los productos existentes (por id, o por nombre si la fila
+ * no trae id), se descartan las filas sin cambios y el resto se escribe con
+ * INSERT/UPDATE en batch JDBC dentro de una transacción. El id IDENTITY impide
+ * que Hibernate agrupe inserts, por eso esta ruta no pasa por repo.save().
+ */
+@Slf4j
+@Service
+public class ProductImportService {
+
+    public enum Format { CSV, NDJSON }
+
+    static final int CHUNK_SIZE = 1000;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO productos (nombre, descripcion, precio, imagen, hover, oferta) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_SQL =
+            "UPDATE productos SET nombre = ?, descripcion = ?, precio = ?, imagen = ?, hover = ?, oferta = ? WHERE id = ?";
+
+    private record Row(long line, Product product, String error) {
+    }
+
+    private interface RowSource {
+        Row next() throws IOException;
+    }
+
+    private final ProductRepository repo;
+    private final ProductService productService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    public ProductImportService(
+            ProductRepository repo,
+            ProductService productService,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper
+    ) {
+        this.repo = repo;
+        this.productService = productService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+    }
+
+    public ImportReport importar(InputStream body, Format format) throws IOException {
+        long start = System.nanoTime();
+        ImportReport report = new ImportReport();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 64 * 1024);
+        RowSource source = format == Format.CSV ? csvSource(reader) : ndjsonSource(reader);
+
+        List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+        try {
+            Row row;
+            while ((row = source.next()) != null) {
+                report.setLeidas(report.getLeidas() + 1);
+                String invalid = row.error() != null ? row.error() : validate(row.product());
+                if (invalid != null) {
+                    error(report, row.line(), null, invalid);
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == CHUNK_SIZE) {
+                    flush(chunk, report);
+                    chunk.clear();
+                }
+            }
+            flush(chunk, report);
+        } finally {
+            // Una sola invalidación al final, no una por fila
+            if (report.getInsertadas() + report.getActualizadas() > 0) {
+                productService.catalogReloaded();
+            }
+        }
+
+        report.setDuracionMs((System.nanoTime() - start) / 1_000_000);
+        return report;
+    }
+
+    // ===== lectura =====
+
+    private RowSource csvSource(BufferedReader reader) throws IOException {
+        ProductCsv.RecordReader csv = new ProductCsv.RecordReader(reader);
+        return () -> {
+            long line = csv.line();
+            try {
+                Product p = csv.nextProduct();
+                return p == null ? null : new Row(line, p, null);
+            } catch (IllegalArgumentException e) {
+                return new Row(line, null, e.getMessage());
+            }
+        };
+    }
+
+    private RowSource ndjsonSource(BufferedReader reader) {
+        long[] lineNumber = {0};
+        return () -> {
+            String line;
+            do {
+                line = reader.readLine();
+                lineNumber[0]++;
+            } while (line != null && line.isBlank());
+            if (line == null) {
+                return null;
+            }
+            try {
+                return new Row(lineNumber[0], objectMapper.readValue(line, Product.class), null);
+            } catch (JsonProcessingException e) {
+                return new Row(lineNumber[0], null, "JSON inválido: " + e.getOriginalMessage());
+            }
+        };
+    }
+
+    private static String validate(Product p) {
+        if (isBlank(p.getNombre())) return "nombre es obligatorio";
+        if (isBlank(p.getDescripcion())) return "descripcion es obligatoria";
+        if (isBlank(p.getImagen())) return "imagen es obligatoria";
+        if (p.getPrecio() < 0) return "precio debe ser un entero >= 0";
+        return null;
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.isBlank();
+    }
+
+    // ===== diff + escritura de una tanda =====
+
+    private void flush(List<Row> chunk, ImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        Set<Long> ids = new HashSet<>();
+        Set<String> names = new HashSet<>();
+        for (Row row : chunk) {
+            if (row.product().getId() != null) {
+                ids.add(row.product().getId());
+            } else {
+                names.add(row.product().getNombre());
+            }
+        }
+
+        Map<Long, Product> byId = new HashMap<>();
+        if (!ids.isEmpty()) {
+            repo.findAllById(ids).forEach(p -> byId.put(p.getId(), p));
+        }
+        Map<String, List<Product>> byName = new HashMap<>();
+        if (!names.isEmpty()) {
+            for (Product p : repo.findByNombreIn(names)) {
+                byName.computeIfAbsent(p.getNombre(), k -> new ArrayList<>()).add(p);
+            }
+        }
+
+        List<Row> inserts = new ArrayList<>();
+        List<Row> updates = new ArrayList<>();
+        Set<Long> seenIds = new HashSet<>();
+        Set<String> seenNames = new HashSet<>();
+
+        for (Row row : chunk) {
+            Product incoming = row.product();
+            Product existing;
+
+            if (incoming.getId() != null) {
+                existing = byId.get(incoming.getId());
+                if (existing == null) {
+                    error(report, row.line(), incoming.getId(), "No existe un producto con id " + incoming.getId());
+                    continue;
+                }
+            } else {
+                List<Product> matches = byName.getOrDefault(incoming.getNombre(), List.of());
+                if (matches.size() > 1) {
+                    error(report, row.line(), null, "Hay varios productos con el nombre '" + incoming.getNombre() + "', indica el id");
+                    continue;
+                }
+                existing = matches.isEmpty() ? null : matches.get(0);
+            }
+
+            Long targetId = existing == null ? null : existing.getId();
+            boolean repeated = targetId != null ? !seenIds.add(targetId) : !seenNames.add(incoming.getNombre());
+            if (repeated) {
+                error(report, row.line(), targetId, "Fila repetida dentro del mismo archivo");
+                continue;
+            }
+
+            if (existing == null) {
+                inserts.add(row);
+            } else if (sameContent(existing, incoming)) {
+                report.setSinCambios(report.getSinCambios() + 1);
+            } else {
+                incoming.setId(targetId);
+                updates.add(row);
+            }
+        }
+
+        try {
+            List<Long> generated = transactionTemplate.execute(status -> {
+                List<Long> keys = batchInsert(inserts);
+                batchUpdate(updates);
+                return keys;
+            });
+
+            for (int i = 0; i < inserts.size(); i++) {
+                Long id = generated != null && i < generated.size() ? generated.get(i) : null;
+                report.getResultados().add(new ImportRowResult(inserts.get(i).line(), "insertado", id, null));
+            }
+            for (Row row : updates) {
+                report.getResultados().add(new ImportRowResult(row.line(), "actualizado", row.product().getId(), null));
+            }
+            report.setInsertadas(report.getInsertadas() + inserts.size());
+            report.setActualizadas(report.getActualizadas() + updates.size());
+
+        } catch (DataAccessException e) {
+            // La transacción de la tanda se revirtió completa
+            log.warn("Falló la escritura de una tanda de importación", e);
+            String message = "Error de base de datos: " + e.getMostSpecificCause().getMessage();
+            for (Row row : inserts) {
+                error(report, row.line(), null, message);
+            }
+            for (Row row : updates) {
+                error(report, row.line(), row.product().getId(), message);
+            }
+        }
+    }
+
+    private List<Long> batchInsert(List<Row> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        bindColumns(ps, rows.get(i).product());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                },
+                keyHolder
+        );
+
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (Map<String, Object> keys : keyHolder.getKeyList()) {
+            Object key = keys.values().stream().findFirst().orElse(null);
+            ids.add(key instanceof Number n ? n.longValue() : null);
+        }
+        return ids;
+    }
+
+    private void batchUpdate(List<Row> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Product p = rows.get(i).product();
+                bindColumns(ps, p);
+                ps.setLong(7, p.getId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+
+    private static void bindColumns(PreparedStatement ps, Product p) throws SQLException {
+        ps.setString(1, p.getNombre());
+        ps.setString(2, p.getDescripcion());
+        ps.setInt(3, p.getPrecio());
+        ps.setString(4, p.getImagen());
+        setNullable(ps, 5, p.getHover());
+        setNullable(ps, 6, p.getOferta());
+    }
+
+    private static void setNullable(PreparedStatement ps, int index, String value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.VARCHAR);
+        } else {
+            ps.setString(index, value);
+        }
+    }
+
+    private static boolean sameContent(Product a, Product b) {
+        return Objects.equals(a.getNombre(), b.getNombre())
+                && Objects.equals(a.getDescripcion(), b.getDescripcion())
+                && a.getPrecio() == b.getPrecio()
+                && Objects.equals(a.getImagen(), b.getImagen())
+                && Objects.equals(a.getHover(), b.getHover())
+                && Objects.equals(a.getOferta(), b.getOferta());
+    }
+
+    private static void error(ImportReport report, long line, Long id, String message) {
+        report.setErrores(report.getErrores() + 1);
+        report.getResultados().add(new ImportRowResult(line, "error", id, message));
+    }
+}
@@ -0,0 +1,265 @@
+package com.tcg.tcg_backend.Service;
+
+import com.tcg.tcg_backend.Model.Product;
+import com.tcg.tcg_backend.Repository.ProductRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido en memoria sobre nombre y descripción de los productos.
+ *
+ * Ranking BM25 por campo (el nombre pesa más que la descripción). Todos los
+ * términos de la consulta deben aparecer; el último se toma como prefijo para
+ * que sirva mientras el usuario escribe. Se arma completo una sola vez (en la
+ * primera búsqueda) y después se actualiza por producto con cada save/delete.
+ */
+@Component
+public class ProductSearchIndex implements ProductChangeListener {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double NOMBRE_BOOST = 3.0;
+    private static final int MAX_PREFIX_EXPANSION = 64;
+
+    private static final class Posting {
+        int nombreTf;
+        int descripcionTf;
+    }
+
+    private record Doc(Set<String> terms, int nombreLength, int descripcionLength) {
+    }
+
+    private final ProductRepository repo;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // término → (id producto → frecuencias por campo)
+    private final TreeMap<String, Map<Long, Posting>> postings = new TreeMap<>();
+    // índice directo para poder sacar un documento sin recorrer todo
+    private final Map<Long, Doc> docs = new HashMap<>();
+    private long totalNombreLength;
+    private long totalDescripcionLength;
+
+    private volatile boolean loaded;
+
+    public ProductSearchIndex(ProductRepository repo) {
+        this.repo = repo;
+    }
+
+    /**
+     * Ids de productos ordenados por relevancia (más relevante primero).
+     */
+    public List<Long> search(String query, int limit) {
+        List<String> terms = SpanishAnalyzer.analyze(query);
+        if (terms.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        // Si la consulta termina en espacio el usuario ya cerró la última palabra
+        boolean prefixLast = !Character.isWhitespace(query.charAt(query.length() - 1));
+
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (int i = 0; i < terms.size(); i++) {
+                boolean prefix = prefixLast && i == terms.size() - 1;
+                Map<Long, Double> termScores = scoreTerm(terms.get(i), prefix);
+
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    // AND: nos quedamos con los que ya venían y también tienen este término
+                    Map<Long, Double> merged = new HashMap<>();
+                    Map<Long, Double> small = scores.size() <= termScores.size() ? scores : termScores;
+                    Map<Long, Double> large = small == scores ? termScores : scores;
+                    for (Map.Entry<Long, Double> e : small.entrySet()) {
+                        Double other = large.get(e.getKey());
+                        if (other != null) {
+                            merged.put(e.getKey(), e.getValue() + other);
+                        }
+                    }
+                    scores = merged;
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<Long, Double>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey()));
+            List<Long> ids = new ArrayList<>(Math.min(limit, ranked.size()));
+            for (int i = 0; i < ranked.size() && i < limit; i++) {
+                ids.add(ranked.get(i).getKey());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void productSaved(Product product) {
+        lock.writeLock().lock();
+        try {
+            // Si todavía no se armó, la carga completa ya va a leer este cambio de la BD
+            if (!loaded) {
+                return;
+            }
+            remove(product.getId());
+            add(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void productDeleted(Long id) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void catalogReloaded() {
+        lock.writeLock().lock();
+        try {
+            // Se vuelve a armar completo en la próxima búsqueda
+            postings.clear();
+            docs.clear();
+            totalNombreLength = 0;
+            totalDescripcionLength = 0;
+            loaded = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+            for (Product p : repo.findAll()) {
+                add(p);
+            }
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> scoreTerm(String term, boolean prefix) {
+        Map<Long, Double> scores = new HashMap<>();
+        if (!prefix) {
+            Map<Long, Posting> exact = postings.get(term);
+            if (exact != null) {
+                accumulate(exact, scores);
+            }
+            return scores;
+        }
+
+        NavigableMap<String, Map<Long, Posting>> range =
+                postings.subMap(term, true, term + Character.MAX_VALUE, false);
+        int expanded = 0;
+        for (Map<Long, Posting> list : range.values()) {
+            accumulate(list, scores);
+            if (++expanded >= MAX_PREFIX_EXPANSION) {
+                break;
+            }
+        }
+        return scores;
+    }
+
+    private void accumulate(Map<Long, Posting> list, Map<Long, Double> scores) {
+        int n = docs.size();
+        double idf = Math.log(1 + (n - list.size() + 0.5) / (list.size() + 0.5));
+        double avgNombre = n == 0 ? 1 : Math.max(1.0, (double) totalNombreLength / n);
+        double avgDescripcion = n == 0 ? 1 : Math.max(1.0, (double) totalDescripcionLength / n);
+
+        for (Map.Entry<Long, Posting> e : list.entrySet()) {
+            Doc doc = docs.get(e.getKey());
+            Posting p = e.getValue();
+            double score = NOMBRE_BOOST * bm25(p.nombreTf, doc.nombreLength(), avgNombre)
+                    + bm25(p.descripcionTf, doc.descripcionLength(), avgDescripcion);
+            // Con prefijo un documento puede matchear varios términos: nos quedamos con el mejor
+            scores.merge(e.getKey(), idf * score, Math::max);
+        }
+    }
+
+    private static double bm25(int tf, int length, double avgLength) {
+        if (tf == 0) {
+            return 0;
+        }
+        return tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / avgLength));
+    }
+
+    // ===== mantenimiento (siempre con el write lock tomado) =====
+
+    private void add(Product product) {
+        List<String> nombre = SpanishAnalyzer.analyze(product.getNombre());
+        List<String> descripcion = SpanishAnalyzer.analyze(product.getDescripcion());
+        Long id = product.getId();
+
+        Set<String> terms = new HashSet<>();
+        for (String t : nombre) {
+            postings.computeIfAbsent(t, k -> new HashMap<>())
+                    .computeIfAbsent(id, k -> new Posting()).nombreTf++;
+            terms.add(t);
+        }
+        for (String t : descripcion) {
+            postings.computeIfAbsent(t, k -> new HashMap<>())
+                    .computeIfAbsent(id, k -> new Posting()).descripcionTf++;
+            terms.add(t);
+        }
+
+        docs.put(id, new Doc(terms, nombre.size(), descripcion.size()));
+        totalNombreLength += nombre.size();
+        totalDescripcionLength += descripcion.size();
+    }
+
+    private void remove(Long id) {
+        Doc doc = docs.remove(id);
+        if (doc == null) {
+            return;
+        }
+        for (String t : doc.terms()) {
+            Map<Long, Posting> list = postings.get(t);
+            if (list != null) {
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(t);
+                }
+            }
+        }
+        totalNombreLength -= doc.nombreLength();
+        totalDescripcionLength -= doc.descripcionLength();
+    }
+}
@@ -1,33 +1,263 @@
 package com.tcg.tcg_backend.Service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tcg.tcg_backend.Dto.CacheStats;
+import com.tcg.tcg_backend.Dto.CartRequest;
+import com.tcg.tcg_backend.Dto.CartValidation;
+import com.tcg.tcg_backend.Dto.FacetResult;
+import com.tcg.tcg_backend.Dto.ProductChanges;
+import com.tcg.tcg_backend.Dto.ProductPage;
 import com.tcg.tcg_backend.Model.Product;
 import com.tcg.tcg_backend.Repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
+@Slf4j
 @Service
 public class ProductService {
 
+    // Tope de filas por página para que nadie pida el catálogo completo por esta vía
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int MAX_SEARCH_RESULTS = 50;
+
     private final ProductRepository repo;
+    private final ProductCache cache;
+    private final CatalogVersion catalogVersion;
+    private final CatalogSnapshot snapshot;
+    private final ProductSearchIndex searchIndex;
+    private final ProductFacetIndex facetIndex;
+    private final ProductChangeLog changeLog;
+    private final ObjectProvider<ProductChangeListener> listeners;
+    private final EntityManagerFactory entityManagerFactory;
 
-    public ProductService(ProductRepository repo) {
+    public ProductService(
+            ProductRepository repo,
+            CatalogVersion catalogVersion,
+            ObjectMapper objectMapper,
+            ProductSearchIndex searchIndex,
+            ProductFacetIndex facetIndex,
+            ProductChangeLog changeLog,
+            ObjectProvider<ProductChangeListener> listeners,
+            EntityManagerFactory entityManagerFactory,
+            @Value("${catalog.cache.max-entries:10000}") int cacheMaxEntries
+    ) {
         this.repo = repo;
+        this.catalogVersion = catalogVersion;
+        this.searchIndex = searchIndex;
+        this.facetIndex = facetIndex;
+        this.changeLog = changeLog;
+        this.listeners = listeners;
+        this.entityManagerFactory = entityManagerFactory;
+        this.cache = new ProductCache(cacheMaxEntries);
+        this.snapshot = new CatalogSnapshot(objectMapper);
     }
 
+    // Copias desde la caché: se pueden modificar sin afectar a otros lectores
     public List<Product> findAll() {
-        return repo.findAll();
+        return cache.getAll(repo::findAll);
+    }
+
+    /**
+     * Catálogo completo ya serializado a JSON (y gzip) para la versión actual.
+     * Se arma una vez por mutación y después se sirve como bytes.
+     */
+    public CatalogSnapshot.Snapshot catalogSnapshot() {
+        long version = catalogVersion.current();
+        return snapshot.get(version, this::findAll);
+    }
+
+    /**
+     * Cambios después de la secuencia since (null = todo). Los upserts traen
+     * el estado actual de cada producto; si el registro ya no llega hasta
+     * since se devuelve el catálogo completo.
+     */
+    public ProductChanges changesSince(Long since) {
+        ProductChangeLog.Delta delta = since == null
+                ? new ProductChangeLog.Delta(true, changeLog.latest(), Map.of())
+                : changeLog.since(since);
+        // La secuencia se leyó antes que los datos: lo que cambie mientras tanto
+        // vuelve a aparecer en la próxima consulta
+        if (delta.full()) {
+            return new ProductChanges(delta.latest(), true, findAll(), List.of());
+        }
+        List<Long> upserts = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        delta.changes().forEach((id, isDeleted) -> (isDeleted ? deleted : upserts).add(id));
+        return new ProductChanges(delta.latest(), false, new ArrayList<>(findMany(upserts).values()), deleted);
+    }
+
+    /**
+     * Página de productos por keyset: el cursor trae los valores de la última
+     * fila vista, así que la consulta usa el índice (campo, id) sin OFFSET.
+     */
+    public ProductPage findPage(String sort, String dir, int size, String cursor) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size debe estar entre 1 y " + MAX_PAGE_SIZE);
+        }
+
+        ProductCursor order = ProductCursor.of(sort, dir);
+        Window<Product> window = repo.findBy(order.decode(cursor), order.toSort(), Limit.of(size));
+
+        String next = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            next = order.encode(window.positionAt(window.size() - 1));
+        }
+        return new ProductPage(window.getContent(), next, next != null);
     }
 
     public Product findOne(Long id) {
-        return repo.findById(id).orElse(null);
+        // Copia: quien la modifique (ej: update del controller) no ensucia la caché
+        return cache.get(id, key -> repo.findById(key).orElse(null));
+    }
+
+    /**
+     * Varios productos en una sola pasada: caché para los conocidos y un único
+     * IN para el resto. El mapa respeta el orden de los ids pedidos y omite los
+     * que no existen. Devuelve copias, igual que findOne.
+     */
+    public Map<Long, Product> findMany(Collection<Long> ids) {
+        Map<Long, Product> cached = cache.getMany(ids, repo::findAllById);
+        Map<Long, Product> result = new LinkedHashMap<>();
+        for (Long id : ids) {
+            Product p = cached.get(id);
+            if (p != null) {
+                result.putIfAbsent(id, p);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Revisa un carrito contra el catálogo actual: datos vigentes de cada
+     * producto, subtotales, total y qué líneas cambiaron de precio o ya no existen.
+     */
+    public CartValidation validateCart(List<CartRequest.Item> items) {
+        if (items.size() > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("máximo " + MAX_PAGE_SIZE + " líneas por carrito");
+        }
+        Map<Long, Product> products = findMany(items.stream().map(CartRequest.Item::getProductoId).toList());
+
+        List<CartValidation.Line> lines = new ArrayList<>(items.size());
+        List<Long> noEncontrados = new ArrayList<>();
+        long total = 0;
+        boolean valido = true;
+        for (CartRequest.Item item : items) {
+            Product p = products.get(item.getProductoId());
+            if (p == null) {
+                noEncontrados.add(item.getProductoId());
+                valido = false;
+                continue;
+            }
+            long subtotal = (long) p.getPrecio() * item.getCantidad();
+            boolean precioCambiado = item.getPrecioUnitario() != null && item.getPrecioUnitario() != p.getPrecio();
+            if (precioCambiado) {
+                valido = false;
+            }
+            lines.add(new CartValidation.Line(p, item.getCantidad(), subtotal, precioCambiado));
+            total += subtotal;
+        }
+        return new CartValidation(lines, noEncontrados, total, valido);
     }
 
     public Product save(Product product) {
-        return repo.save(product);
+        boolean created = product.getId() == null;
+        Product saved = repo.save(product);
+        catalogVersion.changed();
+        cache.invalidate(saved.getId());
+        catalogVersion.increment();
+        if (created) {
+            notifyListeners(l -> l.productCreated(saved));
+        } else {
+            notifyListeners(l -> l.productSaved(saved));
+        }
+        return saved;
     }
 
     public void delete(Long id) {
         repo.deleteById(id);
+        catalogVersion.changed();
+        cache.invalidate(id);
+        catalogVersion.increment();
+        notifyListeners(l -> l.productDeleted(id));
+    }
+
+    /**
+     * Un proceso de fondo cambió columnas del producto sin pasar por save()
+     * (ej: variantes de imagen): se relee y se avisa como un guardado normal.
+     */
+    public void refresh(Long id) {
+        catalogVersion.changed();
+        cache.invalidate(id);
+        catalogVersion.increment();
+        repo.findById(id).ifPresent(p -> notifyListeners(l -> l.productSaved(p)));
+    }
+
+    /**
+     * Para escrituras masivas que no pasan por save/delete (importación, updates
+     * en lote): invalida todo lo derivado del catálogo una sola vez.
+     */
+    public void catalogReloaded() {
+        catalogVersion.changed();
+        // La importación escribe por JDBC: Hibernate no se entera y la caché
+        // de segundo nivel seguiría devolviendo las filas anteriores
+        entityManagerFactory.getCache().evict(Product.class);
+        cache.invalidateAll();
+        catalogVersion.increment();
+        notifyListeners(ProductChangeListener::catalogReloaded);
+    }
+
+    /**
+     * Búsqueda de texto sobre nombre y descripción, ordenada por relevancia.
+     */
+    public List<Product> search(String query, int limit) {
+        int max = Math.min(Math.max(limit, 1), MAX_SEARCH_RESULTS);
+        return new ArrayList<>(findMany(searchIndex.search(query, max)).values());
+    }
+
+    /**
+     * Filtro por rango de precio y etiqueta de oferta, con conteos por etiqueta,
+     * resuelto en memoria sobre el índice de facetas (sin SQL por consulta).
+     */
+    public FacetResult facets(Integer min, Integer max, String oferta, String dir, int limit) {
+        if (limit < 0 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit debe estar entre 0 y " + MAX_PAGE_SIZE);
+        }
+        boolean descending = "desc".equalsIgnoreCase(dir);
+
+        ProductFacetIndex.Result result = facetIndex.query(min, max, oferta, descending, limit);
+        List<Long> ids = new ArrayList<>(result.ids().length);
+        for (long id : result.ids()) {
+            ids.add(id);
+        }
+        List<Product> productos = new ArrayList<>(findMany(ids).values());
+        return new FacetResult(result.total(), result.tagCounts(), result.minPrice(), result.maxPrice(), productos);
+    }
+
+    public CacheStats cacheStats() {
+        return cache.stats();
+    }
+
+    private void notifyListeners(Consumer<ProductChangeListener> event) {
+        // La escritura ya está confirmada: un listener que falla no debe tumbar el request
+        listeners.orderedStream().forEach(listener -> {
+            try {
+                event.accept(listener);
+            } catch (RuntimeException e) {
+                log.warn("Falló la actualización de {} tras un cambio de producto",
+                        listener.getClass().getSimpleName(), e);
+            }
+        });
     }
-}
\ No newline at end of file
+}
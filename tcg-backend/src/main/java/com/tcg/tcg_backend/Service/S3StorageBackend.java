@@ -0,0 +1,240 @@
+package com.tcg.tcg_backend.Service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.MetadataDirective;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Uploads en un bucket S3 o compatible (MinIO, R2...). Los objetos usan las
+ * mismas subcarpetas por hash que LocalStorageBackend (prefijo/ab/cd/archivo):
+ * S3 reparte la carga por prefijo y el listado queda ordenado igual.
+ *
+ * file.upload-dir sigue siendo la carpeta local donde se reciben los
+ * multipart antes de subirlos.
+ */
+@Slf4j
+public class S3StorageBackend implements StorageBackend {
+
+    private final S3Client s3;
+    private final String bucket;
+    private final String prefix;
+
+    public S3StorageBackend(S3Client s3, String bucket, String prefix) {
+        this.s3 = s3;
+        this.bucket = bucket;
+        this.prefix = prefix == null || prefix.isBlank() ? "" : prefix.endsWith("/") ? prefix : prefix + "/";
+    }
+
+    String objectKey(String key) {
+        return prefix + LocalStorageBackend.shard(key) + "/" + key;
+    }
+
+    @Override
+    public void store(Path source, String key) throws IOException {
+        try {
+            if (!touch(key)) {
+                s3.putObject(b -> b.bucket(bucket).key(objectKey(key)).contentType(contentType(key)),
+                        RequestBody.fromFile(source));
+            }
+        } catch (SdkException e) {
+            throw new IOException("No se pudo subir " + key, e);
+        } finally {
+            Files.deleteIfExists(source);
+        }
+    }
+
+    @Override
+    public void write(String key, byte[] bytes) throws IOException {
+        try {
+            // PutObject es atómico: el objeto aparece completo o no aparece
+            s3.putObject(b -> b.bucket(bucket).key(objectKey(key)).contentType(contentType(key)),
+                    RequestBody.fromBytes(bytes));
+        } catch (SdkException e) {
+            throw new IOException("No se pudo subir " + key, e);
+        }
+    }
+
+    @Override
+    public Optional<StoredFile> stat(String key) throws IOException {
+        return head(key).map(h -> new StoredFile(key, h.contentLength(), h.lastModified().toEpochMilli()));
+    }
+
+    @Override
+    public boolean touch(String key) throws IOException {
+        if (head(key).isEmpty()) {
+            return false;
+        }
+        try {
+            // S3 no permite cambiar la fecha: se copia el objeto sobre sí mismo
+            s3.copyObject(b -> b.sourceBucket(bucket).sourceKey(objectKey(key))
+                    .destinationBucket(bucket).destinationKey(objectKey(key))
+                    .metadataDirective(MetadataDirective.REPLACE)
+                    .contentType(contentType(key)));
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
+        } catch (SdkException e) {
+            throw new IOException("No se pudo actualizar " + key, e);
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        try {
+            return s3.getObject(b -> b.bucket(bucket).key(objectKey(key)));
+        } catch (NoSuchKeyException e) {
+            throw new NoSuchFileException(key);
+        } catch (SdkException e) {
+            throw new IOException("No se pudo leer " + key, e);
+        }
+    }
+
+    @Override
+    public void copy(String sourceKey, String targetKey) throws IOException {
+        try {
+            s3.copyObject(b -> b.sourceBucket(bucket).sourceKey(objectKey(sourceKey))
+                    .destinationBucket(bucket).destinationKey(objectKey(targetKey))
+                    .metadataDirective(MetadataDirective.REPLACE)
+                    .contentType(contentType(targetKey)));
+        } catch (NoSuchKeyException e) {
+            throw new NoSuchFileException(sourceKey);
+        } catch (SdkException e) {
+            throw new IOException("No se pudo copiar " + sourceKey, e);
+        }
+    }
+
+    @Override
+    public long delete(String key) {
+        try {
+            Optional<StoredFile> file = stat(key);
+            if (file.isEmpty()) {
+                return 0;
+            }
+            s3.deleteObject(b -> b.bucket(bucket).key(objectKey(key)));
+            return file.get().size();
+        } catch (IOException | SdkException e) {
+            log.warn("No se pudo borrar el objeto: {}", key, e);
+            return -1;
+        }
+    }
+
+    /**
+     * S3 no tiene rename: la condición se evalúa con un HEAD inmediatamente
+     * antes del DELETE, que es lo más cerca que se puede.
+     */
+    @Override
+    public long deleteIf(String key, Predicate<StoredFile> condition) {
+        try {
+            Optional<StoredFile> file = stat(key);
+            if (file.isEmpty()) {
+                return 0;
+            }
+            if (!condition.test(file.get())) {
+                return KEPT;
+            }
+            s3.deleteObject(b -> b.bucket(bucket).key(objectKey(key)));
+            return file.get().size();
+        } catch (IOException | SdkException e) {
+            log.warn("No se pudo borrar el objeto: {}", key, e);
+            return -1;
+        }
+    }
+
+    @Override
+    public Stream<StoredFile> list() throws IOException {
+        try {
+            return s3.listObjectsV2Paginator(b -> b.bucket(bucket).prefix(prefix)).contents().stream()
+                    .map(o -> new StoredFile(o.key().substring(o.key().lastIndexOf('/') + 1), o.size(),
+                            o.lastModified().toEpochMilli()))
+                    .filter(f -> !f.key().startsWith("."));
+        } catch (SdkException e) {
+            throw new IOException("No se pudo listar el bucket " + bucket, e);
+        }
+    }
+
+    @Override
+    public Resource resource(String key) throws IOException {
+        Optional<StoredFile> file = stat(key);
+        return file.map(ObjectResource::new).orElse(null);
+    }
+
+    private Optional<HeadObjectResponse> head(String key) throws IOException {
+        try {
+            return Optional.of(s3.headObject(b -> b.bucket(bucket).key(objectKey(key))));
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return Optional.empty();
+            }
+            throw new IOException("No se pudo consultar " + key, e);
+        } catch (SdkException e) {
+            throw new IOException("No se pudo consultar " + key, e);
+        }
+    }
+
+    private static String contentType(String key) {
+        return MediaTypeFactory.getMediaType(key).orElse(MediaType.APPLICATION_OCTET_STREAM).toString();
+    }
+
+    /**
+     * Objeto servido por /uploads/**: tamaño y fecha del HEAD que ya se hizo,
+     * el contenido se pide recién al escribir la respuesta (no en un 304).
+     */
+    private final class ObjectResource extends AbstractResource {
+
+        private final StoredFile file;
+
+        ObjectResource(StoredFile file) {
+            this.file = file;
+        }
+
+        @Override
+        public boolean exists() {
+            return true;
+        }
+
+        @Override
+        public long contentLength() {
+            return file.size();
+        }
+
+        @Override
+        public long lastModified() {
+            return file.lastModified();
+        }
+
+        @Override
+        public String getFilename() {
+            return file.key();
+        }
+
+        @Override
+        public String getDescription() {
+            return "s3://" + bucket + "/" + objectKey(file.key());
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return open(file.key());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.tcg.tcg_backend.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Tokenizador para búsquedas en español: pasa a minúsculas, quita tildes
+ * (á→a, ñ→n, ü→u), descarta stopwords y aplica un stemming liviano que
+ * junta plural/singular y masculino/femenino ("cartas", "carta" → "cart").
+ */
+final class SpanishAnalyzer {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^a-z0-9]+");
+
+    // "sobre" queda fuera a propósito: en la tienda es un producto (sobre de cartas)
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "al", "algo", "ante", "con", "como", "contra", "cual", "de", "del", "desde",
+            "donde", "durante", "e", "el", "ella", "en", "entre", "es", "esa", "ese", "eso",
+            "esta", "este", "esto", "estos", "estas", "hasta", "la", "las", "le", "les", "lo",
+            "los", "mas", "me", "mi", "muy", "ni", "no", "nos", "o", "otra", "otro", "para",
+            "pero", "por", "que", "se", "si", "sin", "su", "sus", "tambien", "te",
+            "tu", "u", "un", "una", "uno", "unos", "unas", "y", "ya"
+    );
+
+    private SpanishAnalyzer() {
+    }
+
+    static String fold(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+        for (String token : NON_WORD.split(fold(text))) {
+            if (token.isEmpty() || STOPWORDS.contains(token)) {
+                continue;
+            }
+            terms.add(stem(token));
+        }
+        return terms;
+    }
+
+    static String stem(String token) {
+        // La z final pasa a c para juntarse con el plural: luz/luces → "luc"; dulce/dulces siguen en "dulc"
+        if (token.endsWith("z")) {
+            token = token.substring(0, token.length() - 1) + "c";
+        }
+        if (token.length() <= 3 || Character.isDigit(token.charAt(token.length() - 1))) {
+            return token;
+        }
+        String t = token;
+        if (t.endsWith("s")) {
+            t = t.substring(0, t.length() - 1);
+        }
+        char last = t.charAt(t.length() - 1);
+        if (t.length() > 3 && (last == 'a' || last == 'e' || last == 'o')) {
+            t = t.substring(0, t.length() - 1);
+        }
+        return t;
+    }
+}
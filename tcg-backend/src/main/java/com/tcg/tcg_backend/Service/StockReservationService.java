@@ -0,0 +1,254 @@
+package com.tcg.tcg_backend.Service;
+
+import com.tcg.tcg_backend.Dto.ReservationResponse;
+import com.tcg.tcg_backend.Dto.StockLevel;
+import com.tcg.tcg_backend.Model.Product;
+import com.tcg.tcg_backend.Repository.ProductRepository;
+import com.tcg.tcg_backend.config.ReplicaRoutingDataSource;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reservas de stock en memoria, sin locks.
+ *
+ * Por producto hay un solo AtomicLong con el stock físico en los 32 bits altos
+ * y lo reservado en los bajos, así "hay disponible → reservar" es un único CAS
+ * aunque miles de carritos peleen por el mismo SKU en un lanzamiento. La BD no
+ * participa en cada reserva: el stock confirmado se escribe en segundo plano
+ * (write-behind) en batch, sin filas bloqueadas por request.
+ *
+ * Supone una sola instancia del backend: el estado de las reservas vive aquí.
+ */
+@Slf4j
+@Service
+public class StockReservationService implements ProductChangeListener {
+
+    private static final String UPDATE_SQL = "UPDATE productos SET stock = ? WHERE id = ?";
+
+    public record Reservation(String id, Long productId, int quantity, long expiresAt) {
+    }
+
+    private final ProductRepository repo;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long ttlMillis;
+
+    private final ConcurrentHashMap<Long, AtomicLong> counters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Reservation> reservations = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    public StockReservationService(
+            ProductRepository repo,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${stock.reservation-ttl-seconds:900}") long ttlSeconds
+    ) {
+        this.repo = repo;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    /**
+     * Aparta unidades de un producto. Devuelve null si no hay suficiente disponible.
+     */
+    public ReservationResponse reserve(Long productId, int quantity) {
+        if (quantity < 1) {
+            throw new IllegalArgumentException("cantidad debe ser positiva");
+        }
+        AtomicLong counter = counter(productId);
+
+        long current;
+        do {
+            current = counter.get();
+            if (onHand(current) - reserved(current) < quantity) {
+                return null;
+            }
+        } while (!counter.compareAndSet(current, pack(onHand(current), reserved(current) + quantity)));
+
+        Reservation r = new Reservation(UUID.randomUUID().toString(), productId, quantity,
+                System.currentTimeMillis() + ttlMillis);
+        reservations.put(r.id(), r);
+        return new ReservationResponse(r.id(), productId, quantity, Instant.ofEpochMilli(r.expiresAt()));
+    }
+
+    /**
+     * Devuelve las unidades al disponible (carrito abandonado o vaciado).
+     */
+    public boolean release(String reservationId) {
+        Reservation r = reservations.remove(reservationId);
+        if (r == null) {
+            return false;
+        }
+        add(r.productId(), 0, -r.quantity());
+        return true;
+    }
+
+    /**
+     * Confirma la reserva (compra): descuenta del stock físico y queda pendiente de persistir.
+     */
+    public boolean commit(String reservationId) {
+        Reservation r = reservations.remove(reservationId);
+        if (r == null) {
+            return false;
+        }
+        add(r.productId(), -r.quantity(), -r.quantity());
+        dirty.add(r.productId());
+        return true;
+    }
+
+    public Reservation find(String reservationId) {
+        return reservations.get(reservationId);
+    }
+
+    public StockLevel level(Long productId) {
+        long state = counter(productId).get();
+        int onHand = onHand(state);
+        int reserved = reserved(state);
+        return new StockLevel(productId, onHand, reserved, Math.max(0, onHand - reserved));
+    }
+
+    /**
+     * Ajuste manual del stock físico (admin). Las reservas vigentes se mantienen,
+     * así que no se puede bajar de lo reservado: devuelve null en ese caso.
+     */
+    public StockLevel setStock(Long productId, int stock) {
+        if (stock < 0) {
+            throw new IllegalArgumentException("stock no puede ser negativo");
+        }
+        AtomicLong counter = counter(productId);
+        long current;
+        do {
+            current = counter.get();
+            // Dentro del CAS: una reserva que entra entre medio hace repetir el chequeo
+            if (stock < reserved(current)) {
+                return null;
+            }
+        } while (!counter.compareAndSet(current, pack(stock, reserved(current))));
+        dirty.add(productId);
+        return level(productId);
+    }
+
+    // ===== tareas en segundo plano =====
+
+    @Scheduled(fixedDelayString = "${stock.sweep-interval-ms:5000}")
+    public void expireReservations() {
+        long now = System.currentTimeMillis();
+        for (Reservation r : reservations.values()) {
+            // remove(key, value): si justo se confirmó o liberó, no la tocamos
+            if (r.expiresAt() <= now && reservations.remove(r.id(), r)) {
+                add(r.productId(), 0, -r.quantity());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${stock.flush-interval-ms:1000}")
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<Object[]> batch = new ArrayList<>();
+        for (Long id : List.copyOf(dirty)) {
+            dirty.remove(id);
+            AtomicLong counter = counters.get(id);
+            if (counter != null) {
+                batch.add(new Object[]{onHand(counter.get()), id});
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            // En transacción: con réplicas, el commit marca la escritura para las lecturas siguientes
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPDATE_SQL, batch));
+        } catch (DataAccessException e) {
+            // Reintentamos en la próxima vuelta con el valor que haya en ese momento
+            log.warn("No se pudo persistir el stock de {} productos", batch.size(), e);
+            batch.forEach(row -> dirty.add((Long) row[1]));
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // ===== sincronización con el catálogo =====
+
+    @Override
+    public void productSaved(Product product) {
+        // save() no toca la columna stock (updatable = false)
+    }
+
+    @Override
+    public void productDeleted(Long id) {
+        counters.remove(id);
+        dirty.remove(id);
+        reservations.values().removeIf(r -> r.productId().equals(id));
+    }
+
+    @Override
+    public void catalogReloaded() {
+        // Importaciones y updates masivos no modifican el stock
+    }
+
+    // ===== contador empaquetado =====
+
+    private AtomicLong counter(Long productId) {
+        AtomicLong counter = counters.get(productId);
+        if (counter != null) {
+            return counter;
+        }
+        // La lectura de la BD va fuera de computeIfAbsent para no bloquear el mapa
+        int stock = ReplicaRoutingDataSource.fromPrimary(() -> repo.findStockById(productId))
+                .orElseThrow(() -> new IllegalArgumentException("No existe el producto " + productId));
+        AtomicLong loaded = new AtomicLong(pack(stock, 0));
+        AtomicLong existing = counters.putIfAbsent(productId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private void add(Long productId, int onHandDelta, int reservedDelta) {
+        AtomicLong counter = counters.get(productId);
+        if (counter == null) {
+            return;
+        }
+        long current;
+        do {
+            current = counter.get();
+        } while (!counter.compareAndSet(current,
+                pack(onHand(current) + onHandDelta, reserved(current) + reservedDelta)));
+    }
+
+    private static long pack(int onHand, int reserved) {
+        return ((long) onHand << 32) | (reserved & 0xFFFFFFFFL);
+    }
+
+    private static int onHand(long state) {
+        return (int) (state >> 32);
+    }
+
+    private static int reserved(long state) {
+        return (int) state;
+    }
+
+    // Para métricas / tests
+    Map<String, Reservation> activeReservations() {
+        return Map.copyOf(reservations);
+    }
+}
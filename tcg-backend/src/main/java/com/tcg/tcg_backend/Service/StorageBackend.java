@@ -0,0 +1,86 @@
+package com.tcg.tcg_backend.Service;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Dónde viven los archivos de /uploads. Todo se direcciona por el nombre del
+ * archivo (lo que va después de /uploads/ en la URL), así que las URLs
+ * guardadas en la BD no dependen del backend ni de cómo se reparten los
+ * archivos por dentro.
+ *
+ * Implementaciones: LocalStorageBackend (carpeta local en subcarpetas por
+ * hash) y S3StorageBackend (S3 o compatible). Se elige con storage.backend.
+ */
+public interface StorageBackend {
+
+    record StoredFile(String key, long size, long lastModified) {
+    }
+
+    /**
+     * Lo que devuelve deleteIf cuando la condición pidió conservar el archivo.
+     */
+    long KEPT = -2;
+
+    /**
+     * Mueve un archivo local (temporal) al almacenamiento. Si la clave ya
+     * existe se conserva la que estaba y solo se le actualiza la fecha.
+     * El archivo de origen deja de existir en ambos casos.
+     */
+    void store(Path source, String key) throws IOException;
+
+    /**
+     * Escribe (o reemplaza) el contenido completo; quien lee nunca ve un
+     * archivo a medio escribir.
+     */
+    void write(String key, byte[] bytes) throws IOException;
+
+    Optional<StoredFile> stat(String key) throws IOException;
+
+    /**
+     * Actualiza la fecha de modificación (para el período de gracia de la
+     * limpieza). false si no existe.
+     */
+    boolean touch(String key) throws IOException;
+
+    /**
+     * NoSuchFileException si no existe.
+     */
+    InputStream open(String key) throws IOException;
+
+    /**
+     * Copia del lado del almacenamiento (hard link o CopyObject), sin pasar
+     * los bytes por la aplicación cuando se puede.
+     */
+    void copy(String sourceKey, String targetKey) throws IOException;
+
+    /**
+     * Bytes liberados, 0 si no existía, -1 si falló.
+     */
+    long delete(String key);
+
+    /**
+     * Borra el archivo solo si condition sigue dando true justo antes de
+     * borrarlo (se evalúa con la fecha de ese momento). Lo usa la limpieza:
+     * store y touch actualizan la fecha de un archivo que se reutiliza, así
+     * que un upload del mismo contenido que llega tarde lo salva.
+     * Bytes liberados, 0 si no existía, KEPT si se conservó, -1 si falló.
+     */
+    long deleteIf(String key, Predicate<StoredFile> condition);
+
+    /**
+     * Todos los archivos guardados (para la reconciliación). Hay que cerrarlo.
+     */
+    Stream<StoredFile> list() throws IOException;
+
+    /**
+     * Recurso para servir por /uploads/**, o null si no existe.
+     */
+    Resource resource(String key) throws IOException;
+}
@@ -0,0 +1,255 @@
+package com.tcg.tcg_backend.Service;
+
+import com.tcg.tcg_backend.Dto.CleanupStats;
+import com.tcg.tcg_backend.Dto.ReconcileReport;
+import com.tcg.tcg_backend.Repository.BannerRepository;
+import com.tcg.tcg_backend.Repository.ProductRepository;
+import com.tcg.tcg_backend.config.ReplicaRoutingDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Limpieza de uploads fuera del request.
+ *
+ * - Cola: los controllers encolan las URLs a borrar y un hilo las procesa.
+ *   Como un mismo archivo puede estar referenciado por varios productos o
+ *   banners (se guardan por contenido), antes de borrar se cuentan sus
+ *   referencias en la BD y solo se borra si no queda ninguna.
+ * - Reconciliación periódica: compara lo que hay en el StorageBackend con las
+ *   imágenes (y variantes) de productos y banners y borra lo que nadie
+ *   referencia (archivos que quedaron huérfanos porque falló la BD o un
+ *   borrado). Los archivos más nuevos que
+ *   el período de gracia se respetan: pueden ser de un upload cuyo INSERT
+ *   todavía no confirma.
+ *
+ * Las dos comprobaciones se repiten en el momento del borrado
+ * (StorageBackend.deleteIf): si entre la consulta y el borrado alguien subió
+ * el mismo contenido (store le actualiza la fecha) o lo volvió a referenciar,
+ * el archivo se conserva.
+ */
+@Slf4j
+@Service
+public class UploadCleanupService {
+
+    private final StorageBackend storage;
+    private final ProductRepository productRepository;
+    private final BannerRepository bannerRepository;
+    private final HotImageCache hotImageCache;
+    private final Duration gracePeriod;
+
+    private final BlockingQueue<String> queue = new LinkedBlockingQueue<>();
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+    private final AtomicReference<ReconcileReport> lastReport = new AtomicReference<>();
+
+    private final LongAdder deleted = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder inUse = new LongAdder();
+    private final LongAdder bytesReclaimed = new LongAdder();
+
+    private volatile boolean running = true;
+    private Thread worker;
+
+    public UploadCleanupService(
+            StorageBackend storage,
+            ProductRepository productRepository,
+            BannerRepository bannerRepository,
+            HotImageCache hotImageCache,
+            @Value("${uploads.orphan-grace-minutes:60}") long graceMinutes
+    ) {
+        this.storage = storage;
+        this.productRepository = productRepository;
+        this.bannerRepository = bannerRepository;
+        this.hotImageCache = hotImageCache;
+        this.gracePeriod = Duration.ofMinutes(graceMinutes);
+    }
+
+    /**
+     * Encola el borrado del archivo de una URL pública. Acepta null.
+     */
+    public void schedule(String url) {
+        if (url != null && !url.isBlank()) {
+            queue.add(url);
+        }
+    }
+
+    public void scheduleAll(String... urls) {
+        for (String url : urls) {
+            schedule(url);
+        }
+    }
+
+    public CleanupStats stats() {
+        return new CleanupStats(queue.size(), deleted.sum(), failed.sum(), inUse.sum(), bytesReclaimed.sum(),
+                lastReport.get());
+    }
+
+    // ===== reconciliación =====
+
+    @Scheduled(cron = "${uploads.reconcile-cron:0 30 4 * * *}")
+    public void scheduledReconcile() {
+        ReconcileReport report = reconcile();
+        log.info("Reconciliación de uploads: {} huérfanos, {} bytes liberados",
+                report.getHuerfanosBorrados(), report.getBytesLiberados());
+    }
+
+    public ReconcileReport reconcile() {
+        reconcileLock.lock();
+        try {
+            return doReconcile();
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    private ReconcileReport doReconcile() {
+        long start = System.nanoTime();
+        ReconcileReport report = new ReconcileReport();
+        report.setFecha(Instant.now());
+
+        // Primero las referencias y después el listado: un archivo subido en
+        // medio queda cubierto por el período de gracia
+        Set<String> referenced = referencedFiles();
+        long cutoff = cutoff();
+
+        try (Stream<StorageBackend.StoredFile> files = storage.list()) {
+            for (StorageBackend.StoredFile file : (Iterable<StorageBackend.StoredFile>) files::iterator) {
+                report.setRevisados(report.getRevisados() + 1);
+
+                if (referenced.contains(file.key())) {
+                    report.setReferenciados(report.getReferenciados() + 1);
+                } else if (file.lastModified() > cutoff) {
+                    report.setRecientes(report.getRecientes() + 1);
+                } else {
+                    String url = FileStorageService.URL_PREFIX + file.key();
+                    long bytes = storage.deleteIf(file.key(),
+                            current -> current.lastModified() <= cutoff && !isReferenced(url));
+                    if (bytes == StorageBackend.KEPT) {
+                        report.setRecientes(report.getRecientes() + 1);
+                        continue;
+                    }
+                    hotImageCache.invalidate(file.key());
+                    if (bytes >= 0) {
+                        report.setHuerfanosBorrados(report.getHuerfanosBorrados() + 1);
+                        report.setBytesLiberados(report.getBytesLiberados() + bytes);
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // RuntimeException: errores al recorrer (UncheckedIOException, SdkException)
+            log.warn("No se pudieron listar los uploads", e);
+        }
+
+        bytesReclaimed.add(report.getBytesLiberados());
+        report.setDuracionMs((System.nanoTime() - start) / 1_000_000);
+        lastReport.set(report);
+        return report;
+    }
+
+    private Set<String> referencedFiles() {
+        Set<String> referenced = new HashSet<>();
+        for (Object[] row : ReplicaRoutingDataSource.fromPrimary(productRepository::findImageUrls)) {
+            for (Object url : row) {
+                addKey(referenced, (String) url);
+            }
+        }
+        for (Object[] row : ReplicaRoutingDataSource.fromPrimary(bannerRepository::findImageUrls)) {
+            for (Object url : row) {
+                addKey(referenced, (String) url);
+            }
+        }
+        return referenced;
+    }
+
+    private static void addKey(Set<String> referenced, String url) {
+        String key = FileStorageService.keyOf(url);
+        if (key != null) {
+            referenced.add(key);
+        }
+    }
+
+    private boolean isReferenced(String url) {
+        return ReplicaRoutingDataSource.fromPrimary(() -> productRepository.countImageReferences(url) > 0
+                || bannerRepository.countImageReferences(url) > 0);
+    }
+
+    // ===== hilo de borrado =====
+
+    @PostConstruct
+    void startWorker() {
+        worker = Thread.ofPlatform().name("upload-cleanup").daemon().start(this::drainLoop);
+    }
+
+    @PreDestroy
+    void stopWorker() throws InterruptedException {
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private void drainLoop() {
+        while (running || !queue.isEmpty()) {
+            try {
+                String url = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (url != null) {
+                    delete(url);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Error inesperado borrando uploads", e);
+            }
+        }
+    }
+
+    private void delete(String url) {
+        if (isReferenced(url)) {
+            // Otro producto / banner usa el mismo archivo
+            inUse.increment();
+            return;
+        }
+        String key = FileStorageService.keyOf(url);
+        if (key == null) {
+            // Si el formato es raro, no nos arriesgamos
+            return;
+        }
+        // Un archivo por contenido reciente puede ser de alguien que acaba de
+        // subir lo mismo y cuya referencia no está confirmada: lo decide la
+        // reconciliación. Los nombres antiguos son de un solo upload.
+        boolean contentAddressed = FileStorageService.isContentAddressed(url);
+        long bytes = storage.deleteIf(key, file -> !isReferenced(url)
+                && !(contentAddressed && file.lastModified() > cutoff()));
+        if (bytes == StorageBackend.KEPT) {
+            inUse.increment();
+            return;
+        }
+        hotImageCache.invalidate(key);
+        if (bytes < 0) {
+            // Queda huérfano; la próxima reconciliación lo vuelve a intentar
+            failed.increment();
+            return;
+        }
+        deleted.increment();
+        bytesReclaimed.add(bytes);
+    }
+
+    private long cutoff() {
+        return Instant.now().minus(gracePeriod).toEpochMilli();
+    }
+}
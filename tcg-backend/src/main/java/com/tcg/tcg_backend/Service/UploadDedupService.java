@@ -0,0 +1,149 @@
+package com.tcg.tcg_backend.Service;
+
+import com.tcg.tcg_backend.Dto.DedupReport;
+import com.tcg.tcg_backend.Repository.BannerRepository;
+import com.tcg.tcg_backend.Repository.ProductRepository;
+import com.tcg.tcg_backend.config.ReplicaRoutingDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pasa los uploads antiguos (uuid-nombre.ext) al esquema por contenido
+ * (<sha256>.<ext>, con la extensión según el formato): los que tienen el
+ * mismo contenido quedan en un solo archivo y las filas se actualizan para
+ * apuntar a él. Los nombres viejos se encolan para borrar y las variantes se
+ * regeneran con el nombre nuevo.
+ */
+@Slf4j
+@Service
+public class UploadDedupService {
+
+    private final StorageBackend storage;
+    private final UploadCleanupService uploadCleanupService;
+    private final ProductRepository productRepository;
+    private final BannerRepository bannerRepository;
+    private final ProductService productService;
+    private final BannerService bannerService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public UploadDedupService(
+            StorageBackend storage,
+            UploadCleanupService uploadCleanupService,
+            ProductRepository productRepository,
+            BannerRepository bannerRepository,
+            ProductService productService,
+            BannerService bannerService,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.storage = storage;
+        this.uploadCleanupService = uploadCleanupService;
+        this.productRepository = productRepository;
+        this.bannerRepository = bannerRepository;
+        this.productService = productService;
+        this.bannerService = bannerService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public DedupReport migrate() {
+        if (!lock.tryLock()) {
+            throw new IllegalStateException("Ya hay una deduplicación en curso");
+        }
+        try {
+            return doMigrate();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private DedupReport doMigrate() {
+        long start = System.nanoTime();
+        DedupReport report = new DedupReport();
+
+        // Solo originales: las variantes viejas quedan huérfanas y las borra la reconciliación
+        Set<String> legacy = new LinkedHashSet<>();
+        for (Object[] row : ReplicaRoutingDataSource.fromPrimary(productRepository::findImageUrls)) {
+            addLegacy(legacy, (String) row[0]);
+            addLegacy(legacy, (String) row[1]);
+        }
+        for (Object[] row : ReplicaRoutingDataSource.fromPrimary(bannerRepository::findImageUrls)) {
+            addLegacy(legacy, (String) row[0]);
+        }
+
+        Map<String, String> renamed = new LinkedHashMap<>();
+        for (String url : legacy) {
+            report.setRevisados(report.getRevisados() + 1);
+            String source = FileStorageService.keyOf(url);
+            try {
+                Optional<StorageBackend.StoredFile> file = storage.stat(source);
+                if (file.isEmpty()) {
+                    report.setFaltantes(report.getFaltantes() + 1);
+                    continue;
+                }
+                String filename;
+                try (InputStream in = storage.open(source)) {
+                    // Igual que un upload nuevo: la extensión sale del contenido
+                    byte[] header = in.readNBytes(FileStorageService.HEADER_BYTES);
+                    String hash = FileStorageService.hash(new SequenceInputStream(new ByteArrayInputStream(header), in));
+                    filename = hash + "." + FileStorageService.extension(header);
+                }
+                // touch y no stat: que la limpieza no lo borre antes de que se actualicen las filas
+                if (storage.touch(filename)) {
+                    report.setDuplicados(report.getDuplicados() + 1);
+                    report.setBytesDuplicados(report.getBytesDuplicados() + file.get().size());
+                } else {
+                    // Hard link en disco, CopyObject en S3
+                    storage.copy(source, filename);
+                    // El hard link conserva la fecha del archivo viejo
+                    storage.touch(filename);
+                    report.setMigrados(report.getMigrados() + 1);
+                }
+                renamed.put(url, FileStorageService.URL_PREFIX + filename);
+            } catch (IOException e) {
+                log.warn("No se pudo migrar {}", url, e);
+            }
+        }
+
+        if (!renamed.isEmpty()) {
+            Integer rows = transactionTemplate.execute(status -> {
+                int total = 0;
+                for (Map.Entry<String, String> e : renamed.entrySet()) {
+                    total += productRepository.replaceImagen(e.getKey(), e.getValue());
+                    total += productRepository.replaceHover(e.getKey(), e.getValue());
+                    total += bannerRepository.replaceUrl(e.getKey(), e.getValue());
+                }
+                return total;
+            });
+            report.setReferenciasActualizadas(rows == null ? 0 : rows);
+
+            // Caché e índices, y el backfill de variantes (ImageVariantService)
+            productService.catalogReloaded();
+            bannerService.bannersReloaded();
+            uploadCleanupService.scheduleAll(renamed.keySet().toArray(String[]::new));
+        }
+
+        report.setDuracionMs((System.nanoTime() - start) / 1_000_000);
+        log.info("Deduplicación de uploads: {}", report);
+        return report;
+    }
+
+    private void addLegacy(Set<String> legacy, String url) {
+        if (FileStorageService.keyOf(url) != null && !FileStorageService.isContentAddressed(url)) {
+            legacy.add(url);
+        }
+    }
+}
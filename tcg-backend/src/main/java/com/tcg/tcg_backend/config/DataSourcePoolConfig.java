@@ -0,0 +1,65 @@
+package com.tcg.tcg_backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Tamaño del pool de conexiones según el modelo de hilos.
+ *
+ * Con hilos de plataforma la concurrencia la limita Tomcat (200 hilos) y el
+ * pool por defecto de Hikari alcanza. Con hilos virtuales
+ * (spring.threads.virtual.enabled=true) cada request tiene su hilo y lo único
+ * que frena a la BD es el pool, así que:
+ *
+ * - Tamaño: si no se fijó spring.datasource.hikari.maximum-pool-size, núcleos
+ *   de la BD * 2 + 1 (db.pool.db-cores; 0 = los núcleos locales). Más
+ *   conexiones no dan más throughput, solo más contención en MySQL.
+ * - Pool fijo (minimum-idle = máximo): una ráfaga de hilos virtuales no abre
+ *   conexiones de a montones en el peor momento.
+ * - Espera corta por conexión (db.pool.virtual-connection-timeout-ms): con
+ *   miles de requests estacionados es mejor fallar rápido que acumular 30 s.
+ */
+@Slf4j
+@Configuration
+public class DataSourcePoolConfig {
+
+    private static final String HIKARI = "spring.datasource.hikari.";
+
+    @Bean
+    static BeanPostProcessor hikariPoolSizing(Environment env) {
+        boolean virtualThreads = env.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        int dbCores = env.getProperty("db.pool.db-cores", Integer.class, 0);
+        long connectionTimeout = env.getProperty("db.pool.virtual-connection-timeout-ms", Long.class, 3000L);
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (virtualThreads && bean instanceof HikariDataSource dataSource) {
+                    sizeForVirtualThreads(env, dataSource, dbCores, connectionTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static void sizeForVirtualThreads(Environment env, HikariDataSource dataSource, int dbCores,
+                                              long connectionTimeout) {
+        // Lo que se configuró a mano en spring.datasource.hikari.* se respeta
+        if (!env.containsProperty(HIKARI + "maximum-pool-size")) {
+            int cores = dbCores > 0 ? dbCores : Runtime.getRuntime().availableProcessors();
+            dataSource.setMaximumPoolSize(cores * 2 + 1);
+        }
+        if (!env.containsProperty(HIKARI + "minimum-idle")) {
+            dataSource.setMinimumIdle(dataSource.getMaximumPoolSize());
+        }
+        if (!env.containsProperty(HIKARI + "connection-timeout")) {
+            dataSource.setConnectionTimeout(connectionTimeout);
+        }
+        log.info("Hilos virtuales: pool de {} conexiones (mínimo {}), espera máxima {} ms",
+                dataSource.getMaximumPoolSize(), dataSource.getMinimumIdle(), dataSource.getConnectionTimeout());
+    }
+}
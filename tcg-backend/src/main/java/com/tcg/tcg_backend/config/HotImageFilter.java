@@ -0,0 +1,84 @@
+package com.tcg.tcg_backend.config;
+
+import com.tcg.tcg_backend.Service.FileStorageService;
+import com.tcg.tcg_backend.Service.HotImageCache;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.connector.CoyoteOutputStream;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+
+/**
+ * Sirve /uploads/<archivo> desde HotImageCache cuando está ahí. Todo lo demás
+ * (Range, archivos fríos, rutas raras) sigue al handler de recursos de
+ * WebConfig, que responde con los mismos headers.
+ */
+public class HotImageFilter extends OncePerRequestFilter {
+
+    private final HotImageCache cache;
+
+    public HotImageFilter(HotImageCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String method = request.getMethod();
+        boolean head = "HEAD".equals(method);
+        if (!(head || "GET".equals(method)) || request.getHeader(HttpHeaders.RANGE) != null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String filename = filename(request);
+        HotImageCache.Entry entry = filename == null ? null : cache.get(filename);
+        if (entry == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, WebConfig.UPLOADS_CACHE_CONTROL.getHeaderValue());
+        // Pone ETag / Last-Modified y, si el cliente ya la tiene, responde 304
+        if (new ServletWebRequest(request, response).checkNotModified(entry.etag(), entry.lastModified())) {
+            return;
+        }
+        response.setContentType(entry.contentType().toString());
+        response.setContentLength(entry.size());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (head) {
+            return;
+        }
+
+        ByteBuffer body = entry.data().duplicate();
+        ServletOutputStream out = response.getOutputStream();
+        if (out instanceof CoyoteOutputStream coyote) {
+            // Tomcat copia el buffer directo a su buffer de salida, sin pasar por un byte[]
+            coyote.write(body);
+        } else {
+            Channels.newChannel(out).write(body);
+        }
+    }
+
+    // Solo nombres planos y sin escapes (así están guardados todos los uploads)
+    private static String filename(HttpServletRequest request) {
+        String prefix = request.getContextPath() + FileStorageService.URL_PREFIX;
+        String uri = request.getRequestURI();
+        if (!uri.startsWith(prefix)) {
+            return null;
+        }
+        String filename = uri.substring(prefix.length());
+        if (filename.isEmpty() || filename.startsWith(".") || filename.indexOf('/') >= 0 || filename.indexOf('%') >= 0) {
+            return null;
+        }
+        return filename;
+    }
+}
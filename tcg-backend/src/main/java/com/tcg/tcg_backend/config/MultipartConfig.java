@@ -0,0 +1,39 @@
+package com.tcg.tcg_backend.config;
+
+import jakarta.servlet.MultipartConfigElement;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+@Configuration
+public class MultipartConfig {
+
+    @Value("${file.upload-dir}")
+    private String uploadDir;
+
+    /**
+     * Los multipart se bajan a disco dentro de uploads/.multipart: al estar en el
+     * mismo sistema de archivos que uploads/, guardar una imagen es un rename y
+     * no una segunda escritura de todos los bytes.
+     */
+    @Bean
+    public MultipartConfigElement multipartConfigElement(MultipartProperties properties) throws IOException {
+        Path location = Paths.get(uploadDir).toAbsolutePath().resolve(".multipart");
+        Files.createDirectories(location);
+
+        MultipartConfigElement defaults = properties.createMultipartConfig();
+        return new MultipartConfigElement(
+                location.toString(),
+                defaults.getMaxFileSize(),
+                defaults.getMaxRequestSize(),
+                // 0 = siempre a disco, así transferTo siempre puede renombrar
+                0
+        );
+    }
+}
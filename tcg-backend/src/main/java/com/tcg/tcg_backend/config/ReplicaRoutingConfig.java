@@ -0,0 +1,97 @@
+package com.tcg.tcg_backend.config;
+
+import com.tcg.tcg_backend.Service.CatalogVersion;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Réplicas de lectura (datasource.replicas.urls). Sin URLs no se registra
+ * nada y todo usa el datasource único de spring.datasource.
+ *
+ * Las réplicas copian la configuración de Hikari del primario (tamaño, tiempos,
+ * propiedades del driver) y, si no se indican, también el usuario y la clave.
+ */
+@Configuration
+@ConditionalOnExpression("!'${datasource.replicas.urls:}'.isBlank()")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(
+            @Value("${datasource.replicas.max-lag-ms:5000}") long maxLagMillis
+    ) {
+        return new ReadYourWritesFilter(Duration.ofMillis(maxLagMillis));
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilterRegistration(ReadYourWritesFilter filter) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            DataSourceProperties properties,
+            ObjectProvider<ReplicaLagProbe> replicaLagProbe,
+            ReadYourWritesFilter readYourWrites,
+            CatalogVersion catalogVersion,
+            @Value("${datasource.replicas.urls}") String[] urls,
+            @Value("${datasource.replicas.username:}") String username,
+            @Value("${datasource.replicas.password:}") String password,
+            @Value("${datasource.replicas.max-lag-ms:5000}") long maxLagMillis,
+            @Value("${datasource.replicas.check-interval-ms:1000}") long checkIntervalMillis
+    ) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            String name = "replica-" + (replicas.size() + 1);
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setPoolName(name);
+            config.setJdbcUrl(url.trim());
+            config.setUsername(username.isBlank() ? properties.determineUsername() : username);
+            config.setPassword(username.isBlank() ? properties.determinePassword() : password);
+            config.setReadOnly(true);
+            replicas.put(name, new HikariDataSource(config));
+        }
+        // Las cachés del catálogo se rearman después de cada cambio (también los
+        // que llegan por JDBC): esas lecturas tienen que ver el cambio aunque las
+        // dispare otro cliente. El resto de las escrituras solo cuenta para quien
+        // las hizo (cookie de ReadYourWritesFilter)
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas,
+                // MySQL / MariaDB salvo que otro motor (o un test) registre su propia medición
+                replicaLagProbe.getIfAvailable(ReplicaLagProbe::mysql),
+                readYourWrites, catalogVersion::changedAt,
+                maxLagMillis, checkIntervalMillis);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,82 @@
+package com.tcg.tcg_backend.config;
+
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.expiry.ExpiryPolicy;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Caché de segundo nivel de Hibernate: Ehcache en memoria vía JCache.
+ *
+ * Cada región tiene su tope de entradas y su TTL (cache.l2.*). Las regiones
+ * se crean acá y Hibernate falla al arrancar si una entidad pide una que no
+ * existe, así ninguna queda con la configuración por defecto (sin límite).
+ *
+ * La caché es local a cada instancia: un cambio hecho en otra instancia se
+ * ve recién cuando vence el TTL de la entrada.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.jpa.properties.hibernate.cache.use_second_level_cache", havingValue = "true")
+public class SecondLevelCacheConfig {
+
+    public static final String PRODUCTS = "productos";
+    public static final String BANNERS = "banners";
+
+    private static final String QUERY_RESULTS = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${cache.l2.productos.max-entries:20000}") long productEntries,
+            @Value("${cache.l2.productos.ttl-seconds:600}") long productTtl,
+            @Value("${cache.l2.banners.max-entries:500}") long bannerEntries,
+            @Value("${cache.l2.banners.ttl-seconds:600}") long bannerTtl,
+            @Value("${cache.l2.consultas.max-entries:1000}") long queryEntries,
+            @Value("${cache.l2.consultas.ttl-seconds:300}") long queryTtl
+    ) {
+        ConfigurationBuilder config = ConfigurationBuilder.newConfigurationBuilder()
+                .withCache(PRODUCTS, region(productEntries, ttl(productTtl)))
+                .withCache(BANNERS, region(bannerEntries, ttl(bannerTtl)))
+                .withCache(QUERY_RESULTS, region(queryEntries, ttl(queryTtl)))
+                // Una entrada por tabla. No vence: si se perdiera la marca de la
+                // última escritura, un resultado viejo de consulta pasaría por válido
+                .withCache(UPDATE_TIMESTAMPS, region(1000, ExpiryPolicyBuilder.noExpiration()));
+
+        EhcacheCachingProvider provider =
+                (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        return provider.getCacheManager(URI.create("urn:tcg-backend:hibernate"), config.build());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheProperties(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private static CacheConfigurationBuilder<Object, Object> region(long entries, ExpiryPolicy<Object, Object> expiry) {
+        return CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(entries))
+                .withExpiry(expiry);
+    }
+
+    private static ExpiryPolicy<Object, Object> ttl(long seconds) {
+        return ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(seconds));
+    }
+}
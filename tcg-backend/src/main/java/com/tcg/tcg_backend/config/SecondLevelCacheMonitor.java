@@ -0,0 +1,41 @@
+package com.tcg.tcg_backend.config;
+
+import com.tcg.tcg_backend.Dto.SecondLevelCacheStats;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Aciertos de la caché de segundo nivel de Hibernate, por región, para
+ * revisar bajo carga si las regiones están bien dimensionadas.
+ */
+@Component
+public class SecondLevelCacheMonitor {
+
+    private final Statistics statistics;
+
+    public SecondLevelCacheMonitor(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    public SecondLevelCacheStats stats() {
+        List<SecondLevelCacheStats.Region> regions = new ArrayList<>();
+        String[] names = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(names);
+        for (String name : names) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(name);
+            if (region != null) {
+                regions.add(new SecondLevelCacheStats.Region(name, region.getHitCount(),
+                        region.getMissCount(), region.getPutCount()));
+            }
+        }
+        return new SecondLevelCacheStats(statistics.isStatisticsEnabled(), statistics.getEntityLoadCount(),
+                statistics.getPrepareStatementCount(), regions);
+    }
+}
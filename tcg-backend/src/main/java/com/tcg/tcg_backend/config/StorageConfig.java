@@ -0,0 +1,59 @@
+package com.tcg.tcg_backend.config;
+
+import com.tcg.tcg_backend.Service.LocalStorageBackend;
+import com.tcg.tcg_backend.Service.S3StorageBackend;
+import com.tcg.tcg_backend.Service.StorageBackend;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+
+import java.net.URI;
+import java.nio.file.Paths;
+
+/**
+ * Elige dónde se guardan los uploads (storage.backend = local | s3).
+ */
+@Configuration
+public class StorageConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "storage.backend", havingValue = "local", matchIfMissing = true)
+    public StorageBackend localStorageBackend(
+            @Value("${file.upload-dir}") String uploadDir,
+            @Value("${storage.local.migrate-flat:true}") boolean migrateFlat
+    ) {
+        return new LocalStorageBackend(Paths.get(uploadDir), migrateFlat);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "storage.backend", havingValue = "s3")
+    public S3Client s3Client(
+            @Value("${storage.s3.region:us-east-1}") String region,
+            @Value("${storage.s3.endpoint:}") String endpoint,
+            @Value("${storage.s3.path-style:false}") boolean pathStyle
+    ) {
+        // Credenciales: cadena por defecto del SDK (variables AWS_*, perfil, rol de la instancia)
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(region))
+                .forcePathStyle(pathStyle);
+        if (!endpoint.isBlank()) {
+            // MinIO, R2, etc.
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        return builder.build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "storage.backend", havingValue = "s3")
+    public StorageBackend s3StorageBackend(
+            S3Client s3Client,
+            @Value("${storage.s3.bucket}") String bucket,
+            @Value("${storage.s3.prefix:}") String prefix
+    ) {
+        return new S3StorageBackend(s3Client, bucket, prefix);
+    }
+}
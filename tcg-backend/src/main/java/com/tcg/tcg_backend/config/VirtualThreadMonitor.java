@@ -0,0 +1,190 @@
+package com.tcg.tcg_backend.config;
+
+import com.tcg.tcg_backend.Dto.ThreadingStats;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Detecta hilos virtuales fijados a su carrier (pinning).
+ *
+ * Un hilo virtual que bloquea dentro de un bloque synchronized (o en código
+ * nativo) no suelta el carrier: con pocos carriers (uno por núcleo) unos
+ * cuantos bastan para frenar todo el servidor. El caso típico son drivers JDBC
+ * con synchronized alrededor del socket.
+ *
+ * Se escucha el evento de JFR jdk.VirtualThreadPinned con un umbral
+ * (threads.pinning.threshold-ms) y se agrupa por el primer frame fuera del JDK,
+ * que es el que hay que cambiar (o el driver a actualizar). La primera vez que
+ * aparece cada sitio se loguea con su stack. Por defecto solo corre con hilos
+ * virtuales activos.
+ */
+@Slf4j
+@Component
+public class VirtualThreadMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_SITES = 50;
+    private static final int TOP_SITES = 10;
+    private static final String OTHER_SITES = "(otros)";
+
+    private final DataSource dataSource;
+    private final boolean virtualThreads;
+    private final boolean enabled;
+    private final Duration threshold;
+
+    private final LongAdder events = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final Map<String, LongAdder> sites = new ConcurrentHashMap<>();
+
+    private RecordingStream stream;
+
+    public VirtualThreadMonitor(
+            DataSource dataSource,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${threads.pinning.enabled:${spring.threads.virtual.enabled:false}}") boolean enabled,
+            @Value("${threads.pinning.threshold-ms:20}") long thresholdMs
+    ) {
+        this.dataSource = dataSource;
+        this.virtualThreads = virtualThreads;
+        this.enabled = enabled;
+        this.threshold = Duration.ofMillis(thresholdMs);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            RecordingStream rs = new RecordingStream();
+            rs.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+            rs.onEvent(PINNED_EVENT, this::record);
+            rs.startAsync();
+            stream = rs;
+            log.info("Monitor de pinning activo (umbral {} ms)", threshold.toMillis());
+        } catch (RuntimeException e) {
+            // JVM sin JFR o sin permisos: la app sigue, solo sin el reporte
+            log.warn("No se pudo iniciar el monitor de pinning", e);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    void record(RecordedEvent event) {
+        long nanos = event.getDuration().toNanos();
+        events.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+
+        String site = site(event.getStackTrace());
+        LongAdder counter = sites.get(site);
+        if (counter == null) {
+            if (sites.size() >= MAX_SITES) {
+                site = OTHER_SITES;
+            } else if (sites.putIfAbsent(site, new LongAdder()) == null) {
+                log.warn("Hilo virtual fijado a su carrier {} ms en {}\n{}",
+                        nanos / 1_000_000, site, describe(event.getStackTrace()));
+            }
+            counter = sites.computeIfAbsent(site, k -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    public ThreadingStats stats() {
+        ThreadingStats stats = new ThreadingStats();
+        stats.setHilosVirtuales(virtualThreads);
+        stats.setMonitorPinning(stream != null);
+        stats.setPinnedEventos(events.sum());
+        stats.setPinnedMsTotal(totalNanos.sum() / 1_000_000);
+        stats.setPinnedMsMax(maxNanos.get() / 1_000_000);
+
+        Map<String, Long> top = new LinkedHashMap<>();
+        sites.entrySet().stream()
+                .map(e -> Map.entry(e.getKey(), e.getValue().sum()))
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(TOP_SITES)
+                .forEach(e -> top.put(e.getKey(), e.getValue()));
+        stats.setPinnedSitios(top);
+
+        HikariDataSource hikari = hikari();
+        HikariPoolMXBean pool = hikari == null ? null : hikari.getHikariPoolMXBean();
+        stats.setPoolMaximo(hikari == null ? -1 : hikari.getMaximumPoolSize());
+        // El pool arranca con la primera conexión; antes no hay MXBean
+        stats.setPoolActivas(pool == null ? 0 : pool.getActiveConnections());
+        stats.setPoolInactivas(pool == null ? 0 : pool.getIdleConnections());
+        stats.setPoolEsperando(pool == null ? 0 : pool.getThreadsAwaitingConnection());
+        return stats;
+    }
+
+    private HikariDataSource hikari() {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class)
+                    ? dataSource.unwrap(HikariDataSource.class)
+                    : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    // ===== stack =====
+
+    private static String site(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "(sin stack)";
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (frame.isJavaFrame() && !isJdk(frame)) {
+                return format(frame);
+            }
+        }
+        return "(JDK)";
+    }
+
+    private static String describe(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder();
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        for (int i = 0; i < frames.size() && i < 12; i++) {
+            sb.append("\tat ").append(format(frames.get(i))).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static boolean isJdk(RecordedFrame frame) {
+        String type = frame.getMethod().getType().getName();
+        return type.startsWith("java.") || type.startsWith("jdk.") || type.startsWith("sun.");
+    }
+
+    private static String format(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+}
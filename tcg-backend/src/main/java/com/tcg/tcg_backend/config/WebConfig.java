@@ -1,26 +1,85 @@
 package com.tcg.tcg_backend.config;
 
+import com.tcg.tcg_backend.Service.FileStorageService;
+import com.tcg.tcg_backend.Service.HotImageCache;
+import com.tcg.tcg_backend.Service.StorageBackend;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.PathResourceResolver;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    // Cada contenido tiene su propia URL: se puede guardar un año sin revalidar
+    public static final CacheControl UPLOADS_CACHE_CONTROL =
+            CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+
     @Value("${file.upload-dir}")
     private String uploadDir;
 
+    private final StorageBackend storage;
+
+    public WebConfig(StorageBackend storage) {
+        this.storage = storage;
+    }
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         // Ruta absoluta de la carpeta de uploads
         Path uploadPath = Paths.get(uploadDir).toAbsolutePath();
 
-        // Mapeamos /uploads/** → archivos del sistema en esa carpeta
+        // Mapeamos /uploads/<archivo> → StorageBackend (carpeta local en
+        // subcarpetas por hash, o S3). La ubicación solo la exige el handler:
+        // el resolver de abajo busca siempre en el backend.
+        // Cada contenido tiene su propia URL (nombre = hash, o uuid en los
+        // antiguos) y cambiar una imagen siempre da una URL nueva, así que
+        // navegador y CDN pueden guardarlas un año sin revalidar.
+        // Range (Accept-Ranges / 206) lo resuelve el handler de Spring.
         registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:" + uploadPath.toString() + "/");
+                .addResourceLocations(new FileSystemResource(uploadPath.toString() + "/"))
+                .setCacheControl(UPLOADS_CACHE_CONTROL)
+                .setUseLastModified(true)
+                .setEtagGenerator(WebConfig::uploadEtag)
+                .resourceChain(false)
+                .addResolver(new PathResourceResolver() {
+                    @Override
+                    protected Resource getResource(String resourcePath, Resource location) throws IOException {
+                        // Solo archivos planos; nada oculto (uploads a medio escribir, .multipart...)
+                        String key = FileStorageService.keyOf(FileStorageService.URL_PREFIX + resourcePath);
+                        return key == null ? null : storage.resource(key);
+                    }
+                });
+    }
+
+    // Las imágenes más pedidas se sirven desde memoria antes de llegar al handler
+    @Bean
+    public FilterRegistrationBean<HotImageFilter> hotImageFilter(HotImageCache cache) {
+        FilterRegistrationBean<HotImageFilter> registration = new FilterRegistrationBean<>(new HotImageFilter(cache));
+        registration.addUrlPatterns("/uploads/*");
+        return registration;
+    }
+
+    static String uploadEtag(Resource resource) {
+        String filename = resource.getFilename();
+        if (filename == null) {
+            return null;
+        }
+        try {
+            return FileStorageService.etag(filename, resource.lastModified(), resource.contentLength());
+        } catch (IOException e) {
+            return null;
+        }
     }
-}
\ No newline at end of file
+}
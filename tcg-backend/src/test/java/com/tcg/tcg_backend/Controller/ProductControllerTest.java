@@ -0,0 +1,107 @@
+package com.tcg.tcg_backend.Controller;
+
+import com.tcg.tcg_backend.Service.CatalogSnapshot;
+import com.tcg.tcg_backend.Service.CatalogVersion;
+import com.tcg.tcg_backend.Service.FileStorageService;
+import com.tcg.tcg_backend.Service.ProductBulkUpdateService;
+import com.tcg.tcg_backend.Service.ProductExportService;
+import com.tcg.tcg_backend.Service.ProductImportService;
+import com.tcg.tcg_backend.Service.ProductService;
+import com.tcg.tcg_backend.Service.UploadCleanupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * GET /api/productos: gzip solo si el cliente lo acepta y una etiqueta por representación.
+ */
+class ProductControllerTest {
+
+    private static final byte[] JSON = "[]".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] GZIP = {0x1f, (byte) 0x8b, 1, 2, 3};
+
+    private CatalogVersion catalogVersion;
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        catalogVersion = new CatalogVersion();
+        ProductService service = mock(ProductService.class);
+        when(service.catalogSnapshot()).thenAnswer(inv ->
+                new CatalogSnapshot.Snapshot(catalogVersion.current(), JSON, GZIP));
+        mvc = MockMvcBuilders.standaloneSetup(new ProductController(service, mock(FileStorageService.class),
+                catalogVersion, mock(ProductImportService.class), mock(ProductExportService.class),
+                mock(ProductBulkUpdateService.class), mock(UploadCleanupService.class))).build();
+    }
+
+    @Test
+    void gzipOnlyWhenAcceptedWithNonZeroQuality() throws Exception {
+        mvc.perform(get("/api/productos").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(content().bytes(GZIP));
+
+        mvc.perform(get("/api/productos").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().bytes(JSON));
+
+        mvc.perform(get("/api/productos"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().bytes(JSON));
+    }
+
+    @Test
+    void eachRepresentationHasItsOwnEtag() throws Exception {
+        String gzipTag = fetch("gzip").getResponse().getHeader(HttpHeaders.ETAG);
+        MvcResult identity = fetch("identity");
+        String identityTag = identity.getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertNotEquals(gzipTag, identityTag);
+        assertTrue(identity.getResponse().getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT_ENCODING));
+
+        // La etiqueta de una representación no valida la otra
+        mvc.perform(get("/api/productos")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, identityTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, gzipTag));
+        mvc.perform(get("/api/productos")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, gzipTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)));
+    }
+
+    @Test
+    void acceptEncodingQualityValues() {
+        assertTrue(CatalogSnapshot.acceptsGzip("gzip"));
+        assertTrue(CatalogSnapshot.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertTrue(CatalogSnapshot.acceptsGzip("x-gzip"));
+        assertTrue(CatalogSnapshot.acceptsGzip("*"));
+        assertTrue(CatalogSnapshot.acceptsGzip("br;q=1.0, *;q=0.1"));
+
+        assertFalse(CatalogSnapshot.acceptsGzip(null));
+        assertFalse(CatalogSnapshot.acceptsGzip("identity"));
+        assertFalse(CatalogSnapshot.acceptsGzip("gzip;q=0"));
+        assertFalse(CatalogSnapshot.acceptsGzip("gzip; q=0.000"));
+        assertFalse(CatalogSnapshot.acceptsGzip("*, gzip;q=0"));
+        assertFalse(CatalogSnapshot.acceptsGzip("*;q=0"));
+        assertFalse(CatalogSnapshot.acceptsGzip("gzipped"));
+    }
+
+    private MvcResult fetch(String acceptEncoding) throws Exception {
+        return mvc.perform(get("/api/productos").header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+}
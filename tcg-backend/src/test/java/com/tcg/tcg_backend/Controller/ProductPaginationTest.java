@@ -0,0 +1,180 @@
+package com.tcg.tcg_backend.Controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tcg.tcg_backend.Model.Product;
+import com.tcg.tcg_backend.Repository.ProductRepository;
+import com.tcg.tcg_backend.Service.CatalogVersion;
+import com.tcg.tcg_backend.Service.FileStorageService;
+import com.tcg.tcg_backend.Service.ProductBulkUpdateService;
+import com.tcg.tcg_backend.Service.ProductChangeLog;
+import com.tcg.tcg_backend.Service.ProductExportService;
+import com.tcg.tcg_backend.Service.ProductFacetIndex;
+import com.tcg.tcg_backend.Service.ProductImportService;
+import com.tcg.tcg_backend.Service.ProductSearchIndex;
+import com.tcg.tcg_backend.Service.ProductService;
+import com.tcg.tcg_backend.Service.UploadCleanupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /api/productos?size=... contra H2: recorrer todas las páginas con el
+ * cursor no repite ni salta productos, con empates en precio y nombre
+ * desempatados por id, y un size o cursor inválido es 400.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ProductService.class, CatalogVersion.class, ProductSearchIndex.class, ProductFacetIndex.class,
+        ProductChangeLog.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductPaginationTest {
+
+    private static final int PRODUCTS = 23;
+    private static final int PAGE = 4;
+
+    @Autowired
+    private ProductRepository products;
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        products.deleteAll();
+        List<Product> seed = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            // Cuatro precios y cinco nombres para todos: casi todo empata
+            Product p = new Product();
+            p.setNombre(i % 5 == 0 ? "Caja|Booster" : "Carta " + (char) ('A' + i % 5));
+            p.setDescripcion("d");
+            p.setPrecio(100 * (i % 4));
+            p.setImagen("/x.png");
+            seed.add(p);
+        }
+        products.saveAll(seed);
+        mvc = MockMvcBuilders.standaloneSetup(new ProductController(service, mock(FileStorageService.class),
+                new CatalogVersion(), mock(ProductImportService.class), mock(ProductExportService.class),
+                mock(ProductBulkUpdateService.class), mock(UploadCleanupService.class))).build();
+    }
+
+    @ParameterizedTest
+    @CsvSource({"id,asc", "id,desc", "precio,asc", "precio,desc", "nombre,asc", "nombre,desc"})
+    void walkingEveryPageReturnsEachProductOnceInOrder(String sort, String dir) throws Exception {
+        Comparator<Product> order = switch (sort) {
+            case "precio" -> Comparator.comparing(Product::getPrecio);
+            case "nombre" -> Comparator.comparing(Product::getNombre);
+            default -> (a, b) -> 0;
+        };
+        order = order.thenComparing(Product::getId);
+        if (dir.equals("desc")) {
+            order = order.reversed();
+        }
+        List<Long> expected = products.findAll().stream().sorted(order).map(Product::getId).toList();
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            JsonNode page = page("size=" + PAGE + "&sort=" + sort + "&dir=" + dir
+                    + (cursor == null ? "" : "&cursor=" + cursor));
+            page.get("items").forEach(item -> seen.add(item.get("id").asLong()));
+            assertTrue(page.get("items").size() <= PAGE);
+            cursor = page.get("hasNext").asBoolean() ? page.get("nextCursor").asText() : null;
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(expected, seen);
+        assertEquals(PRODUCTS, new LinkedHashSet<>(seen).size());
+        assertEquals((PRODUCTS + PAGE - 1) / PAGE, pages);
+    }
+
+    @Test
+    void sizeOutsideOneToHundredIsBadRequest() throws Exception {
+        mvc.perform(get("/api/productos?size=0")).andExpect(status().isBadRequest());
+        mvc.perform(get("/api/productos?size=-5")).andExpect(status().isBadRequest());
+        mvc.perform(get("/api/productos?size=" + (ProductService.MAX_PAGE_SIZE + 1))).andExpect(status().isBadRequest());
+        mvc.perform(get("/api/productos?size=" + ProductService.MAX_PAGE_SIZE)).andExpect(status().isOk());
+        mvc.perform(get("/api/productos?size=1")).andExpect(status().isOk());
+    }
+
+    @Test
+    void unknownSortOrDirectionIsBadRequest() throws Exception {
+        mvc.perform(get("/api/productos?size=5&sort=descripcion")).andExpect(status().isBadRequest());
+        mvc.perform(get("/api/productos?size=5&dir=sideways")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void malformedOrTamperedCursorIsBadRequest() throws Exception {
+        String cursor = page("size=3&sort=precio&dir=asc").get("nextCursor").asText();
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        assertTrue(raw.startsWith("precio|ASC|"), raw);
+
+        // El cursor válido sigue funcionando
+        mvc.perform(get("/api/productos?size=3&sort=precio&dir=asc&cursor=" + cursor)).andExpect(status().isOk());
+
+        Set<String> bad = new LinkedHashSet<>(List.of(
+                "no-es-base64!!",
+                encode("basura"),
+                encode("precio|ASC"),            // sin id
+                encode("precio|ASC|7"),          // sin valor de orden
+                encode("precio|ASC|siete|100"),  // id no numérico
+                encode("precio|ASC|7|cien"),     // precio no numérico
+                encode(raw.replace("|ASC|", "|DESC|"))));  // otra dirección
+        for (String tampered : bad) {
+            mvc.perform(get("/api/productos?size=3&sort=precio&dir=asc&cursor=" + tampered))
+                    .andExpect(status().isBadRequest());
+        }
+        // Cursor de otro orden
+        mvc.perform(get("/api/productos?size=3&sort=nombre&dir=asc&cursor=" + cursor))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/api/productos?size=3&sort=precio&dir=desc&cursor=" + cursor))
+                .andExpect(status().isBadRequest());
+    }
+
+    // ===== helpers =====
+
+    private JsonNode page(String query) throws Exception {
+        String body = mvc.perform(get("/api/productos?" + query))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        return mapper.readTree(body);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,173 @@
+package com.tcg.tcg_backend.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tcg.tcg_backend.Model.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogEventServiceTest {
+
+    private static final Pattern EVENT = Pattern.compile("(?:id:(\\d+)\\n)?event:(\\w+)\\ndata:(.*)", Pattern.DOTALL);
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private CatalogEventService service;
+
+    @AfterEach
+    void tearDown() {
+        service.closeAll();
+    }
+
+    @Test
+    void slowSubscriberDropsOldestAndIsToldHowMany() throws Exception {
+        service = new CatalogEventService(objectMapper, 4, 10, 60);
+        RecordingEmitter fast = new RecordingEmitter(null);
+        CountDownLatch gate = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(gate);
+        service.subscribe(fast);
+        service.subscribe(slow);
+        // El lento queda trabado escribiendo "conectado"
+        await(() -> slow.received.size() == 1);
+
+        for (long id = 1; id <= 10; id++) {
+            service.productDeleted(id);
+            // El rápido vacía su buffer de 4 entre publicación y publicación
+            long seq = id;
+            await(() -> fast.seqs().contains(seq));
+        }
+        gate.countDown();
+        await(() -> slow.seqs().contains(10L));
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L), fast.seqs());
+        // Solo entran los 4 más nuevos; los 6 anteriores se avisan como perdidos
+        assertEquals(List.of("conectado", "perdidos", "producto", "producto", "producto", "producto"), slow.names());
+        assertEquals("6", slow.received.get(1).data());
+        assertEquals(List.of(7L, 8L, 9L, 10L), slow.seqs());
+        assertEquals(6, service.stats().getDescartados());
+    }
+
+    @Test
+    void concurrentPublishersDeliverInSeqOrder() throws Exception {
+        service = new CatalogEventService(objectMapper, 10_000, 10, 60);
+        RecordingEmitter subscriber = new RecordingEmitter(null);
+        service.subscribe(subscriber);
+        await(() -> subscriber.received.size() == 1);
+
+        int threads = 8;
+        int perThread = 500;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> publishers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            publishers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    Product p = new Product();
+                    p.setId((long) i);
+                    p.setNombre("carta " + i);
+                    service.productSaved(p);
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread publisher : publishers) {
+            publisher.join();
+        }
+        int total = threads * perThread;
+        await(() -> subscriber.seqs().size() == total);
+
+        List<Long> seqs = subscriber.seqs();
+        for (int i = 0; i < total; i++) {
+            assertEquals(i + 1, seqs.get(i), "el evento " + i + " llegó fuera de orden");
+        }
+        // El seq del sobre coincide con el id SSE
+        String last = subscriber.received.get(total).data();
+        assertEquals(total, objectMapper.readTree(last).get("seq").asLong());
+        assertEquals("carta " + (perThread - 1), objectMapper.readTree(last).at("/datos/nombre").asText());
+    }
+
+    @Test
+    void connectedSeqMarksWhereTheSubscriberStarts() throws Exception {
+        service = new CatalogEventService(objectMapper, 16, 10, 60);
+        service.productDeleted(1L);
+        service.productDeleted(2L);
+        RecordingEmitter late = new RecordingEmitter(null);
+        service.subscribe(late);
+        service.productDeleted(3L);
+        await(() -> late.seqs().contains(3L));
+
+        assertEquals("2", late.received.get(0).data());
+        assertEquals(List.of(3L), late.seqs());
+    }
+
+    // ===== helpers =====
+
+    private record Sent(Long seq, String name, String data) {
+    }
+
+    /** Emitter que registra lo enviado; con gate, el primer envío espera a que se abra. */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final CountDownLatch gate;
+        private final List<Sent> received = new CopyOnWriteArrayList<>();
+
+        RecordingEmitter(CountDownLatch gate) {
+            super(0L);
+            this.gate = gate;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            StringBuilder text = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                text.append(part.getData());
+            }
+            Matcher m = EVENT.matcher(text.toString().strip());
+            if (m.matches()) {
+                received.add(new Sent(m.group(1) == null ? null : Long.parseLong(m.group(1)),
+                        m.group(2), m.group(3).strip()));
+            }
+            if (gate != null && received.size() == 1) {
+                try {
+                    gate.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        List<Long> seqs() {
+            return received.stream().map(Sent::seq).filter(s -> s != null).toList();
+        }
+
+        List<String> names() {
+            return received.stream().map(Sent::name).toList();
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("no se cumplió a tiempo");
+            }
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.tcg.tcg_backend.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tcg.tcg_backend.Model.Product;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Comparación del listado serializando entidades en cada request vs. escribir
+ * el snapshot ya armado. Solo corre a pedido:
+ *
+ *   mvn test -Dtest=CatalogSnapshotBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CatalogSnapshotBenchmarkTest {
+
+    private static final int ROUNDS = 20;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @ParameterizedTest
+    @ValueSource(ints = {10_000, 100_000})
+    void snapshotVsPerRequestSerialization(int productCount) throws IOException {
+        List<Product> catalog = catalog(productCount);
+        CatalogSnapshot snapshot = new CatalogSnapshot(mapper);
+
+        long buildStart = System.nanoTime();
+        CatalogSnapshot.Snapshot built = snapshot.get(1L, () -> catalog);
+        long buildNanos = System.nanoTime() - buildStart;
+
+        // Calentamiento de ambos caminos antes de medir
+        for (int i = 0; i < 5; i++) {
+            mapper.writeValue(OutputStream.nullOutputStream(), catalog);
+            snapshot.get(1L, () -> catalog);
+        }
+
+        long jacksonNanos = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            mapper.writeValue(OutputStream.nullOutputStream(), catalog);
+            jacksonNanos += System.nanoTime() - start;
+        }
+
+        long snapshotNanos = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            OutputStream.nullOutputStream().write(snapshot.get(1L, () -> catalog).json());
+            snapshotNanos += System.nanoTime() - start;
+        }
+
+        System.out.printf(
+                "productos=%d json=%d KB gzip=%d KB | armado=%.1f ms | jackson/request=%.3f ms | snapshot/request=%.3f ms%n",
+                productCount,
+                built.json().length / 1024,
+                built.gzip().length / 1024,
+                buildNanos / 1e6,
+                jacksonNanos / 1e6 / ROUNDS,
+                snapshotNanos / 1e6 / ROUNDS
+        );
+        assertTrue(snapshotNanos < jacksonNanos);
+    }
+
+    private static List<Product> catalog(int count) {
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Product p = new Product();
+            p.setId((long) i);
+            p.setNombre("Carta singles #" + i);
+            p.setDescripcion("Carta en excelente estado, edición " + (i % 40) + ", idioma español");
+            p.setPrecio(1000 + (i % 500) * 100);
+            p.setImagen("/uploads/" + i + "-carta.jpg");
+            p.setHover(i % 3 == 0 ? "/uploads/" + i + "-carta-hover.jpg" : null);
+            p.setOferta(i % 10 == 0 ? "oferta" : null);
+            products.add(p);
+        }
+        return products;
+    }
+}
@@ -0,0 +1,82 @@
+package com.tcg.tcg_backend.Service;
+
+import com.tcg.tcg_backend.Dto.HomeBootstrap;
+import com.tcg.tcg_backend.Model.Banner;
+import com.tcg.tcg_backend.Model.Product;
+import com.tcg.tcg_backend.Repository.BannerRepository;
+import com.tcg.tcg_backend.Repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class HomeServiceTest {
+
+    private ProductRepository productRepository;
+    private BannerRepository bannerRepository;
+    private HomeService home;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        bannerRepository = mock(BannerRepository.class);
+        when(productRepository.findAll()).thenReturn(List.of(product(1L, null), product(2L, "oferta"), product(3L, null)));
+        when(bannerRepository.findAll()).thenReturn(List.of(banner(10L)));
+        home = new HomeService(productRepository, bannerRepository, 2);
+    }
+
+    @Test
+    void featuredProductsFirstAndCapped() {
+        HomeBootstrap view = home.bootstrap();
+
+        assertEquals(List.of(2L, 1L), view.getProductos().stream().map(Product::getId).toList());
+        assertEquals(1, view.getBanners().size());
+    }
+
+    @Test
+    void mutationsSwapSnapshotWithoutQuerying() {
+        HomeBootstrap before = home.bootstrap();
+
+        home.productSaved(product(3L, "nuevo"));
+        home.productDeleted(2L);
+        home.bannerSaved(banner(11L));
+        HomeBootstrap after = home.bootstrap();
+
+        assertEquals(List.of(3L, 1L), after.getProductos().stream().map(Product::getId).toList());
+        assertEquals(2, after.getBanners().size());
+        assertTrue(after.getVersion() > before.getVersion());
+        // El snapshot anterior no cambió
+        assertEquals(List.of(2L, 1L), before.getProductos().stream().map(Product::getId).toList());
+        verify(productRepository, times(1)).findAll();
+        verify(bannerRepository, times(1)).findAll();
+    }
+
+    @Test
+    void publishedEntitiesAreCopies() {
+        Product saved = product(4L, "oferta");
+        home.bootstrap();
+        home.productSaved(saved);
+
+        saved.setNombre("cambiado después");
+
+        assertNotEquals("cambiado después", home.bootstrap().getProductos().get(0).getNombre());
+    }
+
+    private static Product product(Long id, String oferta) {
+        Product p = new Product();
+        p.setId(id);
+        p.setNombre("p" + id);
+        p.setOferta(oferta);
+        return p;
+    }
+
+    private static Banner banner(Long id) {
+        Banner b = new Banner();
+        b.setId(id);
+        b.setUrl("/uploads/b" + id + ".png");
+        return b;
+    }
+}
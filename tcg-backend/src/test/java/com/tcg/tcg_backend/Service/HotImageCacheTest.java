@@ -0,0 +1,75 @@
+package com.tcg.tcg_backend.Service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotImageCacheTest {
+
+    @TempDir
+    Path uploads;
+
+    private StorageBackend storage;
+
+    @BeforeEach
+    void setUp() {
+        storage = new LocalStorageBackend(uploads, false);
+    }
+
+    @Test
+    void oneHitFilesAreNotLoaded() throws Exception {
+        Files.write(uploads.resolve("a.png"), new byte[100]);
+        HotImageCache cache = new HotImageCache(storage, 1000, 1000);
+
+        assertNull(cache.get("a.png"));
+        HotImageCache.Entry entry = cache.get("a.png");
+
+        assertNotNull(entry);
+        assertEquals(100, entry.size());
+        assertEquals(100, cache.stats().getResidentBytes());
+        assertSame(entry, cache.get("a.png"));
+        assertEquals(1, cache.stats().getHits());
+    }
+
+    @Test
+    void colderFileDoesNotDisplaceHotterOne() throws Exception {
+        Files.write(uploads.resolve("hot.png"), new byte[600]);
+        Files.write(uploads.resolve("cold.png"), new byte[600]);
+        HotImageCache cache = new HotImageCache(storage, 1000, 1000);
+
+        for (int i = 0; i < 5; i++) {
+            cache.get("hot.png");
+        }
+        cache.get("cold.png");
+
+        assertNull(cache.get("cold.png"));
+        assertEquals(1, cache.stats().getRechazados());
+        assertNotNull(cache.get("hot.png"));
+
+        // Cuando el frío pasa a ser más pedido, desplaza al otro
+        for (int i = 0; i < 10; i++) {
+            cache.get("cold.png");
+        }
+        assertNotNull(cache.get("cold.png"));
+        assertEquals(1, cache.stats().getEvictions());
+        assertEquals(600, cache.stats().getResidentBytes());
+    }
+
+    @Test
+    void invalidateReleasesBytes() throws Exception {
+        Files.write(uploads.resolve("a.png"), new byte[100]);
+        HotImageCache cache = new HotImageCache(storage, 1000, 1000);
+        cache.get("a.png");
+        cache.get("a.png");
+
+        cache.invalidate("a.png");
+
+        assertEquals(0, cache.stats().getEntries());
+        assertEquals(0, cache.stats().getResidentBytes());
+    }
+}
@@ -0,0 +1,61 @@
+package com.tcg.tcg_backend.Service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageResizerTest {
+
+    @Test
+    void scalesLongestSideAndKeepsAspectRatio() {
+        BufferedImage src = new BufferedImage(3000, 1500, BufferedImage.TYPE_INT_RGB);
+
+        BufferedImage card = ImageResizer.scale(src, ImageVariant.CARD.maxSize());
+
+        assertEquals(480, card.getWidth());
+        assertEquals(240, card.getHeight());
+    }
+
+    @Test
+    void neverUpscales() {
+        BufferedImage src = new BufferedImage(150, 100, BufferedImage.TYPE_INT_RGB);
+
+        BufferedImage full = ImageResizer.scale(src, ImageVariant.FULL.maxSize());
+
+        assertEquals(150, full.getWidth());
+        assertEquals(100, full.getHeight());
+    }
+
+    @Test
+    void transparentImagesStayPng() throws Exception {
+        BufferedImage src = new BufferedImage(800, 800, BufferedImage.TYPE_INT_ARGB);
+        BufferedImage scaled = ImageResizer.scale(src, 200);
+
+        assertEquals("png", ImageResizer.formatFor(scaled));
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(ImageResizer.encode(scaled, "png")));
+        assertTrue(decoded.getColorModel().hasAlpha());
+    }
+
+    @Test
+    void subsamplesLargeSourcesWhileReading(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("grande.jpg");
+        BufferedImage big = new BufferedImage(4000, 2000, BufferedImage.TYPE_INT_RGB);
+        ImageIO.write(big, "jpg", file.toFile());
+
+        BufferedImage read;
+        try (InputStream in = Files.newInputStream(file)) {
+            read = ImageResizer.read(in, file.getFileName().toString(), 480);
+        }
+
+        // Se decodifica a ~2x lo necesario, no a 4000 px
+        assertTrue(read.getWidth() >= 960 && read.getWidth() < 2000, "ancho " + read.getWidth());
+    }
+}
@@ -0,0 +1,96 @@
+package com.tcg.tcg_backend.Service;
+
+import com.tcg.tcg_backend.Model.Product;
+import com.tcg.tcg_backend.Repository.BannerRepository;
+import com.tcg.tcg_backend.Repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ImageVariantServiceTest {
+
+    @TempDir
+    Path root;
+
+    private ProductRepository products;
+    private BannerRepository banners;
+    private ImageVariantService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        products = mock(ProductRepository.class);
+        banners = mock(BannerRepository.class);
+        when(products.findIdsMissingVariants()).thenReturn(List.of());
+        when(banners.findIdsMissingVariants()).thenReturn(List.of());
+        ObjectProvider<ProductService> productService = mock(ObjectProvider.class);
+        when(productService.getObject()).thenReturn(mock(ProductService.class));
+        service = new ImageVariantService(products, banners, new LocalStorageBackend(root, false),
+                mock(UploadCleanupService.class), productService, mock(ObjectProvider.class), 1, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void overlappingBackfillsShareOneScan() throws Exception {
+        CountDownLatch scanning = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(products.findIdsMissingVariants()).thenAnswer(inv -> {
+            scanning.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+
+        Thread first = Thread.ofPlatform().start(service::backfill);
+        assertTrue(scanning.await(5, TimeUnit.SECONDS));
+        // Dos recargas mientras el primer recorrido sigue consultando
+        assertEquals(0, service.backfill());
+        assertEquals(0, service.backfill());
+        release.countDown();
+        first.join(5_000);
+
+        // El recorrido en curso más una sola repetición por las dos recargas
+        verify(products, times(2)).findIdsMissingVariants();
+    }
+
+    @Test
+    void undecodableImageIsRecordedAndNotRetried() throws Exception {
+        Files.writeString(root.resolve("rota.png"), "esto no es una imagen");
+        Product product = new Product();
+        product.setId(7L);
+        product.setImagen("/uploads/rota.png");
+        when(products.findById(7L)).thenReturn(Optional.of(product));
+        when(products.findIdsMissingVariants()).thenReturn(List.of(7L));
+        when(products.updateImageVariants(anyLong(), any(), any(), any(), any(), any(), any())).thenReturn(1);
+
+        assertEquals(1, service.backfill());
+
+        // Las variantes apuntan a la original: la fila deja de figurar como pendiente
+        verify(products, timeout(5_000)).updateImageVariants(7L, "/uploads/rota.png", null,
+                "/uploads/rota.png", "/uploads/rota.png", "/uploads/rota.png", null);
+        assertEquals(1, service.stats().getIndecodificables());
+        assertEquals(0, service.stats().getFallidas());
+
+        product.setImagenThumb("/uploads/rota.png");
+        product.setImagenCard("/uploads/rota.png");
+        product.setImagenFull("/uploads/rota.png");
+        service.productSaved(product);
+        verify(products, after(200).times(1)).findById(7L);
+    }
+}
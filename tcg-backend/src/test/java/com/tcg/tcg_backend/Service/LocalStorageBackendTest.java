@@ -0,0 +1,86 @@
+package com.tcg.tcg_backend.Service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalStorageBackendTest {
+
+    private static final String HASHED = "ab12" + "0".repeat(60) + ".jpg";
+
+    @TempDir
+    Path root;
+
+    @Test
+    void storesInHashPrefixedDirectories() throws Exception {
+        LocalStorageBackend storage = new LocalStorageBackend(root, false);
+        Path tmp = Files.writeString(root.resolve(".tmp.upload"), "img");
+
+        storage.store(tmp, HASHED);
+
+        assertTrue(Files.exists(root.resolve("ab/12").resolve(HASHED)));
+        assertFalse(Files.exists(tmp));
+        try (InputStream in = storage.open(HASHED)) {
+            assertEquals("img", new String(in.readAllBytes()));
+        }
+        assertEquals(3, storage.delete(HASHED));
+        assertTrue(storage.stat(HASHED).isEmpty());
+    }
+
+    @Test
+    void flatFilesAreServedUntilMigrated() throws Exception {
+        LocalStorageBackend storage = new LocalStorageBackend(root, false);
+        Files.writeString(root.resolve(HASHED), "plano");
+        Files.writeString(root.resolve("uuid-carta.png"), "viejo");
+        Files.createDirectories(root.resolve(".multipart"));
+        Files.writeString(root.resolve(".multipart/parte.tmp"), "x");
+
+        assertEquals(5, storage.stat(HASHED).orElseThrow().size());
+        assertNotNull(storage.resource("uuid-carta.png"));
+
+        assertEquals(2, storage.migrateFlatLayout());
+
+        assertFalse(Files.exists(root.resolve(HASHED)));
+        assertEquals(root.resolve("ab/12").resolve(HASHED), storage.locate(HASHED));
+        assertEquals(5, storage.stat("uuid-carta.png").orElseThrow().size());
+        try (Stream<StorageBackend.StoredFile> files = storage.list()) {
+            List<String> keys = files.map(StorageBackend.StoredFile::key).sorted().toList();
+            assertEquals(List.of(HASHED, "uuid-carta.png"), keys);
+        }
+    }
+
+    @Test
+    void deleteIfPutsTheFileBackWhenTheConditionFails() throws Exception {
+        LocalStorageBackend storage = new LocalStorageBackend(root, false);
+        storage.write(HASHED, "img".getBytes());
+
+        // La condición se evalúa con el archivo ya apartado: no se ve ni se lista
+        assertEquals(StorageBackend.KEPT, storage.deleteIf(HASHED, file -> {
+            assertNull(storage.locate(HASHED));
+            return false;
+        }));
+        assertEquals(3, storage.stat(HASHED).orElseThrow().size());
+        try (Stream<StorageBackend.StoredFile> files = storage.list()) {
+            assertEquals(List.of(HASHED), files.map(StorageBackend.StoredFile::key).toList());
+        }
+
+        assertEquals(3, storage.deleteIf(HASHED, file -> true));
+        assertTrue(storage.stat(HASHED).isEmpty());
+        assertEquals(0, storage.deleteIf(HASHED, file -> true));
+    }
+
+    @Test
+    void rejectsPathsOutsideTheRoot() {
+        LocalStorageBackend storage = new LocalStorageBackend(root, false);
+
+        assertThrows(IllegalArgumentException.class, () -> storage.stat("../secreto.txt"));
+        assertThrows(IllegalArgumentException.class, () -> storage.stat(".multipart"));
+    }
+}
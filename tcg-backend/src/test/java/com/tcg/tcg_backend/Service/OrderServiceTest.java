@@ -0,0 +1,189 @@
+package com.tcg.tcg_backend.Service;
+
+import com.tcg.tcg_backend.Dto.OrderRequest;
+import com.tcg.tcg_backend.Model.Order;
+import com.tcg.tcg_backend.Model.Product;
+import com.tcg.tcg_backend.Repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Escritor de pedidos contra H2: cada pedido aceptado termina en la BD, aunque
+ * la tanda falle o la BD no responda por un rato.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+// El escritor confirma en su propio hilo: el test no puede envolverlo en una transacción
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderServiceTest {
+
+    @Autowired
+    private OrderRepository repo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicBoolean databaseDown = new AtomicBoolean();
+    private final AtomicInteger refusedTransactions = new AtomicInteger();
+
+    private ProductService products;
+    private OrderService service;
+    private boolean started;
+
+    @BeforeEach
+    void setUp() {
+        repo.deleteAll();
+        products = mock(ProductService.class);
+        Product product = new Product();
+        product.setId(1L);
+        product.setNombre("Sobre");
+        product.setPrecio(1000);
+        when(products.findMany(any())).thenReturn(Map.of(1L, product));
+
+        // Sin conexión: el pool no entrega nada y no se llega a abrir la transacción
+        PlatformTransactionManager flaky = new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                if (databaseDown.get()) {
+                    refusedTransactions.incrementAndGet();
+                    throw new CannotCreateTransactionException("sin conexión");
+                }
+                return transactionManager.getTransaction(definition);
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+                transactionManager.commit(status);
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+                transactionManager.rollback(status);
+            }
+        };
+        service = new OrderService(repo, products, flaky, 100, 50);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        // Los tests que no llegan a escribir no arrancan el hilo
+        if (started) {
+            service.stopWriter();
+        }
+    }
+
+    @Test
+    void batchWithDuplicateKeyFallsBackToOneByOne() throws InterruptedException {
+        Order first = accepted("a");
+        Order duplicate = accepted("dup");
+        Order last = accepted("b");
+
+        // Otra instancia guardó la misma clave después de que la aceptamos
+        Order other = new Order();
+        other.setId(UUID.randomUUID().toString());
+        other.setIdempotencyKey("dup");
+        other.setPayloadHash(duplicate.getPayloadHash());
+        other.setCreadoEn(Instant.now());
+        repo.save(other);
+
+        start();
+        await(() -> service.find(last.getId()).map(Map.Entry::getValue).orElse(false)
+                && service.find(first.getId()).map(Map.Entry::getValue).orElse(false));
+
+        assertEquals(3, repo.count());
+        assertTrue(repo.existsById(first.getId()));
+        assertTrue(repo.existsById(last.getId()));
+        // El duplicado se descartó: la clave queda con el pedido de la otra instancia
+        assertEquals(other.getId(), repo.findByIdempotencyKey("dup").orElseThrow().getId());
+        assertFalse(repo.existsById(duplicate.getId()));
+        // El id que recibió el cliente lleva al pedido guardado
+        await(() -> service.find(duplicate.getId()).map(Map.Entry::getValue).orElse(false));
+        assertEquals(other.getId(), service.find(duplicate.getId()).orElseThrow().getKey().getId());
+    }
+
+    @Test
+    void failedLookupReleasesTheKey() {
+        OrderRepository failing = mock(OrderRepository.class);
+        when(failing.findByIdempotencyKey("k")).thenThrow(new CannotCreateTransactionException("sin conexión"));
+        service = new OrderService(failing, products, transactionManager, 100, 50);
+
+        assertThrows(CannotCreateTransactionException.class, () -> service.submit("k", request()));
+        assertEquals(0, service.queued());
+
+        // El reintento del cliente se acepta, no queda como duplicado de un pedido que no existe
+        doReturn(Optional.empty()).when(failing).findByIdempotencyKey("k");
+        assertEquals(OrderService.Status.ACCEPTED, service.submit("k", request()).status());
+        assertEquals(1, service.queued());
+    }
+
+    @Test
+    void acceptedOrderStaysPendingWhileDatabaseIsDown() throws InterruptedException {
+        databaseDown.set(true);
+        Order order = accepted("k");
+        start();
+
+        await(() -> refusedTransactions.get() >= 2);
+        assertEquals(Boolean.FALSE, service.find(order.getId()).orElseThrow().getValue());
+        assertEquals(0, repo.count());
+        // Un reintento del cliente sigue viendo su pedido
+        assertEquals(OrderService.Status.DUPLICATE, service.submit("k", request()).status());
+
+        databaseDown.set(false);
+        await(() -> service.find(order.getId()).map(Map.Entry::getValue).orElse(false));
+        assertTrue(repo.existsById(order.getId()));
+    }
+
+    // ===== helpers =====
+
+    private void start() {
+        service.startWriter();
+        started = true;
+    }
+
+    private Order accepted(String key) {
+        OrderService.Submission submission = service.submit(key, request());
+        assertEquals(OrderService.Status.ACCEPTED, submission.status());
+        return submission.order();
+    }
+
+    private static OrderRequest request() {
+        OrderRequest request = new OrderRequest();
+        request.setItems(List.of(new OrderRequest.Item(1L, 2, 1000)));
+        return request;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("no se cumplió a tiempo");
+            }
+            Thread.sleep(20);
+        }
+    }
+}
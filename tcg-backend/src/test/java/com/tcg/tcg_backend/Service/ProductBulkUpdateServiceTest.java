@@ -0,0 +1,159 @@
+package com.tcg.tcg_backend.Service;
+
+import com.tcg.tcg_backend.Dto.BulkUpdateRequest;
+import com.tcg.tcg_backend.Model.Product;
+import com.tcg.tcg_backend.Repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UPDATEs masivos contra H2: a qué filas llega cada filtro (los límites null
+ * no filtran) y cuántas veces se avisa a los listeners.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ProductService.class, ProductBulkUpdateService.class, CatalogVersion.class, ProductSearchIndex.class,
+        ProductFacetIndex.class, ProductChangeLog.class, ProductImportServiceTest.ReloadCounter.class})
+// El servicio abre su propia transacción, como en producción
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductBulkUpdateServiceTest {
+
+    @Autowired
+    private ProductRepository products;
+
+    @Autowired
+    private ProductBulkUpdateService service;
+
+    @Autowired
+    private ProductImportServiceTest.ReloadCounter reloads;
+
+    @BeforeEach
+    void setUp() {
+        products.deleteAll();
+        products.saveAll(List.of(
+                product("Sobre", 100, null),
+                product("Mazo", 200, "navidad"),
+                product("Caja", 300, "navidad")));
+        reloads.count.set(0);
+    }
+
+    @Test
+    void onlyMinimumFiltersFromBelow() {
+        assertEquals(2, service.apply(filter(200, null, null, 10)));
+
+        assertEquals(List.of(100, 180, 270), prices());
+        assertEquals(1, reloads.count.get());
+    }
+
+    @Test
+    void onlyMaximumFiltersFromAbove() {
+        assertEquals(2, service.apply(filter(null, 200, null, 10)));
+
+        assertEquals(List.of(90, 180, 300), prices());
+    }
+
+    @Test
+    void onlyCurrentOfferFiltersByLabel() {
+        BulkUpdateRequest request = filter(null, null, "navidad", 0);
+        request.setLimpiarOferta(true);
+
+        assertEquals(2, service.apply(request));
+
+        assertEquals(List.of(100, 200, 300), prices());
+        assertTrue(products.findAll().stream().allMatch(p -> p.getOferta() == null));
+    }
+
+    @Test
+    void bothBoundsAndLabelCombine() {
+        BulkUpdateRequest request = filter(150, 250, "navidad", 50);
+        request.setOferta("liquidación");
+
+        assertEquals(1, service.apply(request));
+
+        assertEquals(List.of(100, 100, 300), prices());
+        assertEquals(1, products.findAll().stream().filter(p -> "liquidación".equals(p.getOferta())).count());
+    }
+
+    @Test
+    void noFilterNeedsTodos() {
+        assertThrows(IllegalArgumentException.class, () -> service.apply(filter(null, null, null, 10)));
+        assertEquals(List.of(100, 200, 300), prices());
+
+        BulkUpdateRequest all = filter(null, null, null, 10);
+        all.setTodos(true);
+        assertEquals(3, service.apply(all));
+        assertEquals(List.of(90, 180, 270), prices());
+        assertEquals(1, reloads.count.get());
+    }
+
+    @Test
+    void filterWithoutMatchesDoesNotReload() {
+        assertEquals(0, service.apply(filter(1000, null, null, 10)));
+
+        assertEquals(0, reloads.count.get());
+    }
+
+    @Test
+    void idsSpanningSeveralStatementsReloadOnce() {
+        List<Product> extra = IntStream.range(0, ProductBulkUpdateService.IDS_PER_STATEMENT + 200)
+                .mapToObj(i -> product("Carta " + i, 1000, null))
+                .toList();
+        List<Long> ids = new ArrayList<>(products.saveAll(extra).stream().map(Product::getId).toList());
+        // Repetidos: se cuentan una vez
+        ids.add(ids.get(0));
+
+        BulkUpdateRequest request = new BulkUpdateRequest();
+        request.setIds(ids);
+        request.setDescuento(25);
+
+        assertEquals(extra.size(), service.apply(request));
+
+        assertEquals(extra.size(), products.findAll().stream().filter(p -> p.getPrecio() == 750).count());
+        assertEquals(List.of(100, 200, 300), prices().subList(0, 3));
+        assertEquals(1, reloads.count.get());
+    }
+
+    // ===== helpers =====
+
+    private List<Integer> prices() {
+        return products.findAll(Sort.by("id")).stream().map(Product::getPrecio).toList();
+    }
+
+    private static BulkUpdateRequest filter(Integer precioMin, Integer precioMax, String ofertaActual, int descuento) {
+        BulkUpdateRequest request = new BulkUpdateRequest();
+        request.setPrecioMin(precioMin);
+        request.setPrecioMax(precioMax);
+        request.setOfertaActual(ofertaActual);
+        request.setDescuento(descuento);
+        return request;
+    }
+
+    private static Product product(String nombre, int precio, String oferta) {
+        Product p = new Product();
+        p.setNombre(nombre);
+        p.setDescripcion("d");
+        p.setPrecio(precio);
+        p.setImagen("/x.png");
+        p.setOferta(oferta);
+        return p;
+    }
+}
@@ -0,0 +1,165 @@
+package com.tcg.tcg_backend.Service;
+
+import com.tcg.tcg_backend.Model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCacheTest {
+
+    private static Product product(long id) {
+        Product p = new Product();
+        p.setId(id);
+        p.setNombre("p" + id);
+        return p;
+    }
+
+    @Test
+    void concurrentMissesOnSameIdLoadOnce() throws Exception {
+        ProductCache cache = new ProductCache(10);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Product>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> cache.get(1L, id -> {
+                    loads.incrementAndGet();
+                    loading.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return product(id);
+                })));
+            }
+            // Se libera la carga recién cuando los otros 7 están esperándola
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (cache.waiting(1L) < 7) {
+                assertTrue(System.nanoTime() < deadline, "esperando: " + cache.waiting(1L));
+                Thread.onSpinWait();
+            }
+            release.countDown();
+            Set<Product> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Future<Product> f : results) {
+                assertEquals(1L, f.get().getId());
+                distinct.add(f.get());
+            }
+            // Una sola carga, pero cada hilo con su propia instancia
+            assertEquals(8, distinct.size());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().getLoads());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedAndCountsHits() {
+        ProductCache cache = new ProductCache(2);
+        cache.get(1L, ProductCacheTest::product);
+        cache.get(2L, ProductCacheTest::product);
+        cache.get(1L, ProductCacheTest::product);   // hit: 1 pasa a ser el más reciente
+        cache.get(3L, ProductCacheTest::product);   // expulsa al 2
+
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(1L, id -> { loads.incrementAndGet(); return product(id); });
+        cache.get(2L, id -> { loads.incrementAndGet(); return product(id); });
+
+        assertEquals(1, loads.get());
+        assertEquals(2, cache.stats().getHits());
+        assertEquals(2, cache.stats().getEvictions());
+    }
+
+    @Test
+    void invalidateForcesReload() {
+        ProductCache cache = new ProductCache(10);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(1L, id -> { loads.incrementAndGet(); return product(id); });
+        cache.invalidate(1L);
+        cache.get(1L, id -> { loads.incrementAndGet(); return product(id); });
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void fullListLoadedBeforeAnInvalidationIsNotKept() {
+        ProductCache cache = new ProductCache(10);
+        AtomicInteger loads = new AtomicInteger();
+
+        // Un cambio llega mientras se arma la lista: esa lista ya es vieja
+        List<Product> stale = cache.getAll(() -> {
+            loads.incrementAndGet();
+            cache.invalidateAll();
+            return List.of(product(1L));
+        });
+        assertEquals(1, stale.size());
+
+        cache.getAll(() -> { loads.incrementAndGet(); return List.of(product(1L), product(2L)); });
+        assertEquals(2, cache.getAll(() -> fail("debería estar en la caché")).size());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void fullListLargerThanMaxEntriesIsNotKept() {
+        ProductCache cache = new ProductCache(2);
+        AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 2; i++) {
+            cache.getAll(() -> { loads.incrementAndGet(); return List.of(product(1L), product(2L), product(3L)); });
+        }
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void callersCannotChangeWhatTheCacheHolds() {
+        ProductCache cache = new ProductCache(10);
+        cache.get(1L, ProductCacheTest::product).setNombre("cambiado");
+        cache.get(1L, ProductCacheTest::product).setNombre("cambiado");
+        cache.getMany(List.of(1L, 2L), ids -> ids.stream().map(ProductCacheTest::product).toList())
+                .values().forEach(p -> p.setNombre("cambiado"));
+        List<Product> all = cache.getAll(() -> List.of(product(1L), product(2L)));
+        all.get(0).setNombre("cambiado");
+        assertThrows(UnsupportedOperationException.class, () -> all.add(product(3L)));
+
+        assertEquals("p1", cache.get(1L, id -> fail("debería estar en la caché")).getNombre());
+        assertEquals("p2", cache.getMany(List.of(2L), ids -> fail("debería estar en la caché")).get(2L).getNombre());
+        assertEquals(List.of("p1", "p2"), cache.getAll(() -> fail("debería estar en la caché")).stream()
+                .map(Product::getNombre).toList());
+    }
+
+    @Test
+    void getManyLoadsOnlyMissesInOneCall() {
+        ProductCache cache = new ProductCache(10);
+        cache.get(1L, ProductCacheTest::product);
+        List<List<Long>> calls = new ArrayList<>();
+
+        Map<Long, Product> found = cache.getMany(List.of(1L, 2L, 3L, 2L, 99L), ids -> {
+            calls.add(ids);
+            return ids.stream().filter(id -> id != 99L).map(ProductCacheTest::product).toList();
+        });
+
+        assertEquals(List.of(List.of(2L, 3L, 99L)), calls);
+        assertEquals(Set.of(1L, 2L, 3L), found.keySet());
+        // Lo cargado queda en la caché
+        cache.getMany(List.of(2L, 3L), ids -> fail("no debería volver a cargar"));
+    }
+}
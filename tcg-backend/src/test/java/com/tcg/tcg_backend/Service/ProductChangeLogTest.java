@@ -0,0 +1,60 @@
+package com.tcg.tcg_backend.Service;
+
+import com.tcg.tcg_backend.Model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductChangeLogTest {
+
+    @Test
+    void returnsLatestChangePerProductAfterSince() {
+        ProductChangeLog log = new ProductChangeLog(100);
+        log.productSaved(product(1L));
+        long since = log.latest();
+        log.productSaved(product(2L));
+        log.productSaved(product(1L));
+        log.productDeleted(2L);
+
+        ProductChangeLog.Delta delta = log.since(since);
+
+        assertFalse(delta.full());
+        assertEquals(Map.of(1L, false, 2L, true), delta.changes());
+        assertEquals(since + 3, delta.latest());
+        assertTrue(log.since(delta.latest()).changes().isEmpty());
+    }
+
+    @Test
+    void compactedOrUnknownPointsFallBackToFullSnapshot() {
+        ProductChangeLog log = new ProductChangeLog(2);
+        long start = log.latest();
+        log.productSaved(product(1L));
+        log.productSaved(product(2L));
+        log.productSaved(product(3L));
+
+        assertTrue(log.since(start).full());
+        assertFalse(log.since(start + 1).full());
+        // Secuencia del futuro (ej: de antes de un reinicio con el reloj atrasado)
+        assertTrue(log.since(log.latest() + 10).full());
+    }
+
+    @Test
+    void catalogReloadForcesFullSnapshot() {
+        ProductChangeLog log = new ProductChangeLog(100);
+        log.productSaved(product(1L));
+        long since = log.latest();
+
+        log.catalogReloaded();
+
+        assertTrue(log.since(since).full());
+        assertFalse(log.since(log.latest()).full());
+    }
+
+    private static Product product(Long id) {
+        Product p = new Product();
+        p.setId(id);
+        return p;
+    }
+}
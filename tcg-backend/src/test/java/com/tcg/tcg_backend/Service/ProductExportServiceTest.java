@@ -0,0 +1,186 @@
+package com.tcg.tcg_backend.Service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tcg.tcg_backend.Dto.ImportReport;
+import com.tcg.tcg_backend.Model.Product;
+import com.tcg.tcg_backend.Repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exportación contra H2: encabezado, escapado de CSV, una fila por producto
+ * y que lo exportado se vuelve a importar sin perder nada.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ProductService.class, ProductImportService.class, ProductExportService.class, CatalogVersion.class,
+        ProductSearchIndex.class, ProductFacetIndex.class, ProductChangeLog.class})
+// La exportación abre su propia transacción de solo lectura, como en producción
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductExportServiceTest {
+
+    // Más que un bloque de flush, para pasar por más de uno
+    private static final int PLAIN = 1_200;
+
+    @Autowired
+    private ProductRepository products;
+
+    @Autowired
+    private ProductExportService exportService;
+
+    @Autowired
+    private ProductImportService importService;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    private Product tricky;
+
+    @BeforeEach
+    void setUp() {
+        products.deleteAll();
+        List<Product> seed = new ArrayList<>();
+        for (int i = 0; i < PLAIN; i++) {
+            seed.add(product("Carta " + i, "d", i, null, null));
+        }
+        products.saveAll(seed);
+        // Comas, comillas y saltos de línea dentro de los campos
+        tricky = products.save(product("Caja, edición \"especial\"", "Línea uno\nlínea dos\r\ntres",
+                2500, "/hover,1.png", "2x1, \"navidad\""));
+    }
+
+    @Test
+    void csvHasHeaderEscapesFieldsAndOneRecordPerProduct() throws Exception {
+        String csv = export(ProductImportService.Format.CSV);
+
+        assertTrue(csv.startsWith(ProductCsv.HEADER + "\n"), csv.substring(0, 80));
+        assertTrue(csv.contains(ProductCsv.format(tricky) + "\n"));
+        assertTrue(csv.contains("\"Caja, edición \"\"especial\"\"\""), "nombre sin escapar");
+        assertTrue(csv.contains("\"Línea uno\nlínea dos\r\ntres\""), "descripción sin escapar");
+
+        List<Product> read = readCsv(csv);
+        assertEquals(PLAIN + 1, read.size());
+        assertEquals(ids(), read.stream().map(Product::getId).toList());
+        Product back = read.get(read.size() - 1);
+        assertEquals(tricky.getNombre(), back.getNombre());
+        assertEquals(tricky.getDescripcion(), back.getDescripcion());
+        assertEquals(tricky.getHover(), back.getHover());
+        assertEquals(tricky.getOferta(), back.getOferta());
+    }
+
+    @Test
+    void ndjsonHasOneObjectPerLineAndNoHeader() throws Exception {
+        String ndjson = export(ProductImportService.Format.NDJSON);
+
+        String[] lines = ndjson.split("\n");
+        assertEquals(PLAIN + 1, lines.length);
+        assertTrue(ndjson.endsWith("\n"));
+
+        List<Long> seen = new ArrayList<>();
+        for (String line : lines) {
+            JsonNode node = mapper.readTree(line);
+            seen.add(node.get("id").asLong());
+            assertFalse(node.has("stock"), line);
+        }
+        assertEquals(ids(), seen);
+        JsonNode last = mapper.readTree(lines[lines.length - 1]);
+        assertEquals(tricky.getNombre(), last.get("nombre").asText());
+        assertEquals(tricky.getDescripcion(), last.get("descripcion").asText());
+    }
+
+    @Test
+    void exportedCsvImportsBackToTheSameCatalog() throws Exception {
+        roundTrip(ProductImportService.Format.CSV);
+    }
+
+    @Test
+    void exportedNdjsonImportsBackToTheSameCatalog() throws Exception {
+        roundTrip(ProductImportService.Format.NDJSON);
+    }
+
+    @Test
+    void emptyCatalogExportsOnlyTheHeader() throws Exception {
+        products.deleteAll();
+
+        assertEquals(ProductCsv.HEADER + "\n", export(ProductImportService.Format.CSV));
+        assertEquals("", export(ProductImportService.Format.NDJSON));
+    }
+
+    // ===== helpers =====
+
+    // Sin cambios en la BD, todo vuelve como "sin cambios"; con la BD tocada, la importación la deja como estaba
+    private void roundTrip(ProductImportService.Format format) throws Exception {
+        List<Product> before = products.findAll(Sort.by("id"));
+        byte[] exported = export(format).getBytes(StandardCharsets.UTF_8);
+
+        ImportReport same = importService.importar(new ByteArrayInputStream(exported), format);
+        assertEquals(PLAIN + 1, same.getLeidas());
+        assertEquals(PLAIN + 1, same.getSinCambios());
+        assertEquals(0, same.getErrores());
+
+        Product edited = products.findById(tricky.getId()).orElseThrow();
+        edited.setDescripcion("otra");
+        edited.setOferta(null);
+        products.save(edited);
+
+        ImportReport restored = importService.importar(new ByteArrayInputStream(exported), format);
+        assertEquals(1, restored.getActualizadas());
+        assertEquals(PLAIN, restored.getSinCambios());
+        assertEquals(0, restored.getInsertadas());
+        assertEquals(0, restored.getErrores());
+        assertEquals(before, products.findAll(Sort.by("id")));
+    }
+
+    private String export(ProductImportService.Format format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(out, format);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static List<Product> readCsv(String csv) throws Exception {
+        ProductCsv.RecordReader reader = new ProductCsv.RecordReader(new StringReader(csv));
+        List<Product> read = new ArrayList<>();
+        for (Product p = reader.nextProduct(); p != null; p = reader.nextProduct()) {
+            read.add(p);
+        }
+        return read;
+    }
+
+    private List<Long> ids() {
+        return products.findAll(Sort.by("id")).stream().map(Product::getId).toList();
+    }
+
+    private static Product product(String nombre, String descripcion, int precio, String hover, String oferta) {
+        Product p = new Product();
+        p.setNombre(nombre);
+        p.setDescripcion(descripcion);
+        p.setPrecio(precio);
+        p.setImagen("/x.png");
+        p.setHover(hover);
+        p.setOferta(oferta);
+        return p;
+    }
+}
@@ -0,0 +1,66 @@
+package com.tcg.tcg_backend.Service;
+
+import com.tcg.tcg_backend.Model.Product;
+import com.tcg.tcg_backend.Repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductFacetIndexTest {
+
+    private ProductFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        ProductRepository repo = mock(ProductRepository.class);
+        when(repo.findFacetRows()).thenReturn(List.of(
+                new Object[]{1L, 5000, "oferta"},
+                new Object[]{2L, 15000, null},
+                new Object[]{3L, 15000, "Oferta"},
+                new Object[]{4L, 30000, "nuevo"},
+                new Object[]{5L, 90000, "oferta"}
+        ));
+        index = new ProductFacetIndex(repo);
+    }
+
+    @Test
+    void filtersByPriceRangeAndCountsTags() {
+        ProductFacetIndex.Result r = index.query(10000, 30000, null, false, 10);
+
+        assertEquals(3, r.total());
+        assertArrayEquals(new long[]{2L, 3L, 4L}, r.ids());
+        assertEquals(Map.of("oferta", 1, "nuevo", 1), r.tagCounts());
+        assertEquals(15000, r.minPrice());
+        assertEquals(30000, r.maxPrice());
+    }
+
+    @Test
+    void tagFilterKeepsFacetCountsOfWholeRange() {
+        ProductFacetIndex.Result r = index.query(null, null, "OFERTA", true, 2);
+
+        assertEquals(3, r.total());
+        assertArrayEquals(new long[]{5L, 3L}, r.ids());
+        assertEquals(Map.of("oferta", 3, "nuevo", 1), r.tagCounts());
+    }
+
+    @Test
+    void appliesSavesAndDeletes() {
+        index.query(null, null, null, false, 0);
+
+        Product moved = new Product();
+        moved.setId(1L);
+        moved.setPrecio(20000);
+        moved.setOferta("liquidacion");
+        index.productSaved(moved);
+        index.productDeleted(3L);
+
+        ProductFacetIndex.Result r = index.query(10000, 30000, null, false, 10);
+        assertArrayEquals(new long[]{2L, 1L, 4L}, r.ids());
+        assertEquals(Map.of("nuevo", 1, "liquidacion", 1), r.tagCounts());
+    }
+}
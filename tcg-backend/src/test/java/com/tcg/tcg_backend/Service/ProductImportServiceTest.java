@@ -0,0 +1,177 @@
+package com.tcg.tcg_backend.Service;
+
+import com.tcg.tcg_backend.Dto.ImportReport;
+import com.tcg.tcg_backend.Dto.ImportRowResult;
+import com.tcg.tcg_backend.Model.Product;
+import com.tcg.tcg_backend.Repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Importación contra H2: qué filas inserta, cuáles actualiza y cuántas veces
+ * avisa a los listeners.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ProductService.class, ProductImportService.class, CatalogVersion.class, ProductSearchIndex.class,
+        ProductFacetIndex.class, ProductChangeLog.class, ProductImportServiceTest.ReloadCounter.class})
+// La importación maneja sus propias transacciones, como en producción
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductImportServiceTest {
+
+    private static final String HEADER = "id,nombre,descripcion,precio,imagen,hover,oferta\n";
+
+    @Autowired
+    private ProductRepository products;
+
+    @Autowired
+    private ProductImportService importService;
+
+    @Autowired
+    private ReloadCounter reloads;
+
+    @BeforeEach
+    void setUp() {
+        products.deleteAll();
+        reloads.count.set(0);
+    }
+
+    @Test
+    void insertsNewRowsAndUpdatesChangedOnes() throws Exception {
+        Product sobre = products.save(product("Sobre", 100));
+        products.save(product("Mazo", 300));
+
+        ImportReport report = importCsv(HEADER
+                + sobre.getId() + ",Sobre,d,150,/x.png,,oferta\n"  // cambia precio y oferta
+                + ",Mazo,d,300,/x.png,,\n"                          // igual que en la BD
+                + ",Caja,d,900,/caja.png,/caja-hover.png,\n"        // nueva
+                + "999999,Fantasma,d,1,/x.png,,\n");                // id que no existe
+
+        assertEquals(4, report.getLeidas());
+        assertEquals(1, report.getInsertadas());
+        assertEquals(1, report.getActualizadas());
+        assertEquals(1, report.getSinCambios());
+        assertEquals(1, report.getErrores());
+
+        Product updated = products.findById(sobre.getId()).orElseThrow();
+        assertEquals(150, updated.getPrecio());
+        assertEquals("oferta", updated.getOferta());
+
+        Long insertedId = result(report, "insertado").getId();
+        assertNotNull(insertedId);
+        Product caja = products.findById(insertedId).orElseThrow();
+        assertEquals("Caja", caja.getNombre());
+        assertEquals("/caja-hover.png", caja.getHover());
+        assertEquals(0, caja.getStock());
+
+        assertEquals(3, products.count());
+        assertEquals(1, reloads.count.get());
+    }
+
+    @Test
+    void rowWithoutIdUpdatesTheProductWithThatName() throws Exception {
+        Product mazo = products.save(product("Mazo", 300));
+
+        ImportReport report = importCsv(HEADER + ",Mazo,d,250,/x.png,,\n");
+
+        assertEquals(1, report.getActualizadas());
+        assertEquals(mazo.getId(), result(report, "actualizado").getId());
+        assertEquals(250, products.findById(mazo.getId()).orElseThrow().getPrecio());
+        assertEquals(1, products.count());
+    }
+
+    @Test
+    void importSpanningSeveralChunksReloadsOnce() throws Exception {
+        int rows = ProductImportService.CHUNK_SIZE * 2 + 500;
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            ndjson.append("{\"nombre\":\"Carta ").append(i)
+                    .append("\",\"descripcion\":\"d\",\"precio\":").append(i)
+                    .append(",\"imagen\":\"/x.png\"}\n");
+        }
+
+        ImportReport report = importService.importar(
+                new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)),
+                ProductImportService.Format.NDJSON);
+
+        assertEquals(rows, report.getInsertadas());
+        assertEquals(0, report.getErrores());
+        assertEquals(rows, products.count());
+        assertEquals(rows, report.getResultados().stream().map(ImportRowResult::getId)
+                .filter(Objects::nonNull).distinct().count());
+        assertEquals(1, reloads.count.get());
+    }
+
+    @Test
+    void unchangedFileDoesNotReload() throws Exception {
+        Product sobre = products.save(product("Sobre", 100));
+
+        ImportReport report = importCsv(HEADER + sobre.getId() + ",Sobre,d,100,/x.png,,\n");
+
+        assertEquals(1, report.getSinCambios());
+        assertEquals(0, reloads.count.get());
+    }
+
+    // ===== helpers =====
+
+    private ImportReport importCsv(String csv) throws Exception {
+        return importService.importar(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                ProductImportService.Format.CSV);
+    }
+
+    private static ImportRowResult result(ImportReport report, String accion) {
+        List<ImportRowResult> matches = report.getResultados().stream()
+                .filter(r -> r.getAccion().equals(accion))
+                .toList();
+        assertEquals(1, matches.size(), matches.toString());
+        return matches.get(0);
+    }
+
+    private static Product product(String nombre, int precio) {
+        Product p = new Product();
+        p.setNombre(nombre);
+        p.setDescripcion("d");
+        p.setPrecio(precio);
+        p.setImagen("/x.png");
+        return p;
+    }
+
+    // Cuenta los avisos de recarga completa que recibe un listener más
+    static class ReloadCounter implements ProductChangeListener {
+
+        final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public void productSaved(Product product) {
+        }
+
+        @Override
+        public void productDeleted(Long id) {
+        }
+
+        @Override
+        public void catalogReloaded() {
+            count.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.tcg.tcg_backend.Service;
+
+import com.tcg.tcg_backend.Model.Product;
+import com.tcg.tcg_backend.Repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    private static Product product(long id, String nombre, String descripcion) {
+        Product p = new Product();
+        p.setId(id);
+        p.setNombre(nombre);
+        p.setDescripcion(descripcion);
+        return p;
+    }
+
+    @BeforeEach
+    void setUp() {
+        ProductRepository repo = mock(ProductRepository.class);
+        when(repo.findAll()).thenReturn(List.of(
+                product(1L, "Caja de sobres Pokémon Escarlata", "Booster box con 36 sobres"),
+                product(2L, "Sobre Magic Karlov", "Incluye cartas de Pokémon de regalo"),
+                product(3L, "Juego de mesa Yokai", "Juego cooperativo para la familia")
+        ));
+        index = new ProductSearchIndex(repo);
+    }
+
+    @Test
+    void foldsAccentsAndPluralsAndRanksNombreFirst() {
+        assertEquals(List.of(1L, 2L), index.search("pokemon ", 10));
+        assertEquals(List.of(1L, 2L), index.search("SOBRES", 10));
+        assertEquals(List.of(1L), index.search("cajas pokemon", 10));
+    }
+
+    @Test
+    void singularAndPluralShareAStem() {
+        List<List<String>> pairs = List.of(
+                List.of("dulce", "dulces"),
+                List.of("enlace", "enlaces"),
+                List.of("alcance", "alcances"),
+                List.of("luz", "luces"),
+                List.of("pez", "peces"),
+                List.of("carta", "cartas"));
+        for (List<String> pair : pairs) {
+            assertEquals(SpanishAnalyzer.stem(pair.get(0)), SpanishAnalyzer.stem(pair.get(1)), pair.toString());
+        }
+        assertNotEquals(SpanishAnalyzer.stem("dulce"), SpanishAnalyzer.stem("enlace"));
+
+        index.search("pokemon", 10);
+        index.productSaved(product(4L, "Dulces surtidos", "Caja con luces de colores"));
+        index.productSaved(product(5L, "Mazo de alcance", "Enlace al torneo"));
+
+        assertEquals(List.of(4L), index.search("dulce ", 10));
+        assertEquals(List.of(4L), index.search("luz ", 10));
+        assertEquals(List.of(5L), index.search("alcances ", 10));
+        assertEquals(List.of(5L), index.search("enlaces ", 10));
+    }
+
+    @Test
+    void lastTermMatchesAsPrefix() {
+        assertEquals(List.of(3L), index.search("yok", 10));
+        assertEquals(List.of(), index.search("yok ", 10));
+    }
+
+    @Test
+    void appliesSavesAndDeletesIncrementally() {
+        index.search("yokai", 10);
+
+        index.productSaved(product(3L, "Juego de mesa Alcachofas", "Juego de cartas"));
+        index.productSaved(product(4L, "Yokai Sketch", "Juego de dibujo"));
+        index.productDeleted(1L);
+
+        assertEquals(List.of(4L), index.search("yokai", 10));
+        assertEquals(List.of(2L), index.search("pokemon", 10));
+        assertEquals(3, index.size());
+    }
+}
@@ -0,0 +1,81 @@
+package com.tcg.tcg_backend.Service;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+import org.testcontainers.containers.MinIOContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// MinIO en Docker como S3 local; sin Docker el test se omite
+@Testcontainers(disabledWithoutDocker = true)
+class S3StorageBackendTest {
+
+    private static final String HASHED = "cd34" + "0".repeat(60) + ".png";
+
+    @Container
+    static final MinIOContainer MINIO = new MinIOContainer("minio/minio:RELEASE.2024-08-17T01-24-54Z");
+
+    static S3StorageBackend storage;
+
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void setUp() {
+        S3Client s3 = S3Client.builder()
+                .endpointOverride(URI.create(MINIO.getS3URL()))
+                .region(Region.US_EAST_1)
+                .forcePathStyle(true)
+                .credentialsProvider(StaticCredentialsProvider.create(
+                        AwsBasicCredentials.create(MINIO.getUserName(), MINIO.getPassword())))
+                .build();
+        s3.createBucket(b -> b.bucket("uploads"));
+        storage = new S3StorageBackend(s3, "uploads", "tcg");
+    }
+
+    @Test
+    void storeStatOpenAndDelete() throws Exception {
+        Path tmp = Files.writeString(dir.resolve(".tmp.upload"), "imagen");
+
+        storage.store(tmp, HASHED);
+
+        assertFalse(Files.exists(tmp));
+        assertEquals("tcg/cd/34/" + HASHED, storage.objectKey(HASHED));
+        assertEquals(6, storage.stat(HASHED).orElseThrow().size());
+        try (InputStream in = storage.open(HASHED)) {
+            assertEquals("imagen", new String(in.readAllBytes()));
+        }
+        Resource resource = storage.resource(HASHED);
+        assertEquals(6, resource.contentLength());
+        assertEquals(HASHED, resource.getFilename());
+
+        assertTrue(storage.touch(HASHED));
+        storage.copy(HASHED, "legacy-copia.png");
+        try (Stream<StorageBackend.StoredFile> files = storage.list()) {
+            assertEquals(List.of(HASHED, "legacy-copia.png"),
+                    files.map(StorageBackend.StoredFile::key).sorted().toList());
+        }
+
+        assertEquals(6, storage.delete(HASHED));
+        assertEquals(0, storage.delete(HASHED));
+        assertThrows(NoSuchFileException.class, () -> storage.open(HASHED));
+        assertNull(storage.resource(HASHED));
+        storage.delete("legacy-copia.png");
+    }
+}
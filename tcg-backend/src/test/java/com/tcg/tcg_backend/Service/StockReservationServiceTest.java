@@ -0,0 +1,143 @@
+package com.tcg.tcg_backend.Service;
+
+import com.tcg.tcg_backend.Dto.ReservationResponse;
+import com.tcg.tcg_backend.Dto.StockLevel;
+import com.tcg.tcg_backend.Repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StockReservationServiceTest {
+
+    private static final long ID = 1L;
+    private static final int THREADS = 16;
+
+    private StockReservationService service;
+
+    @BeforeEach
+    void setUp() {
+        ProductRepository repo = mock(ProductRepository.class);
+        when(repo.findStockById(ID)).thenReturn(Optional.of(100));
+        service = new StockReservationService(repo, mock(JdbcTemplate.class),
+                mock(PlatformTransactionManager.class), 900);
+    }
+
+    @Test
+    void concurrentReservationsNeverOversell() throws Exception {
+        AtomicInteger granted = new AtomicInteger();
+        runConcurrently(() -> {
+            while (service.reserve(ID, 1) != null) {
+                granted.incrementAndGet();
+            }
+        });
+
+        assertEquals(100, granted.get());
+        assertEquals(new StockLevel(ID, 100, 100, 0), service.level(ID));
+    }
+
+    @Test
+    void concurrentCheckoutsNeverSellMoreThanOnHand() throws Exception {
+        AtomicInteger sold = new AtomicInteger();
+        runConcurrently(() -> {
+            ReservationResponse r;
+            int turn = 0;
+            while ((r = service.reserve(ID, 3)) != null) {
+                // Uno de cada tres carritos se abandona y devuelve sus unidades
+                if (turn++ % 3 == 0) {
+                    assertTrue(service.release(r.getReservaId()));
+                } else {
+                    assertTrue(service.commit(r.getReservaId()));
+                    sold.addAndGet(3);
+                }
+            }
+        });
+
+        StockLevel level = service.level(ID);
+        assertEquals(0, level.getReservado());
+        assertEquals(100 - sold.get(), level.getStock());
+        // Quedan menos de 3: nadie más pudo reservar
+        assertTrue(level.getStock() >= 0 && level.getStock() < 3, "stock final " + level.getStock());
+    }
+
+    @Test
+    void stockCannotBeSetBelowReserved() {
+        ReservationResponse r = service.reserve(ID, 30);
+
+        assertNull(service.setStock(ID, 29));
+        assertEquals(new StockLevel(ID, 100, 30, 70), service.level(ID));
+
+        assertEquals(new StockLevel(ID, 30, 30, 0), service.setStock(ID, 30));
+        assertNull(service.reserve(ID, 1));
+        assertTrue(service.commit(r.getReservaId()));
+        assertEquals(new StockLevel(ID, 0, 0, 0), service.level(ID));
+    }
+
+    @Test
+    void adminAdjustmentsRacingReservationsKeepReservedWithinStock() throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService admin = Executors.newSingleThreadExecutor();
+        Future<?> adjustments = admin.submit(() -> {
+            int i = 0;
+            while (running.get()) {
+                service.setStock(ID, i++ % 2 == 0 ? 10 : 100);
+                StockLevel level = service.level(ID);
+                assertTrue(level.getReservado() <= level.getStock(), level.toString());
+            }
+        });
+
+        runConcurrently(() -> {
+            for (int i = 0; i < 2_000; i++) {
+                ReservationResponse r = service.reserve(ID, 1);
+                if (r != null) {
+                    service.release(r.getReservaId());
+                }
+            }
+        });
+        running.set(false);
+        adjustments.get();
+        admin.shutdown();
+
+        StockLevel level = service.level(ID);
+        assertEquals(0, level.getReservado());
+        assertTrue(level.getStock() == 10 || level.getStock() == 100);
+    }
+
+    // ===== helpers =====
+
+    private static void runConcurrently(ThrowingRunnable task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                task.run();
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) {
+            f.get();
+        }
+        pool.shutdown();
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
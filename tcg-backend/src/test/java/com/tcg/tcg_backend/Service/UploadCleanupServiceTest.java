@@ -0,0 +1,189 @@
+package com.tcg.tcg_backend.Service;
+
+import com.tcg.tcg_backend.Dto.ReconcileReport;
+import com.tcg.tcg_backend.Repository.BannerRepository;
+import com.tcg.tcg_backend.Repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class UploadCleanupServiceTest {
+
+    // Firma PNG y algo de contenido: no hace falta que sea una imagen válida
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 1, 2, 3, 4, 5};
+
+    @TempDir
+    Path root;
+
+    private LocalStorageBackend storage;
+    private FileStorageService files;
+    private ProductRepository products;
+    private UploadCleanupService cleanup;
+
+    @BeforeEach
+    void setUp() {
+        storage = new LocalStorageBackend(root, false);
+        files = new FileStorageService(storage);
+        ReflectionTestUtils.setField(files, "uploadDir", root.toString());
+        products = mock(ProductRepository.class);
+        BannerRepository banners = mock(BannerRepository.class);
+        when(products.findImageUrls()).thenReturn(List.of());
+        when(banners.findImageUrls()).thenReturn(List.of());
+        cleanup = new UploadCleanupService(storage, products, banners, mock(HotImageCache.class), 60);
+    }
+
+    @Test
+    void sameContentIsStoredOnceWhateverTheClientName() throws Exception {
+        String first = upload("carta.JPEG");
+        String second = upload("otra-carta.png");
+        String third = upload("sin-extension");
+
+        assertEquals(first, second);
+        assertEquals(first, third);
+        // La extensión sale del contenido, no del nombre
+        assertTrue(first.endsWith(".png"), first);
+        assertTrue(FileStorageService.isContentAddressed(first));
+        assertEquals(List.of(FileStorageService.keyOf(first)), storedKeys());
+    }
+
+    @Test
+    void sharedFileSurvivesUntilItsLastReferenceIsGone() throws Exception {
+        String url = upload("carta.png");
+        age(url);
+
+        // Dos productos lo usan: borrar uno no lo toca
+        when(products.countImageReferences(url)).thenReturn(1L);
+        drain(url);
+        assertTrue(exists(url));
+        assertEquals(1, cleanup.stats().getEnUso());
+
+        when(products.countImageReferences(url)).thenReturn(0L);
+        drain(url);
+        assertFalse(exists(url));
+        assertEquals(1, cleanup.stats().getBorrados());
+        assertEquals(PNG.length, cleanup.stats().getBytesLiberados());
+    }
+
+    @Test
+    void recentUnreferencedFileIsLeftToReconciliation() throws Exception {
+        String url = upload("carta.png");
+
+        drain(url);
+
+        assertTrue(exists(url));
+        assertEquals(1, cleanup.stats().getEnUso());
+    }
+
+    @Test
+    void uploadBetweenCheckAndDeleteKeepsTheFile() throws Exception {
+        String url = upload("carta.png");
+        age(url);
+
+        // El mismo contenido se vuelve a subir justo después de contar referencias
+        AtomicInteger calls = new AtomicInteger();
+        when(products.countImageReferences(url)).thenAnswer(inv -> {
+            if (calls.getAndIncrement() == 0) {
+                upload("otra.png");
+            }
+            return 0L;
+        });
+        drain(url);
+
+        assertTrue(exists(url));
+        assertEquals(0, cleanup.stats().getBorrados());
+    }
+
+    @Test
+    void referenceSavedBetweenCheckAndDeleteKeepsTheFile() throws Exception {
+        String url = upload("carta.png");
+        age(url);
+
+        // Sin referencias al revisar la cola, con una al momento de borrar
+        when(products.countImageReferences(url)).thenReturn(0L, 1L);
+        drain(url);
+
+        assertTrue(exists(url));
+        assertEquals(List.of(FileStorageService.keyOf(url)), storedKeys());
+    }
+
+    @Test
+    void uploadAfterFileWasSetAsideStoresItAgain() throws Exception {
+        String url = upload("carta.png");
+        age(url);
+
+        // El upload llega con el archivo ya apartado: store no lo encuentra y lo guarda de nuevo
+        AtomicInteger calls = new AtomicInteger();
+        when(products.countImageReferences(url)).thenAnswer(inv -> {
+            if (calls.getAndIncrement() == 1) {
+                assertEquals(url, upload("otra.png"));
+            }
+            return 0L;
+        });
+        drain(url);
+
+        assertTrue(exists(url));
+        assertTrue(storage.stat(FileStorageService.keyOf(url)).orElseThrow().lastModified()
+                > Instant.now().minus(Duration.ofMinutes(1)).toEpochMilli());
+    }
+
+    @Test
+    void reconciliationDeletesOnlyOldOrphans() throws Exception {
+        String old = upload("carta.png");
+        age(old);
+        String recent = FileStorageService.URL_PREFIX + "ab12" + "0".repeat(60) + ".jpg";
+        storage.write(FileStorageService.keyOf(recent), new byte[]{1});
+        when(products.countImageReferences(anyString())).thenReturn(0L);
+
+        ReconcileReport report = cleanup.reconcile();
+
+        assertEquals(2, report.getRevisados());
+        assertEquals(1, report.getHuerfanosBorrados());
+        assertEquals(1, report.getRecientes());
+        assertFalse(exists(old));
+        assertTrue(exists(recent));
+    }
+
+    // ===== helpers =====
+
+    private String upload(String originalFilename) throws Exception {
+        return files.saveProductImage(new MockMultipartFile("file", originalFilename, null, PNG));
+    }
+
+    // Lo deja fuera del período de gracia
+    private void age(String url) throws Exception {
+        Files.setLastModifiedTime(storage.locate(FileStorageService.keyOf(url)),
+                FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+    }
+
+    // Encola y espera a que el hilo de borrado vacíe la cola
+    private void drain(String url) throws Exception {
+        cleanup.schedule(url);
+        cleanup.startWorker();
+        cleanup.stopWorker();
+    }
+
+    private boolean exists(String url) throws Exception {
+        return storage.stat(FileStorageService.keyOf(url)).isPresent();
+    }
+
+    private List<String> storedKeys() throws Exception {
+        try (Stream<StorageBackend.StoredFile> stored = storage.list()) {
+            return stored.map(StorageBackend.StoredFile::key).toList();
+        }
+    }
+}
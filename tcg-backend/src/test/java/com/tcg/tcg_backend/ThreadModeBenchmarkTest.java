@@ -0,0 +1,200 @@
+package com.tcg.tcg_backend;
+
+import com.tcg.tcg_backend.Dto.ThreadingStats;
+import com.tcg.tcg_backend.Model.Order;
+import com.tcg.tcg_backend.Model.OrderItem;
+import com.tcg.tcg_backend.Repository.OrderRepository;
+import com.tcg.tcg_backend.config.VirtualThreadMonitor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Throughput de la API con hilos de plataforma vs. hilos virtuales
+ * (spring.threads.virtual.enabled), por HTTP contra la aplicación entera:
+ * Tomcat, filtros, controlador, JPA y Hikari con el pool que
+ * DataSourcePoolConfig arma para cada modo. Cada request es un
+ * GET /api/pedidos/{id}, que va a la BD (los pedidos no pasan por cachés).
+ * Solo corre a pedido:
+ *
+ *   mvn test -Dtest=ThreadModeBenchmarkTest -Dbenchmark=true
+ *
+ * Por defecto la BD es H2 en memoria: sin red cada consulta tarda
+ * microsegundos, así que mide sobre todo el costo de los hilos. Con la
+ * latencia de una BD de verdad (base vacía, el test crea y borra las tablas):
+ *
+ *   -Dbenchmark.jdbc-url=jdbc:mysql://localhost:3306/tcg_bench
+ *   -Dbenchmark.username=root -Dbenchmark.password=
+ *
+ * Referencia: H2, 1 núcleo compartido con los clientes, 10 s por medición
+ * (pool de 10 conexiones en plataforma, 3 en virtual; sin pinning registrado):
+ *
+ *   clientes  plataforma req/s  p99 ms | virtual req/s  p99 ms
+ *         50               187     606 |           302     644
+ *        400               264    3271 |           464    2116
+ *       2000               359    7638 |           508    7853
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ThreadModeBenchmarkTest {
+
+    private static final int ORDERS = 2_000;
+    private static final int[] CLIENTS = {50, 400, 2_000};
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration MEASURE = Duration.ofSeconds(10);
+
+    private record Result(int clients, long requests, long errors, double perSecond, double p50Ms, double p99Ms) {
+    }
+
+    @Test
+    void platformVsVirtualThreads() throws Exception {
+        List<Result> platform = run(false);
+        List<Result> virtual = run(true);
+
+        System.out.println("clientes  plataforma req/s  p99 ms | virtual req/s  p99 ms");
+        for (int i = 0; i < CLIENTS.length; i++) {
+            Result p = platform.get(i);
+            Result v = virtual.get(i);
+            System.out.printf("%8d  %16.0f  %6.1f | %13.0f  %6.1f%n",
+                    p.clients(), p.perSecond(), p.p99Ms(), v.perSecond(), v.p99Ms());
+        }
+        for (Result r : platform) {
+            assertEquals(0, r.errors(), "plataforma: " + r);
+        }
+        for (Result r : virtual) {
+            assertEquals(0, r.errors(), "virtual: " + r);
+        }
+    }
+
+    private List<Result> run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "plataforma";
+        try (ConfigurableApplicationContext app = start(virtualThreads)) {
+            List<String> ids = seed(app.getBean(OrderRepository.class));
+            URI base = URI.create("http://localhost:" + app.getEnvironment().getProperty("local.server.port"));
+
+            try (HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+                load(http, base, ids, CLIENTS[0], WARMUP);
+                List<Result> results = new ArrayList<>();
+                for (int clients : CLIENTS) {
+                    Result result = load(http, base, ids, clients, MEASURE);
+                    System.out.printf("%s: %s%n", mode, result);
+                    results.add(result);
+                }
+                ThreadingStats stats = app.getBean(VirtualThreadMonitor.class).stats();
+                System.out.printf("%s: pool=%d pinned=%d (%d ms) %s%n", mode, stats.getPoolMaximo(),
+                        stats.getPinnedEventos(), stats.getPinnedMsTotal(), stats.getPinnedSitios());
+                return results;
+            }
+        }
+    }
+
+    // ===== carga =====
+
+    // Cada cliente manda un request, espera la respuesta y manda el siguiente
+    private static Result load(HttpClient http, URI base, List<String> ids, int clients, Duration duration)
+            throws InterruptedException {
+        ConcurrentLinkedQueue<long[]> latencies = new ConcurrentLinkedQueue<>();
+        LongAdder errors = new LongAdder();
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                pool.submit(() -> {
+                    long[] mine = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        String id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+                        HttpRequest request = HttpRequest.newBuilder(base.resolve("/api/pedidos/" + id)).build();
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.increment();
+                            }
+                        } catch (Exception e) {
+                            errors.increment();
+                        }
+                        if (count == mine.length) {
+                            mine = Arrays.copyOf(mine, count * 2);
+                        }
+                        mine[count++] = System.nanoTime() - sent;
+                    }
+                    latencies.add(Arrays.copyOf(mine, count));
+                });
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(clients, all.length, errors.sum(), all.length / seconds,
+                percentile(all, 0.50), percentile(all, 0.99));
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))] / 1e6;
+    }
+
+    // ===== aplicación =====
+
+    private static ConfigurableApplicationContext start(boolean virtualThreads) throws Exception {
+        String jdbcUrl = System.getProperty("benchmark.jdbc-url", "");
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--file.upload-dir=" + Files.createTempDirectory("tcg-bench"),
+                "--storage.local.migrate-flat=false"
+        ));
+        if (jdbcUrl.isBlank()) {
+            args.add("--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+            args.add("--spring.datasource.username=sa");
+            args.add("--spring.datasource.password=");
+            args.add("--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect");
+        } else {
+            args.add("--spring.datasource.url=" + jdbcUrl);
+            args.add("--spring.datasource.username=" + System.getProperty("benchmark.username", "root"));
+            args.add("--spring.datasource.password=" + System.getProperty("benchmark.password", ""));
+        }
+        return new SpringApplicationBuilder(TcgBackendApplication.class).run(args.toArray(String[]::new));
+    }
+
+    private static List<String> seed(OrderRepository repo) {
+        List<Order> orders = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = new Order();
+            order.setId(UUID.randomUUID().toString());
+            order.setIdempotencyKey("bench-" + i);
+            order.setPayloadHash("0".repeat(64));
+            order.setTotal(3000);
+            order.setCreadoEn(Instant.now());
+            order.setItems(new ArrayList<>(List.of(new OrderItem(1L, "Sobre", 1000, 2), new OrderItem(2L, "Mazo", 1000, 1))));
+            orders.add(order);
+        }
+        return repo.saveAll(orders).stream().map(Order::getId).toList();
+    }
+}
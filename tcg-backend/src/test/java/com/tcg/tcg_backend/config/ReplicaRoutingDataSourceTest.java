@@ -0,0 +1,234 @@
+package com.tcg.tcg_backend.config;
+
+import jakarta.servlet.http.Cookie;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Dos H2 en memoria hacen de primario y réplica; cada una tiene una fila que
+ * dice cuál es, así se ve a dónde fue cada consulta.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private final AtomicLong lag = new AtomicLong();
+    private final AtomicLong catalogChangedAt = new AtomicLong();
+
+    private ReadYourWritesFilter readYourWrites;
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primario");
+        DataSource replica = database("replica");
+
+        readYourWrites = new ReadYourWritesFilter(Duration.ofSeconds(5));
+        ReplicaLagProbe probe = connection -> {
+            if (lag.get() == Long.MAX_VALUE) {
+                throw new SQLException("réplica caída");
+            }
+            return lag.get();
+        };
+        routing = new ReplicaRoutingDataSource(primary, Map.of("replica-1", replica), probe,
+                readYourWrites, catalogChangedAt::get, 5000, 1000);
+        routing.afterPropertiesSet();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        DataSourceTransactionManager tm = new DataSourceTransactionManager(dataSource);
+        jdbc = new JdbcTemplate(dataSource);
+        readOnly = new TransactionTemplate(tm);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(tm);
+    }
+
+    @Test
+    void readOnlyGoesToReplicaAndWritesToPrimary() throws InterruptedException {
+        checkAfterTick();
+
+        assertEquals("replica", readOnly.execute(s -> origin()));
+        assertEquals("primario", readWrite.execute(s -> origin()));
+        // Fuera de una transacción no se sabe si va a escribir
+        assertEquals("primario", origin());
+    }
+
+    @Test
+    void laggingOrDownReplicaFallsBackToPrimary() throws InterruptedException {
+        lag.set(10_000);
+        checkAfterTick();
+        assertEquals("primario", readOnly.execute(s -> origin()));
+
+        lag.set(0);
+        checkAfterTick();
+        assertEquals("replica", readOnly.execute(s -> origin()));
+
+        lag.set(Long.MAX_VALUE);
+        checkAfterTick();
+        assertEquals("primario", readOnly.execute(s -> origin()));
+        assertEquals(2, routing.stats().getLecturasPrimario());
+    }
+
+    @Test
+    void readsAfterOwnWriteStayOnPrimaryUntilReplicaCatchesUp() throws InterruptedException {
+        checkAfterTick();
+        readWrite.executeWithoutResult(s -> jdbc.update("UPDATE origen SET escrito = TRUE"));
+
+        // La réplica se midió antes del commit: todavía no tiene la escritura
+        assertEquals("primario", readOnly.execute(s -> origin()));
+
+        checkAfterTick();
+        assertEquals("replica", readOnly.execute(s -> origin()));
+        assertEquals(1, routing.stats().getEscrituras());
+    }
+
+    @Test
+    void catalogChangeKeepsEveryReaderOnPrimaryUntilReplicaCatchesUp() throws InterruptedException {
+        checkAfterTick();
+        Thread.sleep(2);
+        catalogChangedAt.set(System.currentTimeMillis());
+        assertEquals("primario", readOnly.execute(s -> origin()));
+
+        checkAfterTick();
+        assertEquals("replica", readOnly.execute(s -> origin()));
+    }
+
+    @Test
+    void otherClientsWriteDoesNotMoveReadersOffReplica() throws Exception {
+        checkAfterTick();
+        Thread writer = Thread.ofPlatform().start(() ->
+                readWrite.executeWithoutResult(s -> jdbc.update("UPDATE origen SET escrito = TRUE")));
+        writer.join();
+
+        assertEquals(1, routing.stats().getEscrituras());
+        assertEquals("replica", readOnly.execute(s -> origin()));
+    }
+
+    @Test
+    void transactionWithoutDmlIsNotAWrite() throws InterruptedException {
+        checkAfterTick();
+
+        // Sin readOnly pero solo lee (y un SELECT ... FOR UPDATE tampoco cambia nada)
+        readWrite.executeWithoutResult(s -> jdbc.queryForObject("SELECT nombre FROM origen FOR UPDATE", String.class));
+        // Escribe pero vuelve atrás
+        readWrite.executeWithoutResult(s -> {
+            jdbc.update("UPDATE origen SET escrito = TRUE");
+            s.setRollbackOnly();
+        });
+
+        assertEquals(0, routing.stats().getEscrituras());
+        assertEquals(0, readYourWrites.required());
+        assertEquals("replica", readOnly.execute(s -> origin()));
+    }
+
+    @Test
+    void writeOutsideTransactionCountsOnceCommitted() throws InterruptedException {
+        checkAfterTick();
+
+        jdbc.update("UPDATE origen SET escrito = TRUE");
+
+        assertEquals(1, routing.stats().getEscrituras());
+        assertEquals("primario", readOnly.execute(s -> origin()));
+    }
+
+    @Test
+    void fromPrimaryKeepsReadOnlyReadsOnPrimary() throws InterruptedException {
+        checkAfterTick();
+
+        assertEquals("primario", ReplicaRoutingDataSource.fromPrimary(() -> readOnly.execute(s -> origin())));
+        // Anidado: al salir del interno sigue en el primario
+        assertEquals("primario", ReplicaRoutingDataSource.fromPrimary(() -> {
+            ReplicaRoutingDataSource.fromPrimary(() -> readOnly.execute(s -> origin()));
+            return readOnly.execute(s -> origin());
+        }));
+        assertEquals("replica", readOnly.execute(s -> origin()));
+        assertEquals(3, routing.stats().getLecturasPrimario());
+        assertEquals(0, routing.stats().getEscrituras());
+    }
+
+    @Test
+    void cookieCarriesTheWriteToTheNextRequest() throws Exception {
+        checkAfterTick();
+
+        // Request con escritura: deja la cookie
+        MockHttpServletRequest post = new MockHttpServletRequest("POST", "/api/productos");
+        MockHttpServletResponse postResponse = new MockHttpServletResponse();
+        readYourWrites.doFilter(post, postResponse, (req, res) -> withRequest(post, postResponse, () ->
+                readWrite.executeWithoutResult(s -> jdbc.update("UPDATE origen SET escrito = TRUE")))
+        );
+        String setCookie = postResponse.getHeader(HttpHeaders.SET_COOKIE);
+        assertTrue(setCookie != null && setCookie.startsWith(ReadYourWritesFilter.COOKIE + "="), setCookie);
+        String written = setCookie.substring(setCookie.indexOf('=') + 1, setCookie.indexOf(';'));
+
+        // Siguiente request (otro hilo): solo la cookie trae la escritura
+        AtomicReference<String> withCookie = new AtomicReference<>();
+        AtomicReference<String> withoutCookie = new AtomicReference<>();
+        Thread other = Thread.ofPlatform().start(() -> {
+            try {
+                MockHttpServletRequest get = new MockHttpServletRequest("GET", "/api/productos");
+                get.setCookies(new Cookie(ReadYourWritesFilter.COOKIE, written));
+                readYourWrites.doFilter(get, new MockHttpServletResponse(),
+                        (req, res) -> withCookie.set(readOnly.execute(s -> origin())));
+                readYourWrites.doFilter(new MockHttpServletRequest("GET", "/api/productos"),
+                        new MockHttpServletResponse(), (req, res) -> withoutCookie.set(readOnly.execute(s -> origin())));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        other.join();
+
+        assertEquals("primario", withCookie.get());
+        assertEquals("replica", withoutCookie.get());
+    }
+
+    // ===== helpers =====
+
+    private String origin() {
+        return jdbc.queryForObject("SELECT nombre FROM origen", String.class);
+    }
+
+    // Asegura que la medición quede en un milisegundo posterior a lo anterior
+    private void checkAfterTick() throws InterruptedException {
+        Thread.sleep(2);
+        routing.checkReplicas();
+    }
+
+    private static void withRequest(MockHttpServletRequest request, MockHttpServletResponse response, Runnable action) {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        try {
+            action.run();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource ds = new JdbcDataSource();
+        ds.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(ds);
+        jdbc.execute("CREATE TABLE origen (nombre VARCHAR(20), escrito BOOLEAN DEFAULT FALSE)");
+        jdbc.update("INSERT INTO origen (nombre) VALUES (?)", name);
+        return ds;
+    }
+}
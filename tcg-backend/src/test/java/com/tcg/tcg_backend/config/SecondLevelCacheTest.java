@@ -0,0 +1,127 @@
+package com.tcg.tcg_backend.config;
+
+import com.tcg.tcg_backend.Dto.SecondLevelCacheStats;
+import com.tcg.tcg_backend.Model.Banner;
+import com.tcg.tcg_backend.Model.Product;
+import com.tcg.tcg_backend.Repository.BannerRepository;
+import com.tcg.tcg_backend.Repository.ProductRepository;
+import com.tcg.tcg_backend.Service.CatalogVersion;
+import com.tcg.tcg_backend.Service.ProductChangeLog;
+import com.tcg.tcg_backend.Service.ProductFacetIndex;
+import com.tcg.tcg_backend.Service.ProductImportService;
+import com.tcg.tcg_backend.Service.ProductSearchIndex;
+import com.tcg.tcg_backend.Service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Caché de segundo nivel contra H2, medida con los contadores de
+ * SecondLevelCacheMonitor: qué sale de la caché y qué la invalida.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({SecondLevelCacheConfig.class, SecondLevelCacheMonitor.class, ProductService.class,
+        ProductImportService.class, CatalogVersion.class, ProductSearchIndex.class, ProductFacetIndex.class,
+        ProductChangeLog.class})
+// Cada llamada al repositorio en su propia sesión: si no, responde la caché de primer nivel
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+    @Autowired
+    private ProductRepository products;
+
+    @Autowired
+    private BannerRepository banners;
+
+    @Autowired
+    private ProductImportService importService;
+
+    @Autowired
+    private SecondLevelCacheMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        products.deleteAll();
+        banners.deleteAll();
+    }
+
+    @Test
+    void catalogReloadEvictsProductsWrittenByJdbcImport() throws Exception {
+        Product saved = products.save(product("Sobre"));
+        Long id = saved.getId();
+        products.findById(id);
+
+        SecondLevelCacheStats.Region before = region(SecondLevelCacheConfig.PRODUCTS);
+        assertEquals("Sobre", products.findById(id).orElseThrow().getNombre());
+        assertEquals(before.getAciertos() + 1, region(SecondLevelCacheConfig.PRODUCTS).getAciertos());
+
+        // La importación escribe por JDBC y termina en ProductService.catalogReloaded()
+        String csv = "id,nombre,descripcion,precio,imagen,hover,oferta\n" + id + ",Caja,d,100,/x.png,,\n";
+        importService.importar(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                ProductImportService.Format.CSV);
+
+        SecondLevelCacheStats.Region afterImport = region(SecondLevelCacheConfig.PRODUCTS);
+        assertEquals("Caja", products.findById(id).orElseThrow().getNombre());
+        SecondLevelCacheStats.Region reloaded = region(SecondLevelCacheConfig.PRODUCTS);
+        assertEquals(afterImport.getAciertos(), reloaded.getAciertos());
+        assertEquals(afterImport.getFallos() + 1, reloaded.getFallos());
+    }
+
+    @Test
+    void bulkUpdateInvalidatesBannerQueryCache() {
+        Banner banner = new Banner();
+        banner.setUrl("/uploads/viejo.png");
+        banners.save(banner);
+        banners.findAll();
+
+        SecondLevelCacheStats.Region before = region("default-query-results-region");
+        banners.findAll();
+        SecondLevelCacheStats.Region cached = region("default-query-results-region");
+        assertEquals(before.getAciertos() + 1, cached.getAciertos());
+
+        // UPDATE JPQL: Hibernate marca la tabla y descarta los resultados guardados
+        assertEquals(1, banners.replaceUrl("/uploads/viejo.png", "/uploads/nuevo.png"));
+
+        assertEquals("/uploads/nuevo.png", banners.findAll().get(0).getUrl());
+        SecondLevelCacheStats.Region after = region("default-query-results-region");
+        assertEquals(cached.getAciertos(), after.getAciertos());
+        assertEquals(cached.getFallos() + 1, after.getFallos());
+    }
+
+    // ===== helpers =====
+
+    private SecondLevelCacheStats.Region region(String name) {
+        SecondLevelCacheStats stats = monitor.stats();
+        assertTrue(stats.isEstadisticas());
+        return stats.getRegiones().stream()
+                .filter(r -> r.getNombre().equals(name))
+                .findFirst()
+                .orElseGet(() -> new SecondLevelCacheStats.Region(name, 0, 0, 0));
+    }
+
+    private static Product product(String nombre) {
+        Product p = new Product();
+        p.setNombre(nombre);
+        p.setDescripcion("d");
+        p.setPrecio(100);
+        p.setImagen("/x.png");
+        return p;
+    }
+}
@@ -0,0 +1,107 @@
+package com.tcg.tcg_usuarios.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * "Leer lo propio" con réplicas: desde qué momento las lecturas del request
+ * actual tienen que ver las escrituras.
+ *
+ * Cuando confirma una transacción de escritura se anota la hora en el hilo
+ * (el resto del request ya lee del primario o de una réplica al día) y en la
+ * cookie tcg-rw, que el cliente devuelve en los requests siguientes aunque
+ * caigan en otra instancia. La cookie dura lo que el retraso máximo tolerado:
+ * pasado eso cualquier réplica sana ya tiene la escritura.
+ *
+ * La marca es por cliente: una escritura de otro cliente no saca a este de
+ * las réplicas. Lo que tiene que verse siempre al día (un usuario recién
+ * registrado al autenticarse) se lee del primario con
+ * ReplicaRoutingDataSource.fromPrimary.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE = "tcg-rw";
+
+    private final ThreadLocal<Long> required = new ThreadLocal<>();
+    private final Duration cookieMaxAge;
+
+    public ReadYourWritesFilter(Duration cookieMaxAge) {
+        this.cookieMaxAge = cookieMaxAge;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long fromCookie = fromCookie(request);
+        if (fromCookie > 0) {
+            require(fromCookie);
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            required.remove();
+        }
+    }
+
+    /**
+     * Hora (epoch ms) de la escritura más nueva que este hilo tiene que ver; 0 si ninguna.
+     */
+    public long required() {
+        Long value = required.get();
+        return value == null ? 0 : value;
+    }
+
+    /**
+     * Se llama después del commit de una transacción que escribió.
+     */
+    public void written(long commitMillis) {
+        require(commitMillis);
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attrs) {
+            HttpServletResponse response = attrs.getResponse();
+            if (response != null && !response.isCommitted()) {
+                ResponseCookie cookie = ResponseCookie.from(COOKIE, Long.toString(commitMillis))
+                        .path("/")
+                        .maxAge(cookieMaxAge)
+                        .httpOnly(true)
+                        .sameSite("Lax")
+                        .build();
+                response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+            }
+        }
+    }
+
+    private void require(long millis) {
+        if (millis > required()) {
+            required.set(millis);
+        }
+    }
+
+    private static long fromCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    // Una hora futura (reloj del cliente manipulado) no puede dejar todo en el primario
+                    return Math.min(Long.parseLong(cookie.getValue()), System.currentTimeMillis());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
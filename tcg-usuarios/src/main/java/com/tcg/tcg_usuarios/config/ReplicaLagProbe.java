@@ -0,0 +1,55 @@
+package com.tcg.tcg_usuarios.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Mide cuánto va atrasada una réplica respecto del primario.
+ */
+@FunctionalInterface
+public interface ReplicaLagProbe {
+
+    /**
+     * Retraso en ms; negativo si la conexión no está replicando (hilo SQL
+     * detenido o no es una réplica).
+     */
+    long lagMillis(Connection connection) throws SQLException;
+
+    /**
+     * MySQL 8.0.22+ (SHOW REPLICA STATUS) con vuelta a SHOW SLAVE STATUS para
+     * MariaDB y MySQL anteriores. Seconds_Behind_* viene truncado a segundos:
+     * se suma uno para no subestimar el retraso.
+     */
+    static ReplicaLagProbe mysql() {
+        return connection -> {
+            try (Statement st = connection.createStatement();
+                 ResultSet rs = replicaStatus(st)) {
+                if (!rs.next()) {
+                    return -1;
+                }
+                long seconds = rs.getLong(lagColumn(rs.getMetaData()));
+                return rs.wasNull() ? -1 : (seconds + 1) * 1000;
+            }
+        };
+    }
+
+    private static ResultSet replicaStatus(Statement st) throws SQLException {
+        try {
+            return st.executeQuery("SHOW REPLICA STATUS");
+        } catch (SQLException e) {
+            return st.executeQuery("SHOW SLAVE STATUS");
+        }
+    }
+
+    private static String lagColumn(ResultSetMetaData meta) throws SQLException {
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+            if ("Seconds_Behind_Source".equalsIgnoreCase(meta.getColumnLabel(i))) {
+                return "Seconds_Behind_Source";
+            }
+        }
+        return "Seconds_Behind_Master";
+    }
+}
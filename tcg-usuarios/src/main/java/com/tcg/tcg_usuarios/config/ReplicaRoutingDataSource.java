@@ -0,0 +1,359 @@
+package com.tcg.tcg_usuarios.config;
+
+import com.tcg.tcg_usuarios.dto.ReplicaStats;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Reparte las transacciones entre el primario y las réplicas de lectura.
+ *
+ * - Escrituras y todo lo que no corre en una transacción readOnly: primario.
+ * - Lecturas dentro de fromPrimary: primario (las que no pueden ver datos
+ *   atrasados, sin abrir una transacción de escritura para eso).
+ * - readOnly: round robin entre las réplicas sanas que ya aplicaron lo que
+ *   esta lectura tiene que ver; si ninguna sirve, primario.
+ *
+ * "Lo que tiene que ver" es la última escritura del cliente
+ * (ReadYourWritesFilter, por la cookie). Solo cuenta como escritura el commit
+ * de una conexión del primario que ejecutó DML; una transacción sin readOnly
+ * que solo leyó no mueve la marca. Un hilo revisa cada réplica con
+ * ReplicaLagProbe: con retraso L medido en t, la réplica tiene todo lo
+ * confirmado antes de t - L. Con retraso mayor que max-lag, sin replicar o sin
+ * conexión la réplica queda fuera hasta la próxima revisión que salga bien.
+ *
+ * Va detrás de un LazyConnectionDataSourceProxy: la conexión real se pide con
+ * la primera sentencia, cuando la transacción ya está marcada readOnly.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primario";
+
+    private static final ThreadLocal<Boolean> PRIMARY_READS = new ThreadLocal<>();
+
+    private static final class Replica {
+        final String name;
+        final DataSource dataSource;
+        final LongAdder reads = new LongAdder();
+        volatile boolean healthy;
+        volatile long lagMillis = -1;
+        volatile long appliedUpTo;
+        volatile long checkedAt;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final ReplicaLagProbe probe;
+    private final ReadYourWritesFilter readYourWrites;
+    private final long maxLagMillis;
+    private final long checkIntervalMillis;
+
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder primaryReads = new LongAdder();
+
+    private volatile boolean running = true;
+    private Thread checker;
+
+    public ReplicaRoutingDataSource(
+            DataSource primary,
+            Map<String, DataSource> replicaDataSources,
+            ReplicaLagProbe probe,
+            ReadYourWritesFilter readYourWrites,
+            long maxLagMillis,
+            long checkIntervalMillis
+    ) {
+        this.primary = primary;
+        this.probe = probe;
+        this.readYourWrites = readYourWrites;
+        this.maxLagMillis = maxLagMillis;
+        this.checkIntervalMillis = checkIntervalMillis;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicaDataSources.forEach((name, dataSource) -> {
+            targets.put(name, dataSource);
+            replicas.add(new Replica(name, dataSource));
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    /**
+     * Corre una lectura contra el primario aunque sea readOnly: para lo que no
+     * puede salir de una réplica atrasada (un usuario recién registrado, un
+     * correo que se valida como único). La transacción tiene que abrirse adentro; una que ya tomó
+     * conexión sigue con la suya. Sin réplicas configuradas no cambia nada.
+     */
+    public static <T> T fromPrimary(Supplier<T> read) {
+        Boolean previous = PRIMARY_READS.get();
+        PRIMARY_READS.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_READS.remove();
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        if (PRIMARY_READS.get() != null) {
+            primaryReads.increment();
+            return PRIMARY;
+        }
+
+        long required = readYourWrites.required();
+        long now = System.currentTimeMillis();
+        int n = replicas.size();
+        int start = n == 0 ? 0 : Math.floorMod(next.getAndIncrement(), n);
+        for (int i = 0; i < n; i++) {
+            Replica replica = replicas.get((start + i) % n);
+            if (usable(replica, required, now)) {
+                replica.reads.increment();
+                return replica.name;
+            }
+        }
+        primaryReads.increment();
+        return PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSource target = determineTargetDataSource();
+        return tracked(target, target.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        DataSource target = determineTargetDataSource();
+        return tracked(target, target.getConnection(username, password));
+    }
+
+    private Connection tracked(DataSource target, Connection connection) {
+        if (target != primary) {
+            return connection;
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new WriteTracker(connection));
+    }
+
+    private void written() {
+        writes.increment();
+        readYourWrites.written(System.currentTimeMillis());
+    }
+
+    private boolean usable(Replica replica, long required, long now) {
+        // Si el hilo de revisión se trabó la última medición ya no vale
+        return replica.healthy
+                && now - replica.checkedAt <= 3 * checkIntervalMillis
+                && replica.appliedUpTo > required;
+    }
+
+    // ===== detección de escrituras =====
+
+    /**
+     * Envuelve una conexión del primario y sus sentencias: una sentencia que
+     * devuelve cantidad de filas en vez de un ResultSet (UPDATE, INSERT,
+     * DELETE, DDL) marca la conexión, y la escritura se anota recién cuando
+     * confirma: en commit, o al cerrar si estaba en autocommit. Un rollback
+     * borra la marca.
+     */
+    private final class WriteTracker implements InvocationHandler {
+
+        private final Connection target;
+        private boolean wrote;
+
+        WriteTracker(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "commit" -> {
+                    target.commit();
+                    if (wrote) {
+                        wrote = false;
+                        written();
+                    }
+                    return null;
+                }
+                case "rollback" -> {
+                    // rollback(savepoint) deja lo anterior al savepoint
+                    if (args == null) {
+                        wrote = false;
+                    }
+                }
+                case "close" -> {
+                    if (wrote && !target.isClosed() && target.getAutoCommit()) {
+                        wrote = false;
+                        written();
+                    }
+                }
+                default -> {
+                }
+            }
+            Object result = call(target, method, args);
+            if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                        new Class<?>[]{method.getReturnType()}, (p, m, a) -> {
+                            if (m.getName().equals("getConnection")) {
+                                return proxy;
+                            }
+                            Object value = call(statement, m, a);
+                            if (isWrite(m.getName(), value)) {
+                                wrote = true;
+                            }
+                            return value;
+                        });
+            }
+            return result;
+        }
+
+        private static boolean isWrite(String method, Object result) {
+            return switch (method) {
+                case "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch" -> true;
+                // false: el resultado es una cantidad de filas, no un ResultSet
+                case "execute" -> Boolean.FALSE.equals(result);
+                default -> false;
+            };
+        }
+
+        private static Object call(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+
+    // ===== revisión de retraso =====
+
+    @PostConstruct
+    void startChecker() {
+        checker = Thread.ofPlatform().name("replica-lag-check").daemon().start(this::checkLoop);
+    }
+
+    @PreDestroy
+    void stopChecker() throws InterruptedException {
+        running = false;
+        checker.interrupt();
+        checker.join(TimeUnit.SECONDS.toMillis(5));
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("No se pudo cerrar el pool de {}", replica.name, e);
+                }
+            }
+        }
+    }
+
+    private void checkLoop() {
+        while (running) {
+            checkReplicas();
+            try {
+                Thread.sleep(checkIntervalMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            check(replica);
+        }
+    }
+
+    private void check(Replica replica) {
+        long start = System.currentTimeMillis();
+        long lag;
+        try (Connection connection = replica.dataSource.getConnection()) {
+            lag = probe.lagMillis(connection);
+        } catch (SQLException | RuntimeException e) {
+            if (replica.healthy) {
+                log.warn("Réplica {} sin conexión: lecturas al primario", replica.name, e);
+            }
+            replica.lagMillis = -1;
+            replica.healthy = false;
+            return;
+        }
+
+        replica.lagMillis = lag;
+        replica.checkedAt = start;
+        if (lag >= 0) {
+            replica.appliedUpTo = Math.max(replica.appliedUpTo, start - lag);
+        }
+        boolean healthy = lag >= 0 && lag <= maxLagMillis;
+        if (healthy && !replica.healthy) {
+            log.info("Réplica {} disponible (retraso {} ms)", replica.name, lag);
+        } else if (!healthy && replica.healthy) {
+            if (lag >= 0) {
+                log.warn("Réplica {} atrasada {} ms (máximo {}): lecturas al primario",
+                        replica.name, lag, maxLagMillis);
+            } else {
+                log.warn("Réplica {} no está replicando: lecturas al primario", replica.name);
+            }
+        }
+        replica.healthy = healthy;
+    }
+
+    public ReplicaStats stats() {
+        List<ReplicaStats.Replica> list = new ArrayList<>();
+        for (Replica replica : replicas) {
+            list.add(ReplicaStats.Replica.builder()
+                    .nombre(replica.name)
+                    .sana(replica.healthy)
+                    .lagMs(replica.lagMillis)
+                    .aplicadoHasta(replica.appliedUpTo)
+                    .lecturas(replica.reads.sum())
+                    .build());
+        }
+        return ReplicaStats.builder()
+                .escrituras(writes.sum())
+                .lecturasPrimario(primaryReads.sum())
+                .maxLagMs(maxLagMillis)
+                .replicas(list)
+                .build();
+    }
+}
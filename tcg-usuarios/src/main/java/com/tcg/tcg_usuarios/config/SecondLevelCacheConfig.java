@@ -0,0 +1,81 @@
+package com.tcg.tcg_usuarios.config;
+
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.expiry.ExpiryPolicy;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Caché de segundo nivel de Hibernate (Ehcache en memoria vía JCache).
+ *
+ * Cada request autenticado carga su User por correo (JwtAuthenticationFilter):
+ * con la región de natural id el correo se resuelve al id sin SQL y el User
+ * sale de la región de entidades. Cada región tiene su tope y su TTL
+ * (cache.l2.*) y Hibernate no arranca si falta alguna.
+ *
+ * La caché es de cada instancia: un cambio de rol o una baja hecha en otra
+ * instancia se ve acá recién cuando vence la entrada, por eso el TTL de
+ * usuarios es corto.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.jpa.properties.hibernate.cache.use_second_level_cache", havingValue = "true")
+public class SecondLevelCacheConfig {
+
+    public static final String USERS = "usuarios";
+    public static final String USERS_BY_EMAIL = "usuarios-correo";
+
+    private static final String QUERY_RESULTS = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${cache.l2.usuarios.max-entries:10000}") long userEntries,
+            @Value("${cache.l2.usuarios.ttl-seconds:60}") long userTtl,
+            @Value("${cache.l2.consultas.max-entries:100}") long queryEntries,
+            @Value("${cache.l2.consultas.ttl-seconds:60}") long queryTtl
+    ) {
+        ConfigurationBuilder config = ConfigurationBuilder.newConfigurationBuilder()
+                .withCache(USERS, region(userEntries, ttl(userTtl)))
+                .withCache(USERS_BY_EMAIL, region(userEntries, ttl(userTtl)))
+                .withCache(QUERY_RESULTS, region(queryEntries, ttl(queryTtl)))
+                // Una entrada por tabla; no vence para no dar por válido un resultado viejo
+                .withCache(UPDATE_TIMESTAMPS, region(100, ExpiryPolicyBuilder.noExpiration()));
+
+        EhcacheCachingProvider provider =
+                (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        return provider.getCacheManager(URI.create("urn:tcg-usuarios:hibernate"), config.build());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheProperties(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private static CacheConfigurationBuilder<Object, Object> region(long entries, ExpiryPolicy<Object, Object> expiry) {
+        return CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(entries))
+                .withExpiry(expiry);
+    }
+
+    private static ExpiryPolicy<Object, Object> ttl(long seconds) {
+        return ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(seconds));
+    }
+}
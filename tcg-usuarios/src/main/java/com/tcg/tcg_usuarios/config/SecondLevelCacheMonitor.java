@@ -0,0 +1,53 @@
+package com.tcg.tcg_usuarios.config;
+
+import com.tcg.tcg_usuarios.dto.SecondLevelCacheStats;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Aciertos de la caché de segundo nivel por región y de la resolución de
+ * usuarios por correo (natural id).
+ */
+@Component
+public class SecondLevelCacheMonitor {
+
+    private final Statistics statistics;
+
+    public SecondLevelCacheMonitor(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    public SecondLevelCacheStats stats() {
+        List<SecondLevelCacheStats.Region> regions = new ArrayList<>();
+        String[] names = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(names);
+        for (String name : names) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(name);
+            if (region != null) {
+                regions.add(SecondLevelCacheStats.Region.builder()
+                        .nombre(name)
+                        .aciertos(region.getHitCount())
+                        .fallos(region.getMissCount())
+                        .guardados(region.getPutCount())
+                        .build());
+            }
+        }
+
+        return SecondLevelCacheStats.builder()
+                .estadisticas(statistics.isStatisticsEnabled())
+                .entidadesCargadas(statistics.getEntityLoadCount())
+                .sentencias(statistics.getPrepareStatementCount())
+                .correoAciertos(statistics.getNaturalIdCacheHitCount())
+                .correoFallos(statistics.getNaturalIdCacheMissCount())
+                .correoConsultas(statistics.getNaturalIdQueryExecutionCount())
+                .regiones(regions)
+                .build();
+    }
+}
@@ -1,9 +1,16 @@
 package com.tcg.tcg_usuarios.controller;
 
+import com.tcg.tcg_usuarios.config.ReplicaRoutingDataSource;
+import com.tcg.tcg_usuarios.config.SecondLevelCacheMonitor;
+import com.tcg.tcg_usuarios.config.VirtualThreadMonitor;
+import com.tcg.tcg_usuarios.dto.ReplicaStats;
+import com.tcg.tcg_usuarios.dto.SecondLevelCacheStats;
+import com.tcg.tcg_usuarios.dto.ThreadingStats;
 import com.tcg.tcg_usuarios.model.User;
 import com.tcg.tcg_usuarios.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -22,6 +29,9 @@ import java.util.Map;
 public class AdminController {
     
     private final UserRepository userRepository;
+    private final VirtualThreadMonitor virtualThreadMonitor;
+    private final ObjectProvider<ReplicaRoutingDataSource> replicaRouting;
+    private final SecondLevelCacheMonitor secondLevelCacheMonitor;
     
 
     @GetMapping
@@ -64,6 +74,31 @@ public class AdminController {
     }
     
 
+    @GetMapping("/hilos")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ThreadingStats> getThreadingStats() {
+        return ResponseEntity.ok(virtualThreadMonitor.stats());
+    }
+    
+
+    @GetMapping("/replicas")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ReplicaStats> getReplicaStats() {
+        ReplicaRoutingDataSource routing = replicaRouting.getIfAvailable();
+        if (routing == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(routing.stats());
+    }
+    
+
+    @GetMapping("/cache-hibernate")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<SecondLevelCacheStats> getSecondLevelCacheStats() {
+        return ResponseEntity.ok(secondLevelCacheMonitor.stats());
+    }
+    
+
     @SuppressWarnings("null")
     @DeleteMapping("/users/{id}")
     @PreAuthorize("hasRole('ADMIN')")
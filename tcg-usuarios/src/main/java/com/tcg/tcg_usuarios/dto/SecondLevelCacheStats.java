@@ -0,0 +1,55 @@
+package com.tcg.tcg_usuarios.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SecondLevelCacheStats {
+
+    // false: hibernate.generate_statistics apagado, los contadores quedan en 0
+    private boolean estadisticas;
+
+    // Entidades leídas de la BD (las que salieron de la caché no cuentan)
+    private long entidadesCargadas;
+
+    // Sentencias SQL preparadas
+    private long sentencias;
+
+    // Búsquedas de User por correo (natural id): resueltas en caché, no encontradas
+    // en caché y las que terminaron en un SELECT
+    private long correoAciertos;
+
+    private long correoFallos;
+
+    private long correoConsultas;
+
+    // Regiones de entidades, del natural id y de consultas
+    private List<Region> regiones;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Region {
+
+        private String nombre;
+
+        private long aciertos;
+
+        private long fallos;
+
+        private long guardados;
+
+        public double getTasaAciertos() {
+            long total = aciertos + fallos;
+            return total == 0 ? 0.0 : (double) aciertos / total;
+        }
+    }
+}
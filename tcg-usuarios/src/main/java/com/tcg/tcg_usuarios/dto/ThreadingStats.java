@@ -0,0 +1,43 @@
+package com.tcg.tcg_usuarios.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ThreadingStats {
+
+    private boolean hilosVirtuales;
+
+    // Eventos jdk.VirtualThreadPinned registrados (0 si el monitor está apagado)
+    private boolean monitorPinning;
+
+    private long pinnedEventos;
+
+    private long pinnedMsTotal;
+
+    private long pinnedMsMax;
+
+    // Primer frame fuera del JDK → veces que fijó el carrier (los más frecuentes primero)
+    private Map<String, Long> pinnedSitios;
+
+    // Pool de conexiones (-1 si no es Hikari)
+    private int poolMaximo;
+
+    private int poolActivas;
+
+    private int poolInactivas;
+
+    private int poolEsperando;
+
+    // Hashes BCrypt en curso como máximo (-1 sin límite) y los que esperan turno
+    private int bcryptMaxConcurrentes;
+
+    private int bcryptEsperando;
+}
@@ -1,7 +1,12 @@
 package com.tcg.tcg_usuarios.model;
 
+import com.tcg.tcg_usuarios.config.SecondLevelCacheConfig;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -12,6 +17,8 @@ import java.util.List;
 
 @Entity
 @Table(name = "users")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.USERS)
+@NaturalIdCache(region = SecondLevelCacheConfig.USERS_BY_EMAIL)
 @Data
 @NoArgsConstructor 
 @AllArgsConstructor
@@ -25,6 +32,8 @@ public class User implements UserDetails {
     @Column(nullable = false, length = 100)
     private String nombreCompleto;
     
+    // Natural id: las búsquedas por correo se resuelven desde la caché
+    @NaturalId
     @Column(unique = true, nullable = false, length = 100)
     private String correoElectronico;
     
@@ -1,17 +1,25 @@
 package com.tcg.tcg_usuarios.repository;
 
 import com.tcg.tcg_usuarios.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.util.List;
 
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+@Transactional(readOnly = true)
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
     
 
-    Optional<User> findByCorreoElectronico(String correoElectronico);
+    // Listado del panel de admin: ids desde la caché de consultas
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<User> findAll();
     
 
     boolean existsByCorreoElectronico(String correoElectronico);
@@ -0,0 +1,14 @@
+package com.tcg.tcg_usuarios.repository;
+
+import com.tcg.tcg_usuarios.model.User;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+
+public interface UserRepositoryCustom {
+
+    // Por natural id: pasa por la caché de segundo nivel en vez de un SELECT por correo
+    @Transactional(readOnly = true)
+    Optional<User> findByCorreoElectronico(String correoElectronico);
+}
@@ -0,0 +1,23 @@
+package com.tcg.tcg_usuarios.repository;
+
+import com.tcg.tcg_usuarios.model.User;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+
+import java.util.Optional;
+
+
+@RequiredArgsConstructor
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+
+    @Override
+    public Optional<User> findByCorreoElectronico(String correoElectronico) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(correoElectronico);
+    }
+}
@@ -0,0 +1,62 @@
+package com.tcg.tcg_usuarios.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Limita cuántos hashes corren a la vez.
+ *
+ * BCrypt es CPU pura (~100 ms por hash). Con hilos virtuales no hay un pool de
+ * Tomcat que frene y una ráfaga de logins ocupa todos los carriers: como un
+ * hilo virtual no se desaloja mientras calcula, el resto de los requests
+ * (validar un JWT, listar usuarios) espera detrás. Con el límite, los logins
+ * que sobran quedan estacionados sin ocupar carrier.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Semaphore permits;
+    private final int maxConcurrent;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int maxConcurrent) {
+        this.delegate = delegate;
+        this.maxConcurrent = maxConcurrent > 0
+                ? maxConcurrent
+                : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        this.permits = new Semaphore(this.maxConcurrent, true);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        permits.acquireUninterruptibly();
+        try {
+            return delegate.encode(rawPassword);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        permits.acquireUninterruptibly();
+        try {
+            return delegate.matches(rawPassword, encodedPassword);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getWaiting() {
+        return permits.getQueueLength();
+    }
+}
@@ -34,6 +34,9 @@ public class SecurityConfig {
     
     @Value("${cors.allowed-origins}")
     private String[] allowedOrigins;
+
+    @Value("${security.bcrypt.max-concurrent:0}")
+    private int bcryptMaxConcurrent;
     
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -73,7 +76,7 @@ public class SecurityConfig {
     
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), bcryptMaxConcurrent);
     }
 
     @Bean
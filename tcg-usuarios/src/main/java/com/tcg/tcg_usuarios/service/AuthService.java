@@ -1,5 +1,6 @@
 package com.tcg.tcg_usuarios.service;
 
+import com.tcg.tcg_usuarios.config.ReplicaRoutingDataSource;
 import com.tcg.tcg_usuarios.dto.AuthResponse;
 import com.tcg.tcg_usuarios.dto.LoginRequest;
 import com.tcg.tcg_usuarios.dto.RegisterRequest;
@@ -14,6 +15,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 
@@ -30,7 +32,10 @@ public class AuthService {
     private final CustomUserDetailsService userDetailsService;
     
 
+    // Sin transacción propia: BCrypt tarda ~100 ms y no debe retener una
+    // conexión del pool; cada consulta del repositorio va en la suya
     @SuppressWarnings("null")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse register(RegisterRequest request) {
         log.info("Intentando registrar usuario con correo: {}", request.getCorreoElectronico());
         
@@ -39,7 +44,9 @@ public class AuthService {
             throw new RuntimeException("Las contraseñas no coinciden");
         }
         
-        if (userRepository.existsByCorreoElectronico(request.getCorreoElectronico())) {
+        // Del primario: una réplica atrasada no ve un registro de hace instantes
+        if (ReplicaRoutingDataSource.fromPrimary(
+                () -> userRepository.existsByCorreoElectronico(request.getCorreoElectronico()))) {
             log.warn("Intento de registro con correo ya existente: {}", request.getCorreoElectronico());
             throw new RuntimeException("El correo electrónico ya está registrado");
         }
@@ -68,6 +75,7 @@ public class AuthService {
     }
     
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse login(LoginRequest request) {
         log.info("Intento de login para el correo: {}", request.getCorreoElectronico());
         
@@ -79,7 +87,9 @@ public class AuthService {
                 )
             );
             
-            User user = userRepository.findByCorreoElectronico(request.getCorreoElectronico())
+            // Del primario, como la autenticación cuando la réplica no lo tiene
+            User user = ReplicaRoutingDataSource.fromPrimary(
+                            () -> userRepository.findByCorreoElectronico(request.getCorreoElectronico()))
                     .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
             
             UserDetails userDetails = userDetailsService.loadUserByUsername(request.getCorreoElectronico());
@@ -1,5 +1,6 @@
 package com.tcg.tcg_usuarios.service;
 
+import com.tcg.tcg_usuarios.config.ReplicaRoutingDataSource;
 import com.tcg.tcg_usuarios.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -14,9 +15,15 @@ public class CustomUserDetailsService implements UserDetailsService {
     
     private final UserRepository userRepository;
     
+    // En cada request autenticado: va a una réplica si hay. Si no lo encuentra
+    // se busca en el primario: puede haberse registrado recién (en esta u otra
+    // instancia) y la réplica todavía no tenerlo. Cada consulta abre su propia
+    // transacción para que la segunda pueda tomar otra conexión
     @Override
     public UserDetails loadUserByUsername(String correoElectronico) throws UsernameNotFoundException {
         return userRepository.findByCorreoElectronico(correoElectronico)
+                .or(() -> ReplicaRoutingDataSource.fromPrimary(
+                        () -> userRepository.findByCorreoElectronico(correoElectronico)))
                 .orElseThrow(() -> new UsernameNotFoundException(
                     "Usuario no encontrado con correo: " + correoElectronico
                 ));
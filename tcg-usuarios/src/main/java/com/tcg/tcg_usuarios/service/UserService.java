@@ -17,17 +17,20 @@ public class UserService {
     
     private final UserRepository userRepository;
 
+    @Transactional(readOnly = true)
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
     
 
     @SuppressWarnings("null")
+    @Transactional(readOnly = true)
     public Optional<User> getUserById(Long id) {
         return userRepository.findById(id);
     }
     
 
+    @Transactional(readOnly = true)
     public Optional<User> getUserByEmail(String correoElectronico) {
         return userRepository.findByCorreoElectronico(correoElectronico);
     }
@@ -45,11 +48,13 @@ public class UserService {
     }
     
 
+    @Transactional(readOnly = true)
     public long countUsers() {
         return userRepository.count();
     }
     
 
+    @Transactional(readOnly = true)
     public boolean existsByEmail(String correoElectronico) {
         return userRepository.existsByCorreoElectronico(correoElectronico);
     }
@@ -0,0 +1,189 @@
+package com.tcg.tcg_usuarios.config;
+
+import jakarta.servlet.http.Cookie;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Dos H2 en memoria hacen de primario y réplica; cada una tiene una fila que
+ * dice cuál es, así se ve a dónde fue cada consulta.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private final AtomicLong lag = new AtomicLong();
+
+    private ReadYourWritesFilter readYourWrites;
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primario");
+        DataSource replica = database("replica");
+
+        readYourWrites = new ReadYourWritesFilter(Duration.ofSeconds(5));
+        ReplicaLagProbe probe = connection -> {
+            if (lag.get() == Long.MAX_VALUE) {
+                throw new SQLException("réplica caída");
+            }
+            return lag.get();
+        };
+        routing = new ReplicaRoutingDataSource(primary, Map.of("replica-1", replica), probe,
+                readYourWrites, 5000, 1000);
+        routing.afterPropertiesSet();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        DataSourceTransactionManager tm = new DataSourceTransactionManager(dataSource);
+        jdbc = new JdbcTemplate(dataSource);
+        readOnly = new TransactionTemplate(tm);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(tm);
+    }
+
+    @Test
+    void readOnlyGoesToReplicaAndWritesToPrimary() throws InterruptedException {
+        checkAfterTick();
+
+        assertEquals("replica", readOnly.execute(s -> origin()));
+        assertEquals("primario", readWrite.execute(s -> origin()));
+        // Fuera de una transacción no se sabe si va a escribir
+        assertEquals("primario", origin());
+    }
+
+    @Test
+    void laggingOrDownReplicaFallsBackToPrimary() throws InterruptedException {
+        lag.set(10_000);
+        checkAfterTick();
+        assertEquals("primario", readOnly.execute(s -> origin()));
+
+        lag.set(0);
+        checkAfterTick();
+        assertEquals("replica", readOnly.execute(s -> origin()));
+
+        lag.set(Long.MAX_VALUE);
+        checkAfterTick();
+        assertEquals("primario", readOnly.execute(s -> origin()));
+        assertEquals(2, routing.stats().getLecturasPrimario());
+    }
+
+    @Test
+    void registrationDoesNotMoveOtherClientsOffReplica() throws Exception {
+        checkAfterTick();
+
+        // Registro: el front llama desde otro origen y no devuelve la cookie
+        MockHttpServletRequest register = new MockHttpServletRequest("POST", "/api/auth/register");
+        readYourWrites.doFilter(register, new MockHttpServletResponse(), (req, res) ->
+                readWrite.executeWithoutResult(s -> jdbc.update("UPDATE origen SET escrito = TRUE")));
+        assertEquals(1, routing.stats().getEscrituras());
+
+        // Otro request sin cookie sigue en la réplica; lo que tiene que ver el
+        // registro (login, correo único) lo pide explícitamente al primario
+        AtomicReference<String> read = new AtomicReference<>();
+        AtomicReference<String> login = new AtomicReference<>();
+        Thread other = Thread.ofPlatform().start(() -> {
+            try {
+                readYourWrites.doFilter(new MockHttpServletRequest("POST", "/api/auth/login"),
+                        new MockHttpServletResponse(), (req, res) -> {
+                            read.set(readOnly.execute(s -> origin()));
+                            login.set(ReplicaRoutingDataSource.fromPrimary(() -> readOnly.execute(s -> origin())));
+                        });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        other.join();
+        assertEquals("replica", read.get());
+        assertEquals("primario", login.get());
+    }
+
+    @Test
+    void transactionWithoutDmlIsNotAWrite() throws InterruptedException {
+        checkAfterTick();
+
+        // Sin readOnly pero solo lee; o escribe y vuelve atrás
+        readWrite.executeWithoutResult(s -> origin());
+        readWrite.executeWithoutResult(s -> {
+            jdbc.update("UPDATE origen SET escrito = TRUE");
+            s.setRollbackOnly();
+        });
+
+        assertEquals(0, routing.stats().getEscrituras());
+        assertEquals("replica", readOnly.execute(s -> origin()));
+    }
+
+    @Test
+    void writeLeavesCookieThatIsReadBack() throws Exception {
+        checkAfterTick();
+
+        MockHttpServletRequest put = new MockHttpServletRequest("PUT", "/api/usuarios/1");
+        MockHttpServletResponse putResponse = new MockHttpServletResponse();
+        readYourWrites.doFilter(put, putResponse, (req, res) -> withRequest(put, putResponse, () ->
+                readWrite.executeWithoutResult(s -> jdbc.update("UPDATE origen SET escrito = TRUE")))
+        );
+        String setCookie = putResponse.getHeader(HttpHeaders.SET_COOKIE);
+        assertTrue(setCookie != null && setCookie.startsWith(ReadYourWritesFilter.COOKIE + "="), setCookie);
+        String written = setCookie.substring(setCookie.indexOf('=') + 1, setCookie.indexOf(';'));
+
+        // Otra instancia lee la cookie
+        ReadYourWritesFilter otherInstance = new ReadYourWritesFilter(Duration.ofSeconds(5));
+        MockHttpServletRequest get = new MockHttpServletRequest("GET", "/api/usuarios/1");
+        get.setCookies(new Cookie(ReadYourWritesFilter.COOKIE, written));
+        AtomicLong required = new AtomicLong();
+        otherInstance.doFilter(get, new MockHttpServletResponse(), (req, res) -> required.set(otherInstance.required()));
+
+        assertEquals(Long.parseLong(written), required.get());
+    }
+
+    // ===== helpers =====
+
+    private String origin() {
+        return jdbc.queryForObject("SELECT nombre FROM origen", String.class);
+    }
+
+    // Asegura que la medición quede en un milisegundo posterior a lo anterior
+    private void checkAfterTick() throws InterruptedException {
+        Thread.sleep(2);
+        routing.checkReplicas();
+    }
+
+    private static void withRequest(MockHttpServletRequest request, MockHttpServletResponse response, Runnable action) {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        try {
+            action.run();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource ds = new JdbcDataSource();
+        ds.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(ds);
+        jdbc.execute("CREATE TABLE origen (nombre VARCHAR(20), escrito BOOLEAN DEFAULT FALSE)");
+        jdbc.update("INSERT INTO origen (nombre) VALUES (?)", name);
+        return ds;
+    }
+}
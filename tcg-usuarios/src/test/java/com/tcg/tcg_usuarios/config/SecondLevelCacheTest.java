@@ -0,0 +1,97 @@
+package com.tcg.tcg_usuarios.config;
+
+import com.tcg.tcg_usuarios.dto.SecondLevelCacheStats;
+import com.tcg.tcg_usuarios.model.Role;
+import com.tcg.tcg_usuarios.model.User;
+import com.tcg.tcg_usuarios.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Caché de segundo nivel contra H2, medida con los contadores de
+ * SecondLevelCacheMonitor.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.format_sql=false",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // application.properties los toma del entorno
+        "spring.application.name=tcg-usuarios",
+        "logging.level.com.tcg.tcg_usuarios=INFO",
+        "logging.level.org.springframework.security=INFO",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+@Import({SecondLevelCacheConfig.class, SecondLevelCacheMonitor.class})
+// Cada llamada al repositorio en su propia sesión: si no, responde la caché de primer nivel
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+    private static final String CORREO = "ana@tcg.cl";
+
+    @Autowired
+    private UserRepository users;
+
+    @Autowired
+    private SecondLevelCacheMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        users.deleteAll();
+        users.save(User.builder()
+                .nombreCompleto("Ana")
+                .correoElectronico(CORREO)
+                .password("hash")
+                .role(Role.USER)
+                .enabled(true)
+                .build());
+    }
+
+    @Test
+    void secondLookupByEmailIsServedFromCache() {
+        users.findByCorreoElectronico(CORREO).orElseThrow();
+
+        SecondLevelCacheStats before = monitor.stats();
+        assertTrue(before.isEstadisticas());
+        assertEquals("Ana", users.findByCorreoElectronico(CORREO).orElseThrow().getNombreCompleto());
+        SecondLevelCacheStats after = monitor.stats();
+
+        // Correo → id desde la región del natural id, id → User desde la de entidades
+        assertEquals(before.getCorreoAciertos() + 1, after.getCorreoAciertos());
+        assertEquals(before.getCorreoConsultas(), after.getCorreoConsultas());
+        assertEquals(hits(before, SecondLevelCacheConfig.USERS_BY_EMAIL) + 1,
+                hits(after, SecondLevelCacheConfig.USERS_BY_EMAIL));
+        assertEquals(hits(before, SecondLevelCacheConfig.USERS) + 1, hits(after, SecondLevelCacheConfig.USERS));
+        assertEquals(before.getEntidadesCargadas(), after.getEntidadesCargadas());
+    }
+
+    @Test
+    void unknownEmailGoesToDatabase() {
+        SecondLevelCacheStats before = monitor.stats();
+        assertTrue(users.findByCorreoElectronico("nadie@tcg.cl").isEmpty());
+        SecondLevelCacheStats after = monitor.stats();
+
+        assertEquals(before.getCorreoFallos() + 1, after.getCorreoFallos());
+        assertEquals(before.getCorreoConsultas() + 1, after.getCorreoConsultas());
+    }
+
+    // ===== helpers =====
+
+    private static long hits(SecondLevelCacheStats stats, String region) {
+        return stats.getRegiones().stream()
+                .filter(r -> r.getNombre().equals(region))
+                .mapToLong(SecondLevelCacheStats.Region::getAciertos)
+                .findFirst()
+                .orElse(0);
+    }
+}